@@ -0,0 +1,78 @@
+package com.portfoliotracker.marketdata.cluster;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lock backed by an exclusive OS file lock on a file shared by the replicas, e.g. on a common volume.
+ * The operating system releases the lock when the holding process exits, so a crashed leader is
+ * replaced on the next acquisition attempt of another replica.
+ */
+public class FileLeaderLock implements LeaderLock {
+
+    private final Path lockFile;
+
+    private FileChannel channel;
+
+    private FileLock lock;
+
+    private static final Logger logger = LogManager.getLogger(FileLeaderLock.class);
+
+    public FileLeaderLock(Path lockFile) {
+        this.lockFile = lockFile;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire() {
+
+        if (isHeld()) {
+            return true;
+        }
+
+        try {
+            if (lockFile.getParent() != null) {
+                Files.createDirectories(lockFile.getParent());
+            }
+            if (channel == null || !channel.isOpen()) {
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            lock = channel.tryLock();
+        } catch (IOException | OverlappingFileLockException e) {
+            logger.error("Failed to acquire leader lock file {}. Error: {}", lockFile, e.getMessage());
+            lock = null;
+        }
+
+        return isHeld();
+    }
+
+    @Override
+    public synchronized boolean isHeld() {
+        return lock != null && lock.isValid();
+    }
+
+    @Override
+    public synchronized void release() {
+
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to release leader lock file {}. Error: {}", lockFile, e.getMessage());
+        } finally {
+            lock = null;
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.portfoliotracker.marketdata.cluster;
+
+/**
+ * Lock that elects the single marketdata instance allowed to scrape the market data source.
+ */
+public interface LeaderLock {
+
+    /**
+     * Tries to acquire the lock without blocking.
+     *
+     * @return {@code true} if this instance holds the lock after the call.
+     */
+    boolean tryAcquire();
+
+    boolean isHeld();
+
+    void release();
+
+}
@@ -0,0 +1,21 @@
+package com.portfoliotracker.marketdata.cluster;
+
+/**
+ * Lock for single instance deployments. The instance is always the leader.
+ */
+public class LocalLeaderLock implements LeaderLock {
+
+    @Override
+    public boolean tryAcquire() {
+        return true;
+    }
+
+    @Override
+    public boolean isHeld() {
+        return true;
+    }
+
+    @Override
+    public void release() {
+    }
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import java.time.Instant;
 import java.util.List;
 
+@NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
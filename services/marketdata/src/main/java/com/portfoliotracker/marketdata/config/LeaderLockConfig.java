@@ -0,0 +1,31 @@
+package com.portfoliotracker.marketdata.config;
+
+import com.portfoliotracker.marketdata.cluster.FileLeaderLock;
+import com.portfoliotracker.marketdata.cluster.LeaderLock;
+import com.portfoliotracker.marketdata.cluster.LocalLeaderLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class LeaderLockConfig {
+
+    /**
+     * MARKET_DATA_LEADER_LOCK selects the lock: 'local' for a single instance, 'file' for replicas sharing
+     * the lock file.
+     */
+    @Bean(destroyMethod = "release")
+    public LeaderLock leaderLock(
+            @Value("${MARKET_DATA_LEADER_LOCK:local}") String leaderLockType,
+            @Value("${MARKET_DATA_LEADER_LOCK_FILE:/tmp/portfolio-tracker/marketdata-leader.lock}") String leaderLockFile) {
+
+        return switch (leaderLockType.trim().toLowerCase()) {
+            case "local" -> new LocalLeaderLock();
+            case "file" -> new FileLeaderLock(Path.of(leaderLockFile));
+            default -> throw new IllegalArgumentException(
+                    String.format("Unknown MARKET_DATA_LEADER_LOCK '%s'. Use 'local' or 'file'.", leaderLockType));
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.portfoliotracker.marketdata.config;
+
+import com.portfoliotracker.marketdata.source.JsoupStockDataSource;
+import com.portfoliotracker.marketdata.source.StockDataSource;
+import com.portfoliotracker.marketdata.source.SyntheticStockDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StockDataSourceConfig {
+
+    /**
+     * STOCK_DATA_SOURCE selects the source: 'jsoup' scrapes STOCK_DATA_URL, 'synthetic' generates
+     * STOCK_DATA_SYNTHETIC_SYMBOLS random walk symbols, for scaling tests without network access.
+     */
+    @Bean
+    public StockDataSource stockDataSource(
+            @Value("${STOCK_DATA_SOURCE:jsoup}") String stockDataSourceType,
+            @Value("${STOCK_DATA_URL:}") String stockDataUrl,
+            @Value("${STOCK_DATA_SYNTHETIC_SYMBOLS:10000}") int syntheticSymbolCount,
+            @Value("${STOCK_DATA_SYNTHETIC_STEPS_PER_DAY:280}") double syntheticStepsPerDay,
+            @Value("${STOCK_DATA_SYNTHETIC_SEED:42}") long syntheticSeed) {
+
+        return switch (stockDataSourceType.trim().toLowerCase()) {
+            case "jsoup" -> new JsoupStockDataSource(stockDataUrl);
+            case "synthetic" -> new SyntheticStockDataSource(syntheticSymbolCount, syntheticStepsPerDay, syntheticSeed);
+            default -> throw new IllegalArgumentException(
+                    String.format("Unknown STOCK_DATA_SOURCE '%s'. Use 'jsoup' or 'synthetic'.", stockDataSourceType));
+        };
+    }
+}
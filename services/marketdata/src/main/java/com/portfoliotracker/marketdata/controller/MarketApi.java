@@ -0,0 +1,64 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.MarketBreadthResponse;
+import com.portfoliotracker.marketdata.service.MarketBreadthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class MarketApi {
+
+    private final MarketBreadthService marketBreadthService;
+
+    @GetMapping("/market/breadth")
+    @Operation(
+            summary = "Retrieve market breadth statistics.",
+            description = "This endpoint retrieves advancers, decliners and unchanged counts, total trading volume, " +
+                    "the median daily change and percentile bands of daily change of the latest market data. " +
+                    "Statistics are computed once when the market data is refreshed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Market breadth successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "500", description  = "No market data found.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<MarketBreadthResponse>> getMarketBreadth(WebRequest webRequest) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        MarketBreadthResponse marketBreadth = marketBreadthService.getMarketBreadth();
+
+        ApiCustomResponse<MarketBreadthResponse> apiCustomResponse = ApiCustomResponse.<MarketBreadthResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message("Market breadth successfully received.")
+                .data(marketBreadth)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
@@ -0,0 +1,152 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.IndexResponse;
+import com.portfoliotracker.marketdata.dto.StockSnapshotResponse;
+import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.IndexService;
+import com.portfoliotracker.marketdata.service.SnapshotReplicationService;
+import com.portfoliotracker.marketdata.service.StockService;
+import com.portfoliotracker.marketdata.service.impl.SnapshotReplicationServiceImpl;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints used between marketdata instances to replicate the data scraped by the leader.
+ * They are outside of the '/market-data' prefix, so the gateway does not route them.
+ */
+@Hidden
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/replication")
+public class ReplicationApi {
+
+    private final StockService stockService;
+    private final IndexService indexService;
+    private final SnapshotReplicationService snapshotReplicationService;
+
+    @PostMapping("/stocks")
+    public ResponseEntity<ApiCustomResponse<Boolean>> acceptStockSnapshot(
+            WebRequest webRequest,
+            @RequestHeader(name = SnapshotReplicationServiceImpl.REPLICATION_TOKEN_HEADER, required = false) String replicationToken,
+            @RequestBody StockSnapshotResponse snapshot) {
+
+        snapshotReplicationService.verifyReplicationToken(replicationToken);
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        boolean isAccepted = stockService.acceptReplicatedSnapshot(new StockSnapshot(
+                snapshot.getVersion(),
+                snapshot.getPublishedAt(),
+                Collections.unmodifiableMap(new HashMap<>(snapshot.getStocks()))
+        ));
+
+        ApiCustomResponse<Boolean> apiCustomResponse = ApiCustomResponse.<Boolean>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("Stock snapshot version %d %s.", snapshot.getVersion(),
+                        isAccepted ? "accepted" : "ignored"))
+                .data(isAccepted)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @GetMapping("/stocks")
+    public ResponseEntity<ApiCustomResponse<StockSnapshotResponse>> getStockSnapshot(
+            WebRequest webRequest,
+            @RequestHeader(name = SnapshotReplicationServiceImpl.REPLICATION_TOKEN_HEADER, required = false) String replicationToken) {
+
+        snapshotReplicationService.verifyReplicationToken(replicationToken);
+
+        StockSnapshot snapshot = stockService.getLatestSnapshot();
+        if (snapshot == null) {
+            throw new NoMarketDataFoundException();
+        }
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        StockSnapshotResponse snapshotResponse = StockSnapshotResponse.builder()
+                .version(snapshot.getVersion())
+                .publishedAt(snapshot.getPublishedAt())
+                .stocks(snapshot.getStocks())
+                .build();
+
+        ApiCustomResponse<StockSnapshotResponse> apiCustomResponse = ApiCustomResponse.<StockSnapshotResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("Stock snapshot version %d successfully received.", snapshot.getVersion()))
+                .data(snapshotResponse)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @PostMapping("/indexes")
+    public ResponseEntity<ApiCustomResponse<String>> acceptIndexes(
+            WebRequest webRequest,
+            @RequestHeader(name = SnapshotReplicationServiceImpl.REPLICATION_TOKEN_HEADER, required = false) String replicationToken,
+            @RequestBody Map<String, IndexResponse> indexesMarketData) {
+
+        snapshotReplicationService.verifyReplicationToken(replicationToken);
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        indexService.acceptReplicatedIndexes(indexesMarketData);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d indexes accepted.", indexesMarketData.size()))
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @GetMapping("/indexes")
+    public ResponseEntity<ApiCustomResponse<Map<String, IndexResponse>>> getIndexes(
+            WebRequest webRequest,
+            @RequestHeader(name = SnapshotReplicationServiceImpl.REPLICATION_TOKEN_HEADER, required = false) String replicationToken) {
+
+        snapshotReplicationService.verifyReplicationToken(replicationToken);
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        Map<String, IndexResponse> indexesMarketData = indexService.getAllIndexesMarketData();
+
+        ApiCustomResponse<Map<String, IndexResponse>> apiCustomResponse = ApiCustomResponse.<Map<String, IndexResponse>>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d indexes successfully received.", indexesMarketData.size()))
+                .data(indexesMarketData)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
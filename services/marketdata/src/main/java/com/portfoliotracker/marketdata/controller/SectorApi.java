@@ -0,0 +1,64 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.SectorResponse;
+import com.portfoliotracker.marketdata.service.SectorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class SectorApi {
+
+    private final SectorService sectorService;
+
+    @GetMapping("/sectors")
+    @Operation(
+            summary = "Retrieve sector aggregates.",
+            description = "This endpoint retrieves stock counts, advancers, decliners, total trading volume and " +
+                    "volume weighted daily change per sector of the latest market data. Stocks without " +
+                    "registered metadata are grouped under 'Unclassified'."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Sector aggregates successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "500", description  = "No market data found.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<List<SectorResponse>>> getSectors(WebRequest webRequest) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        List<SectorResponse> sectors = sectorService.getSectors();
+
+        ApiCustomResponse<List<SectorResponse>> apiCustomResponse = ApiCustomResponse.<List<SectorResponse>>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d sectors successfully received.", sectors.size()))
+                .data(sectors)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
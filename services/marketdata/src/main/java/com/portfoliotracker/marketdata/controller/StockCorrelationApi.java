@@ -0,0 +1,99 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.CorrelationMatrixResponse;
+import com.portfoliotracker.marketdata.service.StockCorrelationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@Validated
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class StockCorrelationApi {
+
+    private final StockCorrelationService stockCorrelationService;
+
+    @GetMapping("/stocks/correlations")
+    @Operation(
+            summary = "Retrieve covariance and correlation of daily returns for specified stocks.",
+            description = "This endpoint retrieves the covariance and correlation sub-matrix of daily returns for the " +
+                    "given stock symbols. Matrices are computed once per market day after the close over the " +
+                    "configured lookback window. Rows and columns follow the order of the returned symbols."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Correlation matrix successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "206", description  = "Partial data received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "404", description  = "No correlation matrix found for the date.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<CorrelationMatrixResponse>> getCorrelationMatrix(
+            WebRequest webRequest,
+            @Parameter(description = "A list of stock symbols to fetch the matrix for.")
+            @RequestParam @NotEmpty(message = "Symbols list cannot be empty") List<String> symbols,
+            @Parameter(description = "Market day of the matrix. Defaults to the latest computed day.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        String responseMessage;
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        CorrelationMatrixResponse correlationMatrix = stockCorrelationService.getCorrelationMatrix(symbols, date);
+
+        List<String> missingSymbols = symbols.stream()
+                .filter(symbol -> !correlationMatrix.getSymbols().contains(symbol))
+                .toList();
+        boolean isAllSymbolsReceived = missingSymbols.isEmpty();
+
+        if (isAllSymbolsReceived) {
+            responseMessage = "Correlation matrix successfully received for given symbols.";
+        } else {
+            String missingSymbolsText = String.join(",", missingSymbols);
+            responseMessage = String.format("Partial data received. Missing symbols are '%s'", missingSymbolsText);
+            ErrorDetails errorDetails = ErrorDetails.builder()
+                    .status(HttpStatus.PARTIAL_CONTENT.value())
+                    .message(responseMessage)
+                    .path(path)
+                    .build();
+            errors.add(errorDetails);
+        }
+
+        ApiCustomResponse<CorrelationMatrixResponse> apiCustomResponse = ApiCustomResponse.<CorrelationMatrixResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(isAllSymbolsReceived ? HttpStatus.OK.value() : HttpStatus.PARTIAL_CONTENT.value())
+                .message(responseMessage)
+                .data(correlationMatrix)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(isAllSymbolsReceived ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+                .body(apiCustomResponse);
+    }
+}
@@ -0,0 +1,66 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.service.StockExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class StockExportApi {
+
+    public static final String ARROW_STREAM = "application/vnd.apache.arrow.stream";
+
+    private final StockExportService stockExportService;
+
+    @GetMapping(value = "/stocks/export", produces = ARROW_STREAM)
+    @Operation(
+            summary = "Export the current market data of all stocks as an Arrow stream.",
+            description = "This endpoint returns the current snapshot in the Arrow IPC streaming format, one row per stock. " +
+                    "The snapshot version and publish time are in the schema metadata."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Snapshot successfully exported.",
+                    content = @Content(mediaType = ARROW_STREAM)),
+            @ApiResponse(responseCode  = "500", description  = "No market data found.")
+    })
+    public ResponseEntity<byte[]> exportStocksSnapshot() {
+        return ResponseEntity.ok(stockExportService.exportStocksSnapshot());
+    }
+
+    @GetMapping(value = "/stocks/history/export", produces = ARROW_STREAM)
+    @Operation(
+            summary = "Export the price history of stocks as an Arrow stream.",
+            description = "This endpoint returns the retained price history of the given stocks between the given instants " +
+                    "in the Arrow IPC streaming format, without downsampling. Columns: stockSymbol, timestamp, price."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Price history successfully exported.",
+                    content = @Content(mediaType = ARROW_STREAM)),
+            @ApiResponse(responseCode  = "400", description  = "Parameters are not valid.")
+    })
+    public ResponseEntity<StreamingResponseBody> exportStockPriceHistory(
+            @Parameter(description = "Stock symbols. Defaults to all stocks.")
+            @RequestParam(required = false, defaultValue = "") List<String> symbols,
+            @Parameter(description = "Start of the range in ISO-8601 format. Defaults to the oldest retained point.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End of the range in ISO-8601 format. Defaults to the latest point.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        return ResponseEntity.ok(stockExportService.exportStockPriceHistory(symbols, from, to));
+    }
+}
@@ -0,0 +1,115 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.PricePointResponse;
+import com.portfoliotracker.marketdata.service.StockHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class StockHistoryApi {
+
+    private final StockHistoryService stockHistoryService;
+
+    @GetMapping("/stocks/{symbol}/history")
+    @Operation(
+            summary = "Retrieve price history of a stock.",
+            description = "This endpoint retrieves the retained price history of a stock between the given instants. " +
+                    "The series is downsampled on the server to at most the requested number of points, " +
+                    "so the response size does not depend on the length of the range."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Price history successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "400", description  = "Symbol or parameters are not valid.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<List<PricePointResponse>>> getStockPriceHistory(
+            WebRequest webRequest,
+            @PathVariable String symbol,
+            @Parameter(description = "Start of the range in ISO-8601 format. Defaults to the oldest retained point.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "End of the range in ISO-8601 format. Defaults to the latest point.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Maximum number of points to return.")
+            @RequestParam(defaultValue = "500") int points) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        List<PricePointResponse> priceHistory = stockHistoryService.getStockPriceHistory(symbol, from, to, points);
+
+        ApiCustomResponse<List<PricePointResponse>> apiCustomResponse = ApiCustomResponse.<List<PricePointResponse>>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d price points successfully received for '%s'.", priceHistory.size(), symbol))
+                .data(priceHistory)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @GetMapping("/stocks/{symbol}/price")
+    @Operation(
+            summary = "Retrieve the price of a stock as of an instant or market day.",
+            description = "This endpoint retrieves the last retained price of a stock at or before the given instant, " +
+                    "or the closing price of the given market day. Without parameters, the latest price is returned."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Price successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "400", description  = "Symbol or parameters are not valid.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "404", description  = "No price retained at or before the requested time.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<PricePointResponse>> getStockPriceAsOf(
+            WebRequest webRequest,
+            @PathVariable String symbol,
+            @Parameter(description = "Instant in ISO-8601 format.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+            @Parameter(description = "Market day in ISO-8601 format. Resolves to the closing price of the day.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        PricePointResponse pricePoint = stockHistoryService.getStockPriceAsOf(symbol, at, date);
+
+        ApiCustomResponse<PricePointResponse> apiCustomResponse = ApiCustomResponse.<PricePointResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("Price of '%s' successfully received.", symbol))
+                .data(pricePoint)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.StockIndicatorResponse;
+import com.portfoliotracker.marketdata.service.StockIndicatorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class StockIndicatorApi {
+
+    private final StockIndicatorService stockIndicatorService;
+
+    @GetMapping("/stocks/{symbol}/indicators")
+    @Operation(
+            summary = "Retrieve rolling indicators of a stock.",
+            description = "This endpoint retrieves the moving averages, return volatility and RSI of a stock. " +
+                    "Indicators are updated incrementally on every market data refresh and windows are measured " +
+                    "in refreshes with new trades. Indicators without enough observations are returned as null."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Indicators successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "400", description  = "Symbol is not valid.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<StockIndicatorResponse>> getStockIndicators(
+            WebRequest webRequest,
+            @PathVariable String symbol) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        StockIndicatorResponse stockIndicators = stockIndicatorService.getStockIndicators(symbol);
+
+        ApiCustomResponse<StockIndicatorResponse> apiCustomResponse = ApiCustomResponse.<StockIndicatorResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("Indicators successfully received for '%s'.", symbol))
+                .data(stockIndicators)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
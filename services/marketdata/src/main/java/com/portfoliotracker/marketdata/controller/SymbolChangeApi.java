@@ -0,0 +1,69 @@
+package com.portfoliotracker.marketdata.controller;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.common.ErrorDetails;
+import com.portfoliotracker.marketdata.dto.SymbolChangeFeedResponse;
+import com.portfoliotracker.marketdata.service.SymbolChangeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/market-data/api/v1")
+public class SymbolChangeApi {
+
+    private final SymbolChangeService symbolChangeService;
+
+    @GetMapping("/symbols/changes")
+    @Operation(
+            summary = "Retrieve stock symbol listings and delistings after a snapshot version.",
+            description = "This endpoint retrieves stock symbols listed or delisted after the given snapshot version. " +
+                    "Consumers keep the returned snapshot version and pass it as 'since' on the next call. " +
+                    "If 'fullResyncRequired' is true, the consumer must reload the full symbol list first."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Symbol changes successfully received.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "500", description  = "No market data found.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<SymbolChangeFeedResponse>> getSymbolChanges(
+            WebRequest webRequest,
+            @Parameter(description = "The last snapshot version applied by the consumer.")
+            @RequestParam(defaultValue = "0") long since) {
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        SymbolChangeFeedResponse symbolChanges = symbolChangeService.getSymbolChanges(since);
+
+        ApiCustomResponse<SymbolChangeFeedResponse> apiCustomResponse = ApiCustomResponse.<SymbolChangeFeedResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d symbol changes successfully received.", symbolChanges.getChanges().size()))
+                .data(symbolChanges)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
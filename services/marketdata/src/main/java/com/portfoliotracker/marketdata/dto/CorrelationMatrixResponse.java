@@ -0,0 +1,21 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class CorrelationMatrixResponse {
+
+    private LocalDate date;
+    private int lookbackDays;
+    private List<String> symbols;
+    private double[][] covariance;
+    private double[][] correlation;
+}
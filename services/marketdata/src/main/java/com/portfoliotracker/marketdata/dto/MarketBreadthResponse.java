@@ -0,0 +1,26 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class MarketBreadthResponse {
+
+    private long snapshotVersion;
+    private Instant publishedAt;
+    private int stockCount;
+    private int advancers;
+    private int decliners;
+    private int unchanged;
+    private BigDecimal totalTradingVolumeTL;
+    private BigDecimal medianDailyChangePct;
+    private Map<String, BigDecimal> dailyChangePctPercentiles;
+}
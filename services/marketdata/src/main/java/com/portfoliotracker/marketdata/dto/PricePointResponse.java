@@ -0,0 +1,18 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class PricePointResponse {
+
+    private Instant timestamp;
+    private BigDecimal price;
+}
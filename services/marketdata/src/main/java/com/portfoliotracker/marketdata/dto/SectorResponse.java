@@ -0,0 +1,21 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class SectorResponse {
+
+    private String sector;
+    private int stockCount;
+    private int advancers;
+    private int decliners;
+    private BigDecimal totalTradingVolumeTL;
+    private BigDecimal volumeWeightedChangePct;
+}
@@ -0,0 +1,29 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class StockIndicatorResponse {
+
+    private String stockSymbol;
+    private Instant updatedAt;
+    private long observations;
+    private BigDecimal latestPrice;
+    private int smaWindow;
+    private BigDecimal sma;
+    private int emaPeriod;
+    private BigDecimal ema;
+    private int volatilityWindow;
+    private BigDecimal meanReturnPct;
+    private BigDecimal volatilityPct;
+    private int rsiPeriod;
+    private BigDecimal rsi;
+}
@@ -0,0 +1,19 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "stocks")
+public class StockSnapshotResponse {
+
+    private long version;
+    private Instant publishedAt;
+    private Map<String, StockResponse> stocks;
+}
@@ -0,0 +1,19 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class SymbolChangeFeedResponse {
+
+    private long snapshotVersion;
+    private long oldestAvailableVersion;
+    private boolean fullResyncRequired;
+    private List<SymbolChangeResponse> changes;
+}
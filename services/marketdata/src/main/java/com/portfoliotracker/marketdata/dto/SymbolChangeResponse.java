@@ -0,0 +1,19 @@
+package com.portfoliotracker.marketdata.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class SymbolChangeResponse {
+
+    private long version;
+    private Instant timestamp;
+    private String stockSymbol;
+    private String changeType;
+}
@@ -101,4 +101,91 @@ public class GlobalExceptionHandler {
 
     }
 
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleInvalidParameterException(
+            InvalidParameterException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleResourceNotFoundException(
+            ResourceNotFoundException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.NOT_FOUND.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiCustomResponse);
+
+    }
+
+    @ExceptionHandler(ReplicationNotAuthorizedException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleReplicationNotAuthorizedException(
+            ReplicationNotAuthorizedException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.FORBIDDEN.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.FORBIDDEN.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(apiCustomResponse);
+
+    }
+
 }
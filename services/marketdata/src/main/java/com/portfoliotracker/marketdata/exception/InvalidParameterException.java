@@ -0,0 +1,12 @@
+package com.portfoliotracker.marketdata.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidParameterException extends RuntimeException{
+
+    public InvalidParameterException(String parameterName, String reason){
+        super(String.format("Invalid '%s' parameter. %s", parameterName, reason));
+    }
+}
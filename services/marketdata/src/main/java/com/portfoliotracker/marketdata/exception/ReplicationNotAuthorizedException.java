@@ -0,0 +1,12 @@
+package com.portfoliotracker.marketdata.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.FORBIDDEN)
+public class ReplicationNotAuthorizedException extends RuntimeException {
+
+    public ReplicationNotAuthorizedException() {
+        super("Replication token is missing or not valid.");
+    }
+}
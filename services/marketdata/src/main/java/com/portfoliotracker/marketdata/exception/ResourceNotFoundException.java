@@ -0,0 +1,14 @@
+package com.portfoliotracker.marketdata.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_FOUND)
+public class ResourceNotFoundException extends  RuntimeException{
+
+    public ResourceNotFoundException(String resourceName, String fieldName, String fieldValue){
+
+        super(String.format("%s not found for %s : '%s'", resourceName, fieldName, fieldValue));
+
+    }
+}
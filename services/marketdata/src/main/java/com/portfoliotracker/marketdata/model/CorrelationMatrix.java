@@ -0,0 +1,27 @@
+package com.portfoliotracker.marketdata.model;
+
+import com.portfoliotracker.marketdata.util.CovarianceKernel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Covariance and correlation of daily returns of all stocks with a complete lookback window,
+ * computed for one market day.
+ */
+@Getter
+@AllArgsConstructor
+public class CorrelationMatrix {
+
+    private final LocalDate date;
+    private final int lookbackDays;
+    private final Instant computedAt;
+    private final List<String> symbols;
+    private final Map<String, Integer> symbolIndexes;
+    private final CovarianceKernel.Result result;
+
+}
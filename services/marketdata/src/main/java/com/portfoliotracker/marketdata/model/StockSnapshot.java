@@ -0,0 +1,24 @@
+package com.portfoliotracker.marketdata.model;
+
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable view of one accepted stock market data update.
+ * The version increases by one on every accepted update.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "stocks")
+public class StockSnapshot {
+
+    private final long version;
+    private final Instant publishedAt;
+    private final Map<String, StockResponse> stocks;
+
+}
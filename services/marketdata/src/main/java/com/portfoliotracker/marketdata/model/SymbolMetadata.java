@@ -0,0 +1,19 @@
+package com.portfoliotracker.marketdata.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class SymbolMetadata {
+
+    private final String symbol;
+    private final String name;
+    private final String sector;
+    private final BigDecimal freeFloatPct;
+
+}
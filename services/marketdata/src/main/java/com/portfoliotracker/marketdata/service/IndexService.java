@@ -9,5 +9,7 @@ public interface IndexService {
 
     Map<String, String> getAllIndexSymbolsAndNames();
     Map<String, IndexResponse> getIndexesMarketData(List<String> symbols);
+    Map<String, IndexResponse> getAllIndexesMarketData();
+    void acceptReplicatedIndexes(Map<String, IndexResponse> replicatedIndexesMarketData);
 
 }
@@ -0,0 +1,8 @@
+package com.portfoliotracker.marketdata.service;
+
+public interface LeaderElectionService {
+
+    boolean isLeader();
+    void electLeader();
+
+}
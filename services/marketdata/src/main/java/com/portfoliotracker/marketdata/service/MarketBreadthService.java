@@ -0,0 +1,9 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.MarketBreadthResponse;
+
+public interface MarketBreadthService {
+
+    MarketBreadthResponse getMarketBreadth();
+
+}
@@ -0,0 +1,11 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.SectorResponse;
+
+import java.util.List;
+
+public interface SectorService {
+
+    List<SectorResponse> getSectors();
+
+}
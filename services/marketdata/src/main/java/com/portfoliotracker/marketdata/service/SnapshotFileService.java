@@ -0,0 +1,7 @@
+package com.portfoliotracker.marketdata.service;
+
+public interface SnapshotFileService {
+
+    void writeHeartbeat();
+
+}
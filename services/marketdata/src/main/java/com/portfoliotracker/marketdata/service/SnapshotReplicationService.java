@@ -0,0 +1,13 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.IndexResponse;
+
+import java.util.Map;
+
+public interface SnapshotReplicationService {
+
+    void replicateIndexes(Map<String, IndexResponse> indexesMarketData);
+    void synchronizeFromPeers();
+    void verifyReplicationToken(String replicationToken);
+
+}
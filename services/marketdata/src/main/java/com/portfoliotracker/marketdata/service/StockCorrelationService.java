@@ -0,0 +1,13 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.CorrelationMatrixResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StockCorrelationService {
+
+    CorrelationMatrixResponse getCorrelationMatrix(List<String> stockSymbols, LocalDate date);
+    void updateCorrelationMatrix();
+
+}
@@ -0,0 +1,13 @@
+package com.portfoliotracker.marketdata.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockExportService {
+
+    byte[] exportStocksSnapshot();
+    StreamingResponseBody exportStockPriceHistory(List<String> stockSymbols, Instant from, Instant to);
+
+}
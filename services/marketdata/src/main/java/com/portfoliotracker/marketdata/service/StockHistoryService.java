@@ -0,0 +1,19 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.PricePointResponse;
+import com.portfoliotracker.marketdata.store.PriceHistory;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface StockHistoryService {
+
+    List<PricePointResponse> getStockPriceHistory(String stockSymbol, Instant from, Instant to, int points);
+    PricePointResponse getStockPriceAsOf(String stockSymbol, Instant at, LocalDate date);
+    Map<String, PriceHistory.View> getStockPriceHistoryViews(List<String> stockSymbols);
+    List<LocalDate> getTradingDays();
+    Map<String, double[]> getDailyClosingPrices(List<LocalDate> days);
+
+}
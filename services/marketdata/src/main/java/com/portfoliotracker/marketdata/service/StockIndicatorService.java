@@ -0,0 +1,9 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.StockIndicatorResponse;
+
+public interface StockIndicatorService {
+
+    StockIndicatorResponse getStockIndicators(String stockSymbol);
+
+}
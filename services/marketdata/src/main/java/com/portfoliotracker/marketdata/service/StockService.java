@@ -2,6 +2,7 @@ package com.portfoliotracker.marketdata.service;
 
 
 import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
 
 import java.util.List;
 import java.util.Map;
@@ -10,5 +11,7 @@ public interface StockService {
 
     List<String> getAllStockSymbols();
     Map<String, StockResponse> getStocksMarketData(List<String> stockSymbols);
+    StockSnapshot getLatestSnapshot();
+    boolean acceptReplicatedSnapshot(StockSnapshot snapshot);
 
 }
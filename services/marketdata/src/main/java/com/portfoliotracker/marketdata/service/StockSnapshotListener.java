@@ -0,0 +1,13 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+
+/**
+ * Callback invoked synchronously by the stock service every time a new snapshot is accepted.
+ * Implementations are called in {@link org.springframework.core.annotation.Order} order.
+ */
+public interface StockSnapshotListener {
+
+    void onSnapshotPublished(StockSnapshot snapshot);
+
+}
@@ -0,0 +1,9 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.dto.SymbolChangeFeedResponse;
+
+public interface SymbolChangeService {
+
+    SymbolChangeFeedResponse getSymbolChanges(long sinceVersion);
+
+}
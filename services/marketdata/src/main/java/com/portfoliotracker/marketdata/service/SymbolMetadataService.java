@@ -0,0 +1,10 @@
+package com.portfoliotracker.marketdata.service;
+
+import com.portfoliotracker.marketdata.model.SymbolMetadata;
+
+public interface SymbolMetadataService {
+
+    SymbolMetadata getSymbolMetadata(String symbol);
+    void refreshSymbolMetadata();
+
+}
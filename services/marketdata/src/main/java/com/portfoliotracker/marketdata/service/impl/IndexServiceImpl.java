@@ -4,6 +4,8 @@ import com.portfoliotracker.marketdata.exception.InvalidSymbolsException;
 import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
 import com.portfoliotracker.marketdata.dto.IndexResponse;
 import com.portfoliotracker.marketdata.service.IndexService;
+import com.portfoliotracker.marketdata.service.LeaderElectionService;
+import com.portfoliotracker.marketdata.service.SnapshotReplicationService;
 import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -32,6 +34,12 @@ public class IndexServiceImpl implements IndexService {
     @Value("${INDEX_DATA_URL}")
     private String indexDataUrl;
 
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private SnapshotReplicationService snapshotReplicationService;
+
     private Map<String, IndexResponse> indexesMarketData = new ConcurrentHashMap<>();
 
     private static final Logger logger = LogManager.getLogger(IndexServiceImpl.class);
@@ -75,10 +83,37 @@ public class IndexServiceImpl implements IndexService {
         return response;
     }
 
+    @Override
+    public Map<String, IndexResponse> getAllIndexesMarketData() {
+        if(indexesMarketData.keySet().isEmpty()){
+            throw new NoMarketDataFoundException();
+        }
+        return Collections.unmodifiableMap(indexesMarketData);
+    }
+
+    /**
+     * Serves indexes data scraped by the leader instance. The leader ignores replicated data.
+     */
+    @Override
+    public void acceptReplicatedIndexes(Map<String, IndexResponse> replicatedIndexesMarketData) {
+        if (leaderElectionService.isLeader()) {
+            logger.warn("Replicated indexes data ignored, as this instance is the leader.");
+            return;
+        }
+        if (!replicatedIndexesMarketData.isEmpty()) {
+            indexesMarketData = new HashMap<>(replicatedIndexesMarketData);
+        }
+    }
+
     @PostConstruct
     @Scheduled(cron = "0 */3 8-21 * * *", zone = "Europe/Istanbul")
     private void updateIndexData() {
 
+        if (!leaderElectionService.isLeader()) {
+            logger.debug("This instance is a follower. Indexes data is replicated from the leader.");
+            return;
+        }
+
         if (indexDataUrl == null || indexDataUrl.trim().isEmpty()) {
             logger.error("INDEX_DATA_URL for indexes market data is null or empty. " +
                     "Failed to fetch stock data from {}", indexDataUrl
@@ -92,6 +127,7 @@ public class IndexServiceImpl implements IndexService {
             document = Jsoup.connect(Objects.requireNonNull(indexDataUrl)).get();
             logger.info("Successfully fetched indexes data from {} ", indexDataUrl);
             updateIndexesMarketData();
+            snapshotReplicationService.replicateIndexes(indexesMarketData);
         } catch (Exception e) {
             logger.error("Failed to fetch indexes data from {}. Error: {}", indexDataUrl, e.getMessage(), e);
         }
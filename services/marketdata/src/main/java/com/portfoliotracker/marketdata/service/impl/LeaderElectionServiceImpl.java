@@ -0,0 +1,51 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.cluster.LeaderLock;
+import com.portfoliotracker.marketdata.service.LeaderElectionService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class LeaderElectionServiceImpl implements LeaderElectionService {
+
+    private final LeaderLock leaderLock;
+
+    private volatile boolean isLeader;
+
+    private static final Logger logger = LogManager.getLogger(LeaderElectionServiceImpl.class);
+
+    /**
+     * @return {@code true} if this instance is the one scraping the market data source.
+     */
+    @Override
+    public boolean isLeader() {
+        return isLeader;
+    }
+
+    /**
+     * Tries to take over leadership while this instance is a follower. Runs at startup, before the first
+     * scrape, and periodically afterwards so a follower takes over when the leader goes away.
+     */
+    @Override
+    @PostConstruct
+    @Scheduled(
+            fixedDelayString = "${MARKET_DATA_LEADER_RETRY_MS:15000}",
+            initialDelayString = "${MARKET_DATA_LEADER_RETRY_MS:15000}"
+    )
+    public void electLeader() {
+
+        boolean wasLeader = isLeader;
+        isLeader = leaderLock.isHeld() || leaderLock.tryAcquire();
+
+        if (isLeader && !wasLeader) {
+            logger.info("This instance is the market data leader.");
+        } else if (!isLeader && wasLeader) {
+            logger.warn("This instance lost market data leadership.");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.MarketBreadthResponse;
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.MarketBreadthService;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.util.Selection;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@Order(20)
+public class MarketBreadthServiceImpl implements MarketBreadthService, StockSnapshotListener {
+
+    private static final int[] PERCENTILES = {5, 10, 25, 75, 90, 95};
+
+    private volatile MarketBreadthResponse marketBreadth;
+
+    /**
+     * @return market breadth statistics of the latest snapshot, computed when the snapshot was published.
+     * @throws NoMarketDataFoundException if no snapshot has been published yet.
+     */
+    @Override
+    public MarketBreadthResponse getMarketBreadth() {
+
+        MarketBreadthResponse response = marketBreadth;
+        if (response == null) {
+            throw new NoMarketDataFoundException();
+        }
+        return response;
+    }
+
+    @Override
+    public void onSnapshotPublished(StockSnapshot snapshot) {
+
+        double[] dailyChanges = new double[snapshot.getStocks().size()];
+        int count = 0;
+        int advancers = 0;
+        int decliners = 0;
+        int unchanged = 0;
+        BigDecimal totalTradingVolumeTL = BigDecimal.ZERO;
+
+        for (StockResponse stock : snapshot.getStocks().values()) {
+            if (stock.getTradingVolumeTL() != null) {
+                totalTradingVolumeTL = totalTradingVolumeTL.add(stock.getTradingVolumeTL());
+            }
+            if (stock.getDailyChangePct() == null) {
+                continue;
+            }
+            int sign = stock.getDailyChangePct().signum();
+            if (sign > 0) {
+                advancers++;
+            } else if (sign < 0) {
+                decliners++;
+            } else {
+                unchanged++;
+            }
+            dailyChanges[count++] = stock.getDailyChangePct().doubleValue();
+        }
+
+        BigDecimal median = null;
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+
+        if (count > 0) {
+            double[] values = Arrays.copyOf(dailyChanges, count);
+
+            // Percentiles are selected in ascending rank order so that every selection only has to
+            // partition the part of the array to the right of the previous one.
+            int lowerMedianRank = (count - 1) / 2;
+            int from = 0;
+            for (int percentile : PERCENTILES) {
+                int rank = Math.max(0, (int) Math.ceil(percentile / 100.0 * count) - 1);
+                if (percentile > 50 && from <= lowerMedianRank) {
+                    median = selectMedian(values, from, count, lowerMedianRank);
+                    from = lowerMedianRank;
+                }
+                rank = Math.max(rank, from);
+                percentiles.put("p" + percentile, toBigDecimal(Selection.select(values, from, count, rank)));
+                from = rank;
+            }
+            if (median == null) {
+                median = selectMedian(values, from, count, lowerMedianRank);
+            }
+        }
+
+        marketBreadth = MarketBreadthResponse.builder()
+                .snapshotVersion(snapshot.getVersion())
+                .publishedAt(snapshot.getPublishedAt())
+                .stockCount(snapshot.getStocks().size())
+                .advancers(advancers)
+                .decliners(decliners)
+                .unchanged(unchanged)
+                .totalTradingVolumeTL(totalTradingVolumeTL)
+                .medianDailyChangePct(median)
+                .dailyChangePctPercentiles(percentiles)
+                .build();
+    }
+
+    private BigDecimal selectMedian(double[] values, int from, int count, int lowerMedianRank) {
+
+        double lower = Selection.select(values, from, count, lowerMedianRank);
+        if (count % 2 == 1) {
+            return toBigDecimal(lower);
+        }
+        double upper = values[lowerMedianRank + 1];
+        for (int i = lowerMedianRank + 2; i < count; i++) {
+            upper = Math.min(upper, values[i]);
+        }
+        return toBigDecimal((lower + upper) / 2);
+    }
+
+    private BigDecimal toBigDecimal(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,101 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.SectorResponse;
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.model.SymbolMetadata;
+import com.portfoliotracker.marketdata.service.SectorService;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.service.SymbolMetadataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@Order(30)
+@RequiredArgsConstructor
+public class SectorServiceImpl implements SectorService, StockSnapshotListener {
+
+    private static final String UNCLASSIFIED_SECTOR = "Unclassified";
+
+    private final SymbolMetadataService symbolMetadataService;
+
+    private volatile List<SectorResponse> sectors;
+
+    /**
+     * @return sector aggregates of the latest snapshot, computed when the snapshot was published.
+     * @throws NoMarketDataFoundException if no snapshot has been published yet.
+     */
+    @Override
+    public List<SectorResponse> getSectors() {
+
+        List<SectorResponse> response = sectors;
+        if (response == null) {
+            throw new NoMarketDataFoundException();
+        }
+        return response;
+    }
+
+    @Override
+    public void onSnapshotPublished(StockSnapshot snapshot) {
+
+        Map<String, SectorAccumulator> accumulators = new TreeMap<>();
+
+        for (StockResponse stock : snapshot.getStocks().values()) {
+            SymbolMetadata metadata = symbolMetadataService.getSymbolMetadata(stock.getStockSymbol());
+            String sector = metadata != null && metadata.getSector() != null ? metadata.getSector() : UNCLASSIFIED_SECTOR;
+            accumulators.computeIfAbsent(sector, key -> new SectorAccumulator()).add(stock);
+        }
+
+        List<SectorResponse> updatedSectors = new ArrayList<>(accumulators.size());
+        for (Map.Entry<String, SectorAccumulator> entry : accumulators.entrySet()) {
+            SectorAccumulator accumulator = entry.getValue();
+            updatedSectors.add(SectorResponse.builder()
+                    .sector(entry.getKey())
+                    .stockCount(accumulator.stockCount)
+                    .advancers(accumulator.advancers)
+                    .decliners(accumulator.decliners)
+                    .totalTradingVolumeTL(accumulator.totalTradingVolumeTL)
+                    .volumeWeightedChangePct(accumulator.totalTradingVolumeTL.signum() == 0 ? null
+                            : accumulator.weightedChange.divide(accumulator.totalTradingVolumeTL, 2, RoundingMode.HALF_UP))
+                    .build());
+        }
+
+        sectors = List.copyOf(updatedSectors);
+    }
+
+    private static class SectorAccumulator {
+
+        private int stockCount;
+        private int advancers;
+        private int decliners;
+        private BigDecimal totalTradingVolumeTL = BigDecimal.ZERO;
+        private BigDecimal weightedChange = BigDecimal.ZERO;
+
+        private void add(StockResponse stock) {
+
+            stockCount++;
+            if (stock.getDailyChangePct() == null) {
+                return;
+            }
+            int sign = stock.getDailyChangePct().signum();
+            if (sign > 0) {
+                advancers++;
+            } else if (sign < 0) {
+                decliners++;
+            }
+            if (stock.getTradingVolumeTL() != null) {
+                totalTradingVolumeTL = totalTradingVolumeTL.add(stock.getTradingVolumeTL());
+                weightedChange = weightedChange.add(stock.getTradingVolumeTL().multiply(stock.getDailyChangePct()));
+            }
+        }
+    }
+}
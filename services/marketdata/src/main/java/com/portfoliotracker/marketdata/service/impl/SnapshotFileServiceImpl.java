@@ -0,0 +1,108 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.SnapshotFileService;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.store.MappedSnapshotFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Publishes every snapshot into a memory-mapped file, so services running on the same host read
+ * quotes from memory instead of calling this service. Disabled unless MARKET_DATA_SNAPSHOT_FILE is set.
+ *
+ * The file is opened with the first snapshot and sized for the next power of two above its number of stocks,
+ * or MARKET_DATA_SNAPSHOT_FILE_CAPACITY if that is larger. It is opened again with a larger capacity when a
+ * snapshot no longer fits, and readers map it again once they see the new capacity.
+ */
+@Service
+@Order(50)
+public class SnapshotFileServiceImpl implements SnapshotFileService, StockSnapshotListener {
+
+    @Value("${MARKET_DATA_SNAPSHOT_FILE:}")
+    private String snapshotFilePath;
+
+    // Minimum number of stocks the file holds.
+    @Value("${MARKET_DATA_SNAPSHOT_FILE_CAPACITY:0}")
+    private int snapshotFileCapacity;
+
+    private volatile MappedSnapshotFile snapshotFile;
+
+    private int openedCapacity;
+
+    private static final Logger logger = LogManager.getLogger(SnapshotFileServiceImpl.class);
+
+    @PostConstruct
+    private void logSnapshotFile() {
+
+        if (isEnabled()) {
+            logger.info("Stock snapshots are published to {}.", snapshotFilePath);
+        }
+    }
+
+    @Override
+    public synchronized void onSnapshotPublished(StockSnapshot snapshot) {
+
+        if (!isEnabled()) {
+            return;
+        }
+
+        int stockCount = snapshot.getStocks().size();
+        if (snapshotFile == null || stockCount > openedCapacity) {
+            openSnapshotFile(Math.max(snapshotFileCapacity, Integer.highestOneBit(Math.max(stockCount, 1)) << 1));
+        }
+        if (snapshotFile != null) {
+            snapshotFile.write(snapshot.getVersion(), snapshot.getPublishedAt().toEpochMilli(), snapshot.getStocks());
+        }
+    }
+
+    private void openSnapshotFile(int capacity) {
+
+        try {
+            if (snapshotFile != null) {
+                snapshotFile.close();
+                snapshotFile = null;
+            }
+            snapshotFile = new MappedSnapshotFile(Path.of(snapshotFilePath), capacity);
+            openedCapacity = capacity;
+            logger.info("Opened the snapshot file {} for {} stocks.", snapshotFilePath, capacity);
+        } catch (IOException e) {
+            logger.error("Failed to open the snapshot file {} for {} stocks. Error: {}",
+                    snapshotFilePath, capacity, e.getMessage(), e);
+        }
+    }
+
+    private boolean isEnabled() {
+        return snapshotFilePath != null && !snapshotFilePath.isBlank();
+    }
+
+    /**
+     * Keeps the heartbeat of the file fresh, so readers can tell a live file from one left behind by
+     * a stopped instance.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${MARKET_DATA_SNAPSHOT_FILE_HEARTBEAT_MS:5000}")
+    public void writeHeartbeat() {
+
+        if (snapshotFile != null) {
+            snapshotFile.writeHeartbeat();
+        }
+    }
+
+    @PreDestroy
+    private synchronized void closeSnapshotFile() throws IOException {
+
+        if (snapshotFile != null) {
+            snapshotFile.close();
+        }
+    }
+}
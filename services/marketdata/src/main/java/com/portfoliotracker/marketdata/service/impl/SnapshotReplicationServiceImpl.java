@@ -0,0 +1,272 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.common.ApiCustomResponse;
+import com.portfoliotracker.marketdata.dto.IndexResponse;
+import com.portfoliotracker.marketdata.dto.StockSnapshotResponse;
+import com.portfoliotracker.marketdata.exception.ReplicationNotAuthorizedException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.*;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replicates the market data scraped by the leader to the other marketdata instances registered in Eureka.
+ *
+ * The leader pushes every accepted snapshot to its peers. Followers that have no data yet, e.g. right after
+ * they start outside the scraping hours, pull the latest data from their peers instead.
+ */
+@Service
+@Order(100)
+public class SnapshotReplicationServiceImpl implements SnapshotReplicationService, StockSnapshotListener {
+
+    public static final String REPLICATION_TOKEN_HEADER = "X-Replication-Token";
+
+    private static final String STOCKS_REPLICATION_PATH = "/internal/replication/stocks";
+    private static final String INDEXES_REPLICATION_PATH = "/internal/replication/indexes";
+
+    private final LeaderElectionService leaderElectionService;
+    private final StockService stockService;
+    private final IndexService indexService;
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    private final String replicationToken;
+
+    private final RestClient restClient;
+
+    private final ExecutorService replicationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "market-data-replication");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Logger logger = LogManager.getLogger(SnapshotReplicationServiceImpl.class);
+
+    public SnapshotReplicationServiceImpl(LeaderElectionService leaderElectionService,
+                                          @Lazy StockService stockService,
+                                          @Lazy IndexService indexService,
+                                          DiscoveryClient discoveryClient,
+                                          ObjectProvider<Registration> registration,
+                                          @Value("${MARKET_DATA_REPLICATION_TIMEOUT_MS:2000}") long timeoutMillis,
+                                          @Value("${MARKET_DATA_LEADER_LOCK:local}") String leaderLockType,
+                                          @Value("${MARKET_DATA_REPLICATION_TOKEN:}") String replicationToken) {
+
+        // Without a token, anyone could push a snapshot with a high version to a follower, which would then
+        // ignore every real update of the leader.
+        if (!"local".equals(leaderLockType.trim().toLowerCase()) && replicationToken.isBlank()) {
+            throw new IllegalStateException(String.format(
+                    "MARKET_DATA_REPLICATION_TOKEN must be set when MARKET_DATA_LEADER_LOCK is '%s'.", leaderLockType));
+        }
+
+        this.leaderElectionService = leaderElectionService;
+        this.stockService = stockService;
+        this.indexService = indexService;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.replicationToken = replicationToken;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMillis));
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMillis));
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    /**
+     * Pushes the snapshot to the peers when this instance is the leader. The push runs on a single
+     * background thread, so peers receive snapshots in version order and a slow peer does not delay
+     * the scrape.
+     */
+    @Override
+    public void onSnapshotPublished(StockSnapshot snapshot) {
+
+        if (!leaderElectionService.isLeader()) {
+            return;
+        }
+
+        StockSnapshotResponse body = StockSnapshotResponse.builder()
+                .version(snapshot.getVersion())
+                .publishedAt(snapshot.getPublishedAt())
+                .stocks(snapshot.getStocks())
+                .build();
+
+        replicationExecutor.execute(() -> pushToPeers(STOCKS_REPLICATION_PATH, body));
+    }
+
+    @Override
+    public void replicateIndexes(Map<String, IndexResponse> indexesMarketData) {
+
+        if (!leaderElectionService.isLeader() || indexesMarketData.isEmpty()) {
+            return;
+        }
+
+        Map<String, IndexResponse> body = Map.copyOf(indexesMarketData);
+        replicationExecutor.execute(() -> pushToPeers(INDEXES_REPLICATION_PATH, body));
+    }
+
+    /**
+     * Pulls the latest stocks and indexes data from the peers while this follower has none.
+     * The stock snapshot with the highest version among the peers is accepted.
+     */
+    @Override
+    @Scheduled(
+            fixedDelayString = "${MARKET_DATA_REPLICATION_SYNC_MS:30000}",
+            initialDelayString = "${MARKET_DATA_REPLICATION_SYNC_INITIAL_DELAY_MS:5000}"
+    )
+    public void synchronizeFromPeers() {
+
+        if (leaderElectionService.isLeader()) {
+            return;
+        }
+
+        boolean hasStocks = stockService.getLatestSnapshot() != null;
+        boolean hasIndexes = hasIndexesMarketData();
+        if (hasStocks && hasIndexes) {
+            return;
+        }
+
+        StockSnapshotResponse latestSnapshot = null;
+        Map<String, IndexResponse> indexesMarketData = null;
+
+        for (ServiceInstance peer : getPeers()) {
+            if (!hasStocks) {
+                StockSnapshotResponse snapshot = pullFromPeer(peer, STOCKS_REPLICATION_PATH,
+                        new ParameterizedTypeReference<>() {});
+                if (snapshot != null && (latestSnapshot == null || snapshot.getVersion() > latestSnapshot.getVersion())) {
+                    latestSnapshot = snapshot;
+                }
+            }
+            if (!hasIndexes && indexesMarketData == null) {
+                indexesMarketData = pullFromPeer(peer, INDEXES_REPLICATION_PATH,
+                        new ParameterizedTypeReference<>() {});
+            }
+        }
+
+        if (latestSnapshot != null) {
+            acceptStockSnapshot(latestSnapshot);
+        }
+        if (indexesMarketData != null) {
+            indexService.acceptReplicatedIndexes(indexesMarketData);
+        }
+    }
+
+    /**
+     * A token is required unless the leader lock is 'local', in which case there are no peers to replicate with.
+     *
+     * @throws ReplicationNotAuthorizedException if a replication token is configured and the given one differs.
+     */
+    @Override
+    public void verifyReplicationToken(String replicationToken) {
+
+        if (this.replicationToken.isEmpty()) {
+            return;
+        }
+        if (replicationToken == null || !MessageDigest.isEqual(
+                this.replicationToken.getBytes(StandardCharsets.UTF_8), replicationToken.getBytes(StandardCharsets.UTF_8))) {
+            throw new ReplicationNotAuthorizedException();
+        }
+    }
+
+    @PreDestroy
+    private void shutdownReplicationExecutor() {
+        replicationExecutor.shutdownNow();
+    }
+
+    private void acceptStockSnapshot(StockSnapshotResponse snapshot) {
+
+        boolean isAccepted = stockService.acceptReplicatedSnapshot(new StockSnapshot(
+                snapshot.getVersion(),
+                snapshot.getPublishedAt(),
+                Collections.unmodifiableMap(new HashMap<>(snapshot.getStocks()))
+        ));
+
+        if (isAccepted) {
+            logger.info("Stock snapshot version {} pulled from peers.", snapshot.getVersion());
+        }
+    }
+
+    private boolean hasIndexesMarketData() {
+        try {
+            return !indexService.getAllIndexesMarketData().isEmpty();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void pushToPeers(String path, Object body) {
+
+        for (ServiceInstance peer : getPeers()) {
+            try {
+                restClient.post()
+                        .uri(peerUri(peer, path))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(REPLICATION_TOKEN_HEADER, replicationToken)
+                        .body(body)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                logger.warn("Failed to replicate {} to peer {}. Error: {}", path, peer.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    private <T> T pullFromPeer(ServiceInstance peer, String path,
+                               ParameterizedTypeReference<ApiCustomResponse<T>> responseType) {
+        try {
+            ApiCustomResponse<T> response = restClient.get()
+                    .uri(peerUri(peer, path))
+                    .header(REPLICATION_TOKEN_HEADER, replicationToken)
+                    .retrieve()
+                    .body(responseType);
+            return response == null ? null : response.getData();
+        } catch (Exception e) {
+            logger.debug("Failed to pull {} from peer {}. Error: {}", path, peer.getUri(), e.getMessage());
+            return null;
+        }
+    }
+
+    private List<ServiceInstance> getPeers() {
+
+        String ownInstanceId = Optional.ofNullable(registration.getIfAvailable())
+                .map(Registration::getInstanceId)
+                .orElse(null);
+
+        try {
+            return discoveryClient.getInstances(applicationName)
+                    .stream()
+                    .filter(instance -> !Objects.equals(instance.getInstanceId(), ownInstanceId))
+                    .toList();
+        } catch (Exception e) {
+            logger.warn("Failed to discover marketdata peers. Error: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private URI peerUri(ServiceInstance peer, String path) {
+        return peer.getUri().resolve(path);
+    }
+}
@@ -0,0 +1,212 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.CorrelationMatrixResponse;
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.exception.InvalidSymbolsException;
+import com.portfoliotracker.marketdata.exception.ResourceNotFoundException;
+import com.portfoliotracker.marketdata.model.CorrelationMatrix;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.StockCorrelationService;
+import com.portfoliotracker.marketdata.service.StockHistoryService;
+import com.portfoliotracker.marketdata.service.StockService;
+import com.portfoliotracker.marketdata.util.CovarianceKernel;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+@RequiredArgsConstructor
+public class StockCorrelationServiceImpl implements StockCorrelationService {
+
+    private final StockHistoryService stockHistoryService;
+    private final StockService stockService;
+
+    @Value("${STOCK_CORRELATION_LOOKBACK_DAYS:20}")
+    private int lookbackDays;
+
+    @Value("${STOCK_CORRELATION_RETAINED_DAYS:30}")
+    private int retainedDays;
+
+    // The covariance and correlation matrices take 16 bytes per pair of stocks, 64 MB for 2000 stocks.
+    @Value("${STOCK_CORRELATION_MAX_SYMBOLS:2000}")
+    private int maxSymbols;
+
+    private final NavigableMap<LocalDate, CorrelationMatrix> correlationMatrices = new ConcurrentSkipListMap<>();
+
+    private static final Logger logger = LogManager.getLogger(StockCorrelationServiceImpl.class);
+
+    /**
+     * Returns the covariance and correlation sub-matrix of the given stocks.
+     *
+     * @param stockSymbols the stock symbols, in the order of the rows and columns of the result.
+     * @param date         the market day of the matrix. Defaults to the latest computed day.
+     * @return the sub-matrix for the symbols that are part of the computed matrix.
+     * @throws ResourceNotFoundException if no matrix has been computed for the day.
+     * @throws InvalidSymbolsException   if none of the given symbols is part of the matrix.
+     */
+    @Override
+    public CorrelationMatrixResponse getCorrelationMatrix(List<String> stockSymbols, LocalDate date) {
+
+        CorrelationMatrix correlationMatrix = date == null
+                ? Optional.ofNullable(correlationMatrices.lastEntry()).map(Map.Entry::getValue).orElse(null)
+                : correlationMatrices.get(date);
+
+        if (correlationMatrix == null) {
+            throw new ResourceNotFoundException("Correlation matrix", "date", String.valueOf(date));
+        }
+
+        List<String> symbols = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (String symbol : new LinkedHashSet<>(stockSymbols)) {
+            Integer index = correlationMatrix.getSymbolIndexes().get(symbol);
+            if (index != null) {
+                symbols.add(symbol);
+                indexes.add(index);
+            }
+        }
+
+        if (symbols.isEmpty()) {
+            throw new InvalidSymbolsException(String.join(",", stockSymbols));
+        }
+
+        CovarianceKernel.Result result = correlationMatrix.getResult();
+        int size = symbols.size();
+        double[][] covariance = new double[size][size];
+        double[][] correlation = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                covariance[i][j] = result.covariance(indexes.get(i), indexes.get(j));
+                correlation[i][j] = result.correlation(indexes.get(i), indexes.get(j));
+            }
+        }
+
+        return CorrelationMatrixResponse.builder()
+                .date(correlationMatrix.getDate())
+                .lookbackDays(correlationMatrix.getLookbackDays())
+                .symbols(symbols)
+                .covariance(covariance)
+                .correlation(correlation)
+                .build();
+    }
+
+    /**
+     * Computes the matrix of daily returns over the lookback window ending on the latest market day
+     * and stores it for that day. Runs after the market close.
+     *
+     * Only the {@code STOCK_CORRELATION_MAX_SYMBOLS} stocks with the highest trading volume in the latest
+     * snapshot are included, as the size of the matrices grows with the square of the number of stocks.
+     *
+     * @throws IllegalStateException if the configured number of stocks exceeds {@link CovarianceKernel#MAX_SERIES}.
+     */
+    @Override
+    @Scheduled(cron = "${STOCK_CORRELATION_CRON:0 30 18 * * MON-FRI}", zone = "Europe/Istanbul")
+    public void updateCorrelationMatrix() {
+
+        if (maxSymbols < 2 || maxSymbols > CovarianceKernel.MAX_SERIES) {
+            throw new IllegalStateException(String.format(
+                    "STOCK_CORRELATION_MAX_SYMBOLS must be between 2 and %d, but is %d.",
+                    CovarianceKernel.MAX_SERIES, maxSymbols));
+        }
+
+        List<LocalDate> tradingDays = stockHistoryService.getTradingDays();
+        if (tradingDays.size() < 3) {
+            logger.warn("Not enough retained trading days to compute the correlation matrix. Found {} days.",
+                    tradingDays.size());
+            return;
+        }
+
+        List<LocalDate> windowDays = tradingDays.subList(
+                Math.max(0, tradingDays.size() - lookbackDays - 1), tradingDays.size());
+        Map<String, double[]> closingPrices = stockHistoryService.getDailyClosingPrices(windowDays);
+
+        int returnCount = windowDays.size() - 1;
+        List<String> symbols = new ArrayList<>(closingPrices.size());
+        List<double[]> returns = new ArrayList<>(closingPrices.size());
+        for (Map.Entry<String, double[]> entry : closingPrices.entrySet()) {
+            double[] closes = entry.getValue();
+            double[] dailyReturns = new double[returnCount];
+            boolean isValid = true;
+            for (int k = 0; k < returnCount && isValid; k++) {
+                isValid = closes[k] > 0;
+                dailyReturns[k] = isValid ? closes[k + 1] / closes[k] - 1 : 0;
+            }
+            if (isValid) {
+                symbols.add(entry.getKey());
+                returns.add(dailyReturns);
+            }
+        }
+
+        if (symbols.size() > maxSymbols) {
+            keepMostTraded(symbols, returns);
+        }
+
+        if (symbols.isEmpty()) {
+            logger.warn("No stock has a complete price history over the last {} trading days.", windowDays.size());
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        CovarianceKernel.Result result = CovarianceKernel.compute(returns.toArray(new double[0][]),
+                ForkJoinPool.commonPool());
+
+        Map<String, Integer> symbolIndexes = new HashMap<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            symbolIndexes.put(symbols.get(i), i);
+        }
+
+        LocalDate date = windowDays.get(windowDays.size() - 1);
+        correlationMatrices.put(date, new CorrelationMatrix(date, returnCount, Instant.now(),
+                List.copyOf(symbols), Map.copyOf(symbolIndexes), result));
+        correlationMatrices.headMap(date.minusDays(retainedDays)).clear();
+
+        logger.info("Correlation matrix of {} stocks over {} daily returns computed for {} in {} ms.",
+                symbols.size(), returnCount, date, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Keeps the {@code maxSymbols} stocks with the highest trading volume in the latest snapshot, in symbol order.
+     * Stocks without a volume are ranked last.
+     */
+    private void keepMostTraded(List<String> symbols, List<double[]> returns) {
+
+        StockSnapshot snapshot = stockService.getLatestSnapshot();
+        Map<String, StockResponse> stocks = snapshot == null ? Map.of() : snapshot.getStocks();
+
+        Integer[] ranking = new Integer[symbols.size()];
+        double[] volumes = new double[symbols.size()];
+        for (int i = 0; i < symbols.size(); i++) {
+            StockResponse stock = stocks.get(symbols.get(i));
+            ranking[i] = i;
+            volumes[i] = stock == null || stock.getTradingVolumeTL() == null ? -1 : stock.getTradingVolumeTL().doubleValue();
+        }
+        Arrays.sort(ranking, (a, b) -> Double.compare(volumes[b], volumes[a]));
+
+        int[] kept = new int[maxSymbols];
+        for (int i = 0; i < maxSymbols; i++) {
+            kept[i] = ranking[i];
+        }
+        Arrays.sort(kept);
+
+        logger.warn("Correlation matrix is limited to the {} most traded of {} stocks.", maxSymbols, symbols.size());
+
+        List<String> keptSymbols = new ArrayList<>(maxSymbols);
+        List<double[]> keptReturns = new ArrayList<>(maxSymbols);
+        for (int index : kept) {
+            keptSymbols.add(symbols.get(index));
+            keptReturns.add(returns.get(index));
+        }
+        symbols.clear();
+        symbols.addAll(keptSymbols);
+        returns.clear();
+        returns.addAll(keptReturns);
+    }
+}
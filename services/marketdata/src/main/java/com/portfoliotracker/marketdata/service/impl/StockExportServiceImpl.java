@@ -0,0 +1,218 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.exception.InvalidParameterException;
+import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.StockExportService;
+import com.portfoliotracker.marketdata.service.StockHistoryService;
+import com.portfoliotracker.marketdata.service.StockService;
+import com.portfoliotracker.marketdata.store.PriceHistory;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes market data in the Arrow IPC streaming format.
+ *
+ * The snapshot stream is encoded once per snapshot version and served from memory to every request.
+ * History streams copy the retained timestamp and price arrays of each stock straight into Arrow
+ * vectors, one record batch per stock or per {@link #MAX_BATCH_ROWS} rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockExportServiceImpl implements StockExportService {
+
+    private static final int MAX_BATCH_ROWS = 65_536;
+
+    private static final ArrowType DOUBLE = new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+
+    private static final Schema SNAPSHOT_SCHEMA = new Schema(List.of(
+            new Field("stockSymbol", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("latestPrice", FieldType.nullable(DOUBLE), null),
+            new Field("dailyChangePct", FieldType.nullable(DOUBLE), null),
+            new Field("dailyChangeInTL", FieldType.nullable(DOUBLE), null),
+            new Field("tradingVolumeTL", FieldType.nullable(DOUBLE), null),
+            new Field("tradeVolumeCount", FieldType.nullable(DOUBLE), null)
+    ));
+
+    private static final Schema HISTORY_SCHEMA = new Schema(List.of(
+            new Field("stockSymbol", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("timestamp", FieldType.notNullable(new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC")), null),
+            new Field("price", FieldType.notNullable(DOUBLE), null)
+    ));
+
+    private final StockService stockService;
+    private final StockHistoryService stockHistoryService;
+
+    private final BufferAllocator allocator = new RootAllocator();
+
+    private volatile ExportedSnapshot exportedSnapshot;
+
+    private record ExportedSnapshot(long version, byte[] stream) {
+    }
+
+    /**
+     * Returns the current stock snapshot as an Arrow stream with one row per stock, ordered by symbol.
+     * The schema metadata carries the snapshot version and publish time.
+     *
+     * @throws NoMarketDataFoundException if no snapshot has been published yet.
+     */
+    @Override
+    public byte[] exportStocksSnapshot() {
+
+        StockSnapshot snapshot = stockService.getLatestSnapshot();
+        if (snapshot == null) {
+            throw new NoMarketDataFoundException();
+        }
+
+        ExportedSnapshot exported = exportedSnapshot;
+        if (exported == null || exported.version() != snapshot.getVersion()) {
+            exported = new ExportedSnapshot(snapshot.getVersion(), encodeSnapshot(snapshot));
+            exportedSnapshot = exported;
+        }
+        return exported.stream();
+    }
+
+    /**
+     * Writes the retained price history of the given stocks between the given instants as an Arrow stream.
+     * Points are not downsampled. The parameters are validated and the history views are taken when
+     * this method is called; the stream is written when the returned body is.
+     *
+     * @param stockSymbols the stock symbols, or an empty list for all stocks.
+     * @param from         start of the range, inclusive. Defaults to the oldest retained point.
+     * @param to           end of the range, inclusive. Defaults to the latest retained point.
+     * @throws InvalidParameterException if the range is not valid.
+     */
+    @Override
+    public StreamingResponseBody exportStockPriceHistory(List<String> stockSymbols, Instant from, Instant to) {
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidParameterException("from", "It must not be after 'to'.");
+        }
+
+        Map<String, PriceHistory.View> views = stockHistoryService.getStockPriceHistoryViews(stockSymbols);
+
+        return outputStream -> writePriceHistory(views, from, to, outputStream);
+    }
+
+    private void writePriceHistory(Map<String, PriceHistory.View> views, Instant from, Instant to,
+                                   OutputStream outputStream) throws IOException {
+
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(HISTORY_SCHEMA, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(outputStream))) {
+
+            VarCharVector symbolVector = (VarCharVector) root.getVector("stockSymbol");
+            TimeStampMilliTZVector timestampVector = (TimeStampMilliTZVector) root.getVector("timestamp");
+            Float8Vector priceVector = (Float8Vector) root.getVector("price");
+
+            writer.start();
+            for (Map.Entry<String, PriceHistory.View> entry : views.entrySet()) {
+
+                PriceHistory.View view = entry.getValue();
+                byte[] symbol = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                long[] timestamps = view.timestamps();
+                double[] prices = view.prices();
+                int start = from == null ? view.start() : view.lowerBound(from.toEpochMilli());
+                int end = to == null ? view.end() : view.upperBound(to.toEpochMilli());
+
+                for (int batchStart = start; batchStart < end; batchStart += MAX_BATCH_ROWS) {
+                    int rows = Math.min(MAX_BATCH_ROWS, end - batchStart);
+                    root.allocateNew();
+                    for (int row = 0; row < rows; row++) {
+                        symbolVector.setSafe(row, symbol);
+                        timestampVector.setSafe(row, timestamps[batchStart + row]);
+                        priceVector.setSafe(row, prices[batchStart + row]);
+                    }
+                    root.setRowCount(rows);
+                    writer.writeBatch();
+                }
+            }
+            writer.end();
+        }
+    }
+
+    @PreDestroy
+    private void closeAllocator() {
+        allocator.close();
+    }
+
+    private byte[] encodeSnapshot(StockSnapshot snapshot) {
+
+        List<StockResponse> stocks = new ArrayList<>(snapshot.getStocks().values());
+        stocks.sort(Comparator.comparing(StockResponse::getStockSymbol));
+
+        Schema schema = new Schema(SNAPSHOT_SCHEMA.getFields(), Map.of(
+                "snapshotVersion", String.valueOf(snapshot.getVersion()),
+                "publishedAt", snapshot.getPublishedAt().toString()
+        ));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(outputStream))) {
+
+            VarCharVector symbolVector = (VarCharVector) root.getVector("stockSymbol");
+            Float8Vector latestPriceVector = (Float8Vector) root.getVector("latestPrice");
+            Float8Vector dailyChangePctVector = (Float8Vector) root.getVector("dailyChangePct");
+            Float8Vector dailyChangeInTLVector = (Float8Vector) root.getVector("dailyChangeInTL");
+            Float8Vector tradingVolumeTLVector = (Float8Vector) root.getVector("tradingVolumeTL");
+            Float8Vector tradeVolumeCountVector = (Float8Vector) root.getVector("tradeVolumeCount");
+
+            root.allocateNew();
+            for (int row = 0; row < stocks.size(); row++) {
+                StockResponse stock = stocks.get(row);
+                symbolVector.setSafe(row, stock.getStockSymbol().getBytes(StandardCharsets.UTF_8));
+                setDecimal(latestPriceVector, row, stock.getLatestPrice());
+                setDecimal(dailyChangePctVector, row, stock.getDailyChangePct());
+                setDecimal(dailyChangeInTLVector, row, stock.getDailyChangeInTL());
+                setDecimal(tradingVolumeTLVector, row, stock.getTradingVolumeTL());
+                setDecimal(tradeVolumeCountVector, row, stock.getTradeVolumeCount());
+            }
+            root.setRowCount(stocks.size());
+
+            writer.start();
+            writer.writeBatch();
+            writer.end();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private static void setDecimal(Float8Vector vector, int row, BigDecimal value) {
+        if (value == null) {
+            vector.setNull(row);
+        } else {
+            vector.setSafe(row, value.doubleValue());
+        }
+    }
+}
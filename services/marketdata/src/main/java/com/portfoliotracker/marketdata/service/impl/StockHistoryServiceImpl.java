@@ -0,0 +1,252 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.PricePointResponse;
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.exception.InvalidParameterException;
+import com.portfoliotracker.marketdata.exception.InvalidSymbolsException;
+import com.portfoliotracker.marketdata.exception.ResourceNotFoundException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.StockHistoryService;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.store.PriceHistory;
+import com.portfoliotracker.marketdata.util.Downsampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StockHistoryServiceImpl implements StockHistoryService, StockSnapshotListener {
+
+    @Value("${STOCK_HISTORY_RETENTION_DAYS:30}")
+    private int retentionDays;
+
+    @Value("${STOCK_HISTORY_MAX_POINTS:2000}")
+    private int maxPoints;
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Istanbul");
+
+    private final Map<String, PriceHistory> stockPriceHistories = new ConcurrentHashMap<>();
+
+    private final NavigableSet<LocalDate> tradingDays = new ConcurrentSkipListSet<>();
+
+    /**
+     * Returns the price history of a stock between the given instants, downsampled with LTTB
+     * to at most the requested number of points.
+     *
+     * @param stockSymbol the stock symbol.
+     * @param from        start of the range, inclusive. Defaults to the oldest retained point.
+     * @param to          end of the range, inclusive. Defaults to the latest retained point.
+     * @param points      maximum number of points to return.
+     * @return price points in ascending time order.
+     * @throws InvalidSymbolsException    if there is no history for the given symbol.
+     * @throws InvalidParameterException if the range or the point budget is not valid.
+     */
+    @Override
+    public List<PricePointResponse> getStockPriceHistory(String stockSymbol, Instant from, Instant to, int points) {
+
+        if (points < 2 || points > maxPoints) {
+            throw new InvalidParameterException("points", String.format("It must be between 2 and %d.", maxPoints));
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidParameterException("from", "It must not be after 'to'.");
+        }
+
+        PriceHistory priceHistory = stockPriceHistories.get(stockSymbol);
+        if (priceHistory == null) {
+            throw new InvalidSymbolsException(stockSymbol);
+        }
+
+        PriceHistory.View view = priceHistory.view();
+        int start = from == null ? view.start() : view.lowerBound(from.toEpochMilli());
+        int end = to == null ? view.end() : view.upperBound(to.toEpochMilli());
+
+        List<PricePointResponse> response = new ArrayList<>(Math.min(points, Math.max(end - start, 0)));
+        Downsampler.lttb(view.timestamps(), view.prices(), start, end, points,
+                (timestamp, price) -> response.add(PricePointResponse.builder()
+                        .timestamp(Instant.ofEpochMilli(timestamp))
+                        .price(BigDecimal.valueOf(price))
+                        .build()));
+
+        return response;
+    }
+
+    /**
+     * Returns the last retained price of a stock at or before the given instant, found by binary search
+     * over the history of the stock. A market day resolves to the closing price of that day.
+     *
+     * @param stockSymbol the stock symbol.
+     * @param at          the instant. Must not be combined with {@code date}.
+     * @param date        the market day. Must not be combined with {@code at}.
+     * @return the price point, or the latest price point if neither {@code at} nor {@code date} is given.
+     * @throws InvalidSymbolsException    if there is no history for the given symbol.
+     * @throws InvalidParameterException if both {@code at} and {@code date} are given.
+     * @throws ResourceNotFoundException if no price is retained at or before the requested time.
+     */
+    @Override
+    public PricePointResponse getStockPriceAsOf(String stockSymbol, Instant at, LocalDate date) {
+
+        if (at != null && date != null) {
+            throw new InvalidParameterException("date", "It must not be combined with 'at'.");
+        }
+
+        PriceHistory priceHistory = stockPriceHistories.get(stockSymbol);
+        if (priceHistory == null) {
+            throw new InvalidSymbolsException(stockSymbol);
+        }
+
+        long asOf = Long.MAX_VALUE;
+        if (at != null) {
+            asOf = at.toEpochMilli();
+        } else if (date != null) {
+            asOf = date.plusDays(1).atStartOfDay(MARKET_ZONE).toInstant().toEpochMilli() - 1;
+        }
+
+        PriceHistory.View view = priceHistory.view();
+        int index = view.upperBound(asOf) - 1;
+        if (index < view.start()) {
+            throw new ResourceNotFoundException("Price", "date",
+                    at != null ? at.toString() : String.valueOf(date));
+        }
+
+        return PricePointResponse.builder()
+                .timestamp(Instant.ofEpochMilli(view.timestamps()[index]))
+                .price(BigDecimal.valueOf(view.prices()[index]))
+                .build();
+    }
+
+    /**
+     * Returns the retained price history of the given stocks as immutable views over the internal arrays.
+     *
+     * @param stockSymbols the stock symbols, or an empty list for all stocks.
+     * @return the views by stock symbol in symbol order. Symbols without history are left out.
+     */
+    @Override
+    public Map<String, PriceHistory.View> getStockPriceHistoryViews(List<String> stockSymbols) {
+
+        Collection<String> symbols = stockSymbols.isEmpty() ? stockPriceHistories.keySet() : stockSymbols;
+        Map<String, PriceHistory.View> views = new TreeMap<>();
+        for (String symbol : symbols) {
+            PriceHistory priceHistory = stockPriceHistories.get(symbol);
+            if (priceHistory != null) {
+                views.put(symbol, priceHistory.view());
+            }
+        }
+        return views;
+    }
+
+    /**
+     * @return the market days, in ascending order, for which at least one snapshot is retained and on which at
+     * least one price moved away from its previous close. Days on which the market was closed are left out, as
+     * the scraper keeps publishing unchanged prices on weekends and holidays.
+     */
+    @Override
+    public List<LocalDate> getTradingDays() {
+        return new ArrayList<>(tradingDays);
+    }
+
+    /**
+     * Returns the closing price of every stock for each of the given days. The closing price is the
+     * last retained price of that day in the market time zone. Stocks missing a price on any of the
+     * days are left out.
+     *
+     * @param days the market days in ascending order.
+     * @return closing prices by stock symbol in symbol order, aligned with the given days.
+     */
+    @Override
+    public Map<String, double[]> getDailyClosingPrices(List<LocalDate> days) {
+
+        long[] dayStarts = new long[days.size()];
+        long[] dayEnds = new long[days.size()];
+        for (int i = 0; i < days.size(); i++) {
+            dayStarts[i] = days.get(i).atStartOfDay(MARKET_ZONE).toInstant().toEpochMilli();
+            dayEnds[i] = days.get(i).plusDays(1).atStartOfDay(MARKET_ZONE).toInstant().toEpochMilli() - 1;
+        }
+
+        Map<String, double[]> closingPrices = new TreeMap<>();
+        for (Map.Entry<String, PriceHistory> entry : stockPriceHistories.entrySet()) {
+
+            PriceHistory.View view = entry.getValue().view();
+            double[] closes = new double[days.size()];
+            boolean isComplete = true;
+
+            for (int i = 0; i < days.size() && isComplete; i++) {
+                int last = view.upperBound(dayEnds[i]) - 1;
+                if (last < view.start() || view.timestamps()[last] < dayStarts[i]) {
+                    isComplete = false;
+                } else {
+                    closes[i] = view.prices()[last];
+                }
+            }
+
+            if (isComplete) {
+                closingPrices.put(entry.getKey(), closes);
+            }
+        }
+
+        return closingPrices;
+    }
+
+    @Override
+    public void onSnapshotPublished(StockSnapshot snapshot) {
+
+        LocalDate marketDay = snapshot.getPublishedAt().atZone(MARKET_ZONE).toLocalDate();
+        boolean isTradingDay = tradingDays.contains(marketDay)
+                || hasPriceChangedSincePreviousClose(snapshot, marketDay.atStartOfDay(MARKET_ZONE).toInstant().toEpochMilli());
+
+        long timestamp = snapshot.getPublishedAt().toEpochMilli();
+        for (StockResponse stock : snapshot.getStocks().values()) {
+            if (stock.getLatestPrice() == null) {
+                continue;
+            }
+            stockPriceHistories
+                    .computeIfAbsent(stock.getStockSymbol(), symbol -> new PriceHistory())
+                    .append(timestamp, stock.getLatestPrice().doubleValue());
+        }
+
+        long evictBefore = snapshot.getPublishedAt().minus(Duration.ofDays(retentionDays)).toEpochMilli();
+        stockPriceHistories.values().forEach(priceHistory -> priceHistory.evictBefore(evictBefore));
+        stockPriceHistories.values().removeIf(priceHistory -> priceHistory.view().isEmpty());
+
+        if (isTradingDay) {
+            tradingDays.add(marketDay);
+        }
+        tradingDays.headSet(marketDay.minusDays(retentionDays)).clear();
+    }
+
+    /**
+     * @param dayStart the start of the market day of the snapshot, in epoch milliseconds.
+     * @return {@code true} if a price of the snapshot differs from the last retained price before the day, or if
+     * no stock has a retained price before the day to compare with.
+     */
+    private boolean hasPriceChangedSincePreviousClose(StockSnapshot snapshot, long dayStart) {
+
+        boolean hasPreviousClose = false;
+        for (StockResponse stock : snapshot.getStocks().values()) {
+            PriceHistory priceHistory = stockPriceHistories.get(stock.getStockSymbol());
+            if (stock.getLatestPrice() == null || priceHistory == null) {
+                continue;
+            }
+            PriceHistory.View view = priceHistory.view();
+            int previousClose = view.upperBound(dayStart - 1) - 1;
+            if (previousClose < view.start()) {
+                continue;
+            }
+            hasPreviousClose = true;
+            if (view.prices()[previousClose] != stock.getLatestPrice().doubleValue()) {
+                return true;
+            }
+        }
+        return !hasPreviousClose;
+    }
+}
@@ -0,0 +1,99 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.StockIndicatorResponse;
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.exception.InvalidSymbolsException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.StockIndicatorService;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.store.RollingIndicators;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Order(10)
+public class StockIndicatorServiceImpl implements StockIndicatorService, StockSnapshotListener {
+
+    @Value("${STOCK_INDICATOR_SMA_WINDOW:20}")
+    private int smaWindow;
+
+    @Value("${STOCK_INDICATOR_EMA_PERIOD:20}")
+    private int emaPeriod;
+
+    @Value("${STOCK_INDICATOR_VOLATILITY_WINDOW:20}")
+    private int volatilityWindow;
+
+    @Value("${STOCK_INDICATOR_RSI_PERIOD:14}")
+    private int rsiPeriod;
+
+    private final Map<String, RollingIndicators> stockIndicators = new ConcurrentHashMap<>();
+
+    private volatile Instant updatedAt;
+
+    /**
+     * Returns the rolling indicators of a stock as of the latest snapshot.
+     * Indicators without enough observations for their window are returned as null.
+     *
+     * @param stockSymbol the stock symbol.
+     * @return indicators of the given stock.
+     * @throws InvalidSymbolsException if no observation exists for the given symbol.
+     */
+    @Override
+    public StockIndicatorResponse getStockIndicators(String stockSymbol) {
+
+        RollingIndicators indicators = stockIndicators.get(stockSymbol);
+        if (indicators == null) {
+            throw new InvalidSymbolsException(stockSymbol);
+        }
+
+        RollingIndicators.Values values = indicators.values();
+
+        return StockIndicatorResponse.builder()
+                .stockSymbol(stockSymbol)
+                .updatedAt(updatedAt)
+                .observations(values.observations())
+                .latestPrice(toBigDecimal(values.lastPrice(), 2))
+                .smaWindow(smaWindow)
+                .sma(toBigDecimal(values.sma(), 4))
+                .emaPeriod(emaPeriod)
+                .ema(toBigDecimal(values.ema(), 4))
+                .volatilityWindow(volatilityWindow)
+                .meanReturnPct(toBigDecimal(values.meanReturn() * 100, 4))
+                .volatilityPct(toBigDecimal(Math.sqrt(values.returnVariance()) * 100, 4))
+                .rsiPeriod(rsiPeriod)
+                .rsi(toBigDecimal(values.rsi(), 2))
+                .build();
+    }
+
+    @Override
+    public void onSnapshotPublished(StockSnapshot snapshot) {
+
+        for (StockResponse stock : snapshot.getStocks().values()) {
+            if (stock.getLatestPrice() == null) {
+                continue;
+            }
+            double tradeCount = stock.getTradeVolumeCount() != null ? stock.getTradeVolumeCount().doubleValue() : 0;
+            stockIndicators
+                    .computeIfAbsent(stock.getStockSymbol(), symbol -> new RollingIndicators(
+                            Math.max(smaWindow, 2), Math.max(emaPeriod, 2),
+                            Math.max(volatilityWindow, 2), Math.max(rsiPeriod, 2)))
+                    .update(stock.getLatestPrice().doubleValue(), tradeCount);
+        }
+
+        updatedAt = snapshot.getPublishedAt();
+    }
+
+    private BigDecimal toBigDecimal(double value, int scale) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -3,21 +3,24 @@ package com.portfoliotracker.marketdata.service.impl;
 import com.portfoliotracker.marketdata.exception.InvalidSymbolsException;
 import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
 import com.portfoliotracker.marketdata.dto.StockResponse;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.LeaderElectionService;
 import com.portfoliotracker.marketdata.service.StockService;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.source.StockDataSource;
 import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -29,11 +32,22 @@ public class StockServiceImpl implements StockService {
 
     private Document document;
 
-    @Value(("${STOCK_DATA_URL}"))
-    private String stockDataUrl;
+    @Autowired
+    private StockDataSource stockDataSource;
+
+    @Autowired
+    private List<StockSnapshotListener> snapshotListeners;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
 
     private Map<String, StockResponse> stocksMarketData = new ConcurrentHashMap<>();
 
+    // Versions start from the startup time, so they keep increasing across restarts of the service.
+    private long snapshotVersion = System.currentTimeMillis();
+
+    private volatile StockSnapshot latestSnapshot;
+
     private static final Logger logger = LogManager.getLogger(StockServiceImpl.class);
 
     @Override
@@ -66,25 +80,55 @@ public class StockServiceImpl implements StockService {
         return response;
     }
 
+    @Override
+    public StockSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * Serves a snapshot scraped by the leader instance. Snapshots that are not newer than the latest one
+     * are ignored, so late or repeated pushes cannot roll the data back. The leader scrapes the data itself
+     * and ignores all replicated snapshots.
+     *
+     * @return {@code true} if the snapshot was accepted.
+     */
+    @Override
+    public synchronized boolean acceptReplicatedSnapshot(StockSnapshot snapshot) {
+
+        if (leaderElectionService.isLeader()) {
+            logger.warn("Replicated stock snapshot version {} ignored, as this instance is the leader.",
+                    snapshot.getVersion());
+            return false;
+        }
+
+        if (latestSnapshot != null && snapshot.getVersion() <= latestSnapshot.getVersion()) {
+            return false;
+        }
+
+        snapshotVersion = Math.max(snapshotVersion, snapshot.getVersion());
+        stocksMarketData = new HashMap<>(snapshot.getStocks());
+        notifySnapshotListeners(snapshot);
+        return true;
+    }
+
     @PostConstruct
-    @Scheduled(cron = "0 */3 8-21 * * *", zone = "Europe/Istanbul")
+    @Scheduled(cron = "${STOCK_DATA_REFRESH_CRON:0 */3 8-21 * * *}", zone = "Europe/Istanbul")
     private void updateStockData() {
 
-        if (stockDataUrl == null || stockDataUrl.trim().isEmpty()) {
-            logger.error("STOCK_DATA_URL for stock market data is null or empty. " +
-                    "Failed to fetch stock data from {}", stockDataUrl
-            );
-
+        if (!leaderElectionService.isLeader()) {
+            logger.debug("This instance is a follower. Stock data is replicated from the leader.");
             return;
         }
 
         try {
-        logger.info("Fetching stock data from {}", stockDataUrl);
-        document = Jsoup.connect(Objects.requireNonNull(stockDataUrl)).get();
-        logger.info("Successfully fetched stock data from {} ", stockDataUrl);
+        logger.info("Fetching stock data from {}", stockDataSource.getDescription());
+        long fetchStartedAt = System.nanoTime();
+        document = stockDataSource.fetchStockDataDocument();
+        logger.info("Successfully fetched stock data from {} in {} ms.", stockDataSource.getDescription(),
+                (System.nanoTime() - fetchStartedAt) / 1_000_000);
         updateStocksMarketData();
         } catch (Exception e) {
-            logger.error("Failed to fetch stock data from {}. Error: {}", stockDataUrl, e.getMessage(), e);
+            logger.error("Failed to fetch stock data from {}. Error: {}", stockDataSource.getDescription(), e.getMessage(), e);
         }
     }
 
@@ -94,25 +138,27 @@ public class StockServiceImpl implements StockService {
         if (document == null){
             logger.error("Document is null. Failed to update stocksMarketData. " +
                     "Check if url fetched properly or not from {}"
-                    , stockDataUrl
+                    , stockDataSource.getDescription()
             );
             return;
         }
 
         Elements rows = document.select("table.dataTable tbody tr");
         if (rows.isEmpty()) {
-            logger.warn("No stock data rows found in the table for URL: {}", stockDataUrl);
+            logger.warn("No stock data rows found in the table for URL: {}", stockDataSource.getDescription());
             return;
         }
 
+        long parseStartedAt = System.nanoTime();
         for(Element row : rows){
             try{
                 String stockCode = row.selectFirst("td a").text().trim();
-                BigDecimal latestPrice = parseBigDecimal(row.select("td.text-right").get(0).text());
-                BigDecimal dailyChangePct = parseBigDecimal(row.select("td.text-right").get(1).text());
-                BigDecimal dailyChangeInTL = parseBigDecimal(row.select("td.text-right").get(2).text());
-                BigDecimal tradingVolumeTL = parseBigDecimal(row.select("td.text-right").get(3).text());
-                BigDecimal tradeVolumeCount = parseBigDecimal(row.select("td.text-right").get(4).text());
+                Elements cells = row.select("td.text-right");
+                BigDecimal latestPrice = parseBigDecimal(cells.get(0).text());
+                BigDecimal dailyChangePct = parseBigDecimal(cells.get(1).text());
+                BigDecimal dailyChangeInTL = parseBigDecimal(cells.get(2).text());
+                BigDecimal tradingVolumeTL = parseBigDecimal(cells.get(3).text());
+                BigDecimal tradeVolumeCount = parseBigDecimal(cells.get(4).text());
                 StockResponse stock = StockResponse.builder()
                         .stockSymbol(stockCode)
                         .latestPrice(latestPrice)
@@ -126,6 +172,8 @@ public class StockServiceImpl implements StockService {
                 logger.error("Error processing row: {}", row.toString(), e);
             }
         }
+        logger.info("Parsed {} stock data rows in {} ms.", updatedStocksMarketData.size(),
+                (System.nanoTime() - parseStartedAt) / 1_000_000);
         // Corrupted market data can be retrived just before openning market.
         // The section check if it is corrupted.
         long possibleCorruptedDataCount = updatedStocksMarketData
@@ -139,6 +187,7 @@ public class StockServiceImpl implements StockService {
 
         if (!isMarketDataInvalid) {
             stocksMarketData = updatedStocksMarketData;
+            publishSnapshot(updatedStocksMarketData);
         } else {
             logger.warn("Market data source url has invalid stock market data. This update will be skipped.");
         }
@@ -146,6 +195,38 @@ public class StockServiceImpl implements StockService {
 
     }
 
+    private synchronized void publishSnapshot(Map<String, StockResponse> updatedStocksMarketData) {
+
+        StockSnapshot snapshot = new StockSnapshot(
+                ++snapshotVersion,
+                Instant.now(),
+                Collections.unmodifiableMap(updatedStocksMarketData)
+        );
+
+        notifySnapshotListeners(snapshot);
+    }
+
+    private void notifySnapshotListeners(StockSnapshot snapshot) {
+
+        latestSnapshot = snapshot;
+        long publishStartedAt = System.nanoTime();
+
+        for (StockSnapshotListener snapshotListener : snapshotListeners) {
+            long listenerStartedAt = System.nanoTime();
+            try {
+                snapshotListener.onSnapshotPublished(snapshot);
+            } catch (Exception e) {
+                logger.error("Snapshot listener {} failed for snapshot version {}.",
+                        snapshotListener.getClass().getSimpleName(), snapshot.getVersion(), e);
+            }
+            logger.debug("Snapshot listener {} took {} ms.", snapshotListener.getClass().getSimpleName(),
+                    (System.nanoTime() - listenerStartedAt) / 1_000_000);
+        }
+
+        logger.info("Published snapshot version {} of {} stocks in {} ms.", snapshot.getVersion(),
+                snapshot.getStocks().size(), (System.nanoTime() - publishStartedAt) / 1_000_000);
+    }
+
     private BigDecimal parseBigDecimal(String value) {
         if (value == null || value.isEmpty()) {
             throw new IllegalArgumentException("Value is empty or null for BigDecimal parsing");
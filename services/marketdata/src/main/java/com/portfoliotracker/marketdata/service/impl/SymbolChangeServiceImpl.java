@@ -0,0 +1,125 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.dto.SymbolChangeFeedResponse;
+import com.portfoliotracker.marketdata.dto.SymbolChangeResponse;
+import com.portfoliotracker.marketdata.exception.NoMarketDataFoundException;
+import com.portfoliotracker.marketdata.model.StockSnapshot;
+import com.portfoliotracker.marketdata.service.StockSnapshotListener;
+import com.portfoliotracker.marketdata.service.SymbolChangeService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Keeps a bounded feed of stock symbol listings and delistings detected between consecutive snapshots.
+ *
+ * The scraped table carries no stable identifier besides the symbol, so a renamed symbol shows up as a
+ * delisting of the old symbol and a listing of the new one in the same version.
+ */
+@Service
+@Order(40)
+public class SymbolChangeServiceImpl implements SymbolChangeService, StockSnapshotListener {
+
+    public static final String LISTED = "LISTED";
+    public static final String DELISTED = "DELISTED";
+
+    @Value("${SYMBOL_CHANGE_FEED_CAPACITY:10000}")
+    private int feedCapacity;
+
+    private final Deque<SymbolChangeResponse> symbolChanges = new ArrayDeque<>();
+
+    private Set<String> currentSymbols;
+
+    private long snapshotVersion;
+
+    private long feedStartVersion;
+
+    private static final Logger logger = LogManager.getLogger(SymbolChangeServiceImpl.class);
+
+    /**
+     * Returns the symbol changes published after the given snapshot version.
+     *
+     * If the feed no longer holds every change after that version (the service restarted, or older changes
+     * were dropped to keep the feed bounded), no changes are returned and {@code fullResyncRequired} is set,
+     * so the consumer has to reload the full symbol list and continue from the returned snapshot version.
+     *
+     * @param sinceVersion the last snapshot version the consumer has applied.
+     * @return the changes after the given version in ascending version order.
+     * @throws NoMarketDataFoundException if no snapshot has been published yet.
+     */
+    @Override
+    public synchronized SymbolChangeFeedResponse getSymbolChanges(long sinceVersion) {
+
+        if (currentSymbols == null) {
+            throw new NoMarketDataFoundException();
+        }
+
+        boolean isFullResyncRequired = sinceVersion < feedStartVersion || sinceVersion > snapshotVersion;
+        List<SymbolChangeResponse> changes = new ArrayList<>();
+
+        if (!isFullResyncRequired) {
+            Iterator<SymbolChangeResponse> iterator = symbolChanges.descendingIterator();
+            while (iterator.hasNext()) {
+                SymbolChangeResponse change = iterator.next();
+                if (change.getVersion() <= sinceVersion) {
+                    break;
+                }
+                changes.add(change);
+            }
+            Collections.reverse(changes);
+        }
+
+        return SymbolChangeFeedResponse.builder()
+                .snapshotVersion(snapshotVersion)
+                .oldestAvailableVersion(feedStartVersion)
+                .fullResyncRequired(isFullResyncRequired)
+                .changes(changes)
+                .build();
+    }
+
+    @Override
+    public synchronized void onSnapshotPublished(StockSnapshot snapshot) {
+
+        Set<String> publishedSymbols = new HashSet<>(snapshot.getStocks().keySet());
+        snapshotVersion = snapshot.getVersion();
+
+        if (currentSymbols == null) {
+            currentSymbols = publishedSymbols;
+            feedStartVersion = snapshot.getVersion();
+            return;
+        }
+
+        for (String symbol : new TreeSet<>(publishedSymbols)) {
+            if (!currentSymbols.contains(symbol)) {
+                appendChange(snapshot, symbol, LISTED);
+            }
+        }
+        for (String symbol : new TreeSet<>(currentSymbols)) {
+            if (!publishedSymbols.contains(symbol)) {
+                appendChange(snapshot, symbol, DELISTED);
+            }
+        }
+
+        currentSymbols = publishedSymbols;
+    }
+
+    private void appendChange(StockSnapshot snapshot, String symbol, String changeType) {
+
+        symbolChanges.addLast(SymbolChangeResponse.builder()
+                .version(snapshot.getVersion())
+                .timestamp(snapshot.getPublishedAt())
+                .stockSymbol(symbol)
+                .changeType(changeType)
+                .build());
+
+        while (symbolChanges.size() > feedCapacity) {
+            feedStartVersion = symbolChanges.removeFirst().getVersion();
+        }
+
+        logger.info("Stock symbol '{}' {} in snapshot version {}.", symbol, changeType.toLowerCase(), snapshot.getVersion());
+    }
+}
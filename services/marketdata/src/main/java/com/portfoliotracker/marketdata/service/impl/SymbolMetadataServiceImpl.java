@@ -0,0 +1,91 @@
+package com.portfoliotracker.marketdata.service.impl;
+
+import com.portfoliotracker.marketdata.model.SymbolMetadata;
+import com.portfoliotracker.marketdata.service.SymbolMetadataService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class SymbolMetadataServiceImpl implements SymbolMetadataService {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${SYMBOL_METADATA_LOCATION:classpath:symbol-metadata.csv}")
+    private String symbolMetadataLocation;
+
+    private volatile Map<String, SymbolMetadata> symbolMetadata = Map.of();
+
+    private static final Logger logger = LogManager.getLogger(SymbolMetadataServiceImpl.class);
+
+    /**
+     * @return the cached metadata of the symbol, or {@code null} if the symbol is not registered.
+     */
+    @Override
+    public SymbolMetadata getSymbolMetadata(String symbol) {
+        return symbolMetadata.get(symbol);
+    }
+
+    /**
+     * Reloads the metadata file. Metadata rarely changes, so the file is only re-read once per TTL and the
+     * previous metadata is kept if the file cannot be read.
+     *
+     * The file is a semicolon separated list with a header line: symbol;name;sector;freeFloatPct
+     */
+    @Override
+    @PostConstruct
+    @Scheduled(
+            fixedDelayString = "${SYMBOL_METADATA_TTL_HOURS:24}",
+            initialDelayString = "${SYMBOL_METADATA_TTL_HOURS:24}",
+            timeUnit = TimeUnit.HOURS
+    )
+    public void refreshSymbolMetadata() {
+
+        Resource resource = resourceLoader.getResource(symbolMetadataLocation);
+        Map<String, SymbolMetadata> loadedSymbolMetadata = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] columns = line.split(";", -1);
+                try {
+                    String symbol = columns[0].trim();
+                    String name = columns.length > 1 && !columns[1].isBlank() ? columns[1].trim() : null;
+                    String sector = columns.length > 2 && !columns[2].isBlank() ? columns[2].trim() : null;
+                    BigDecimal freeFloatPct = columns.length > 3 && !columns[3].isBlank()
+                            ? new BigDecimal(columns[3].trim()) : null;
+                    loadedSymbolMetadata.put(symbol, new SymbolMetadata(symbol, name, sector, freeFloatPct));
+                } catch (Exception e) {
+                    logger.error("Error processing symbol metadata line: {}", line, e);
+                }
+            }
+
+            symbolMetadata = Map.copyOf(loadedSymbolMetadata);
+            logger.info("Loaded metadata of {} symbols from {}", loadedSymbolMetadata.size(), symbolMetadataLocation);
+
+        } catch (Exception e) {
+            logger.error("Failed to load symbol metadata from {}. Error: {}",
+                    symbolMetadataLocation, e.getMessage(), e);
+        }
+    }
+}
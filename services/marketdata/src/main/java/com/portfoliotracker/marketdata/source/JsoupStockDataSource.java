@@ -0,0 +1,32 @@
+package com.portfoliotracker.marketdata.source;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+
+/**
+ * Scrapes the stock market data table from a web page.
+ */
+public class JsoupStockDataSource implements StockDataSource {
+
+    private final String stockDataUrl;
+
+    public JsoupStockDataSource(String stockDataUrl) {
+        this.stockDataUrl = stockDataUrl;
+    }
+
+    @Override
+    public Document fetchStockDataDocument() throws IOException {
+
+        if (stockDataUrl == null || stockDataUrl.trim().isEmpty()) {
+            throw new IOException("STOCK_DATA_URL for stock market data is null or empty.");
+        }
+        return Jsoup.connect(stockDataUrl).get();
+    }
+
+    @Override
+    public String getDescription() {
+        return stockDataUrl;
+    }
+}
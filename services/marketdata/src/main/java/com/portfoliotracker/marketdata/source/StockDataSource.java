@@ -0,0 +1,21 @@
+package com.portfoliotracker.marketdata.source;
+
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+
+/**
+ * Source of the stock market data table. The document must contain a 'table.dataTable' whose body rows
+ * hold the symbol link followed by the latest price, daily change %, daily change in TL, trading volume
+ * in TL and trade count cells with the 'text-right' class, in Turkish number format.
+ */
+public interface StockDataSource {
+
+    Document fetchStockDataDocument() throws IOException;
+
+    /**
+     * @return a short description of the source for logs.
+     */
+    String getDescription();
+
+}
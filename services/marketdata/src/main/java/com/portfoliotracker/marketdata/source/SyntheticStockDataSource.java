@@ -0,0 +1,124 @@
+package com.portfoliotracker.marketdata.source;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the stock market data table for a synthetic universe of symbols, for scaling tests without
+ * network access. Every fetch advances each symbol by one step of a geometric random walk with its own
+ * volatility, and renders the same HTML as the real source, so parsing, publishing and serving costs
+ * are measured end to end.
+ *
+ * Daily changes are relative to the first price of the market day. Prices and trade counts restart
+ * from the same values for the same seed.
+ */
+public class SyntheticStockDataSource implements StockDataSource {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Istanbul");
+
+    private final int symbolCount;
+    private final double stepsPerDay;
+    private final SplittableRandom random;
+
+    private final String[] symbols;
+    private final double[] prices;
+    private final double[] openPrices;
+    private final double[] dailyVolatilities;
+    private final long[] tradeCounts;
+    private final double[] tradingVolumes;
+
+    private LocalDate marketDay;
+
+    /**
+     * @param symbolCount number of symbols in the universe.
+     * @param stepsPerDay number of fetches per market day, used to scale the daily volatility to one step.
+     * @param seed        random seed.
+     */
+    public SyntheticStockDataSource(int symbolCount, double stepsPerDay, long seed) {
+
+        this.symbolCount = symbolCount;
+        this.stepsPerDay = stepsPerDay;
+        this.random = new SplittableRandom(seed);
+        this.symbols = new String[symbolCount];
+        this.prices = new double[symbolCount];
+        this.openPrices = new double[symbolCount];
+        this.dailyVolatilities = new double[symbolCount];
+        this.tradeCounts = new long[symbolCount];
+        this.tradingVolumes = new double[symbolCount];
+
+        for (int i = 0; i < symbolCount; i++) {
+            symbols[i] = String.format("SYN%05d", i);
+            // Log-uniform initial prices between 1 and 1000.
+            prices[i] = Math.exp(random.nextDouble() * Math.log(1000));
+            openPrices[i] = prices[i];
+            dailyVolatilities[i] = 0.01 + random.nextDouble() * 0.03;
+        }
+    }
+
+    @Override
+    public synchronized Document fetchStockDataDocument() {
+
+        LocalDate today = LocalDate.now(MARKET_ZONE);
+        if (!today.equals(marketDay)) {
+            marketDay = today;
+            System.arraycopy(prices, 0, openPrices, 0, symbolCount);
+            Arrays.fill(tradeCounts, 0);
+            Arrays.fill(tradingVolumes, 0);
+        }
+
+        StringBuilder html = new StringBuilder(128 + symbolCount * 200);
+        html.append("<html><body><table class=\"dataTable\"><tbody>");
+
+        for (int i = 0; i < symbolCount; i++) {
+            double stepVolatility = dailyVolatilities[i] / Math.sqrt(stepsPerDay);
+            prices[i] = Math.max(0.01, prices[i] * Math.exp(stepVolatility * random.nextGaussian()
+                    - stepVolatility * stepVolatility / 2));
+            long trades = 1 + (long) (random.nextDouble() * 200);
+            tradeCounts[i] += trades;
+            tradingVolumes[i] += trades * (100 + random.nextDouble() * 900) * prices[i];
+
+            double change = prices[i] - openPrices[i];
+            html.append("<tr><td><a>").append(symbols[i]).append("</a></td>");
+            appendCell(html, prices[i]);
+            appendCell(html, change / openPrices[i] * 100);
+            appendCell(html, change);
+            appendCell(html, tradingVolumes[i]);
+            appendCell(html, tradeCounts[i]);
+            html.append("</tr>");
+        }
+
+        html.append("</tbody></table></body></html>");
+        return Jsoup.parse(html.toString());
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("synthetic source of %d symbols", symbolCount);
+    }
+
+    /**
+     * Appends a number in the Turkish format of the real source: '.' groups thousands, ',' separates decimals.
+     */
+    private static void appendCell(StringBuilder html, double value) {
+
+        long hundredths = Math.round(value * 100);
+        html.append("<td class=\"text-right\">");
+        if (hundredths < 0) {
+            html.append('-');
+            hundredths = -hundredths;
+        }
+        String integerPart = Long.toString(hundredths / 100);
+        int firstGroup = integerPart.length() % 3 == 0 ? 3 : integerPart.length() % 3;
+        html.append(integerPart, 0, firstGroup);
+        for (int i = firstGroup; i < integerPart.length(); i += 3) {
+            html.append('.').append(integerPart, i, i + 3);
+        }
+        long decimals = hundredths % 100;
+        html.append(',').append(decimals < 10 ? "0" : "").append(decimals).append("</td>");
+    }
+}
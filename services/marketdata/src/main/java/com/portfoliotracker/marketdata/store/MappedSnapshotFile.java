@@ -0,0 +1,197 @@
+package com.portfoliotracker.marketdata.store;
+
+import com.portfoliotracker.marketdata.dto.StockResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writer of the memory-mapped stock snapshot file read by co-located services.
+ *
+ * Layout, little endian. The header takes {@link #HEADER_SIZE} bytes:
+ * <pre>
+ *  0  int   magic 'PTSS'
+ *  4  int   layout version
+ *  8  long  sequence, odd while a snapshot is being written
+ * 16  long  snapshot version
+ * 24  long  snapshot publish time, epoch millis
+ * 32  int   record count
+ * 36  int   record capacity
+ * 40  long  heartbeat, epoch millis, refreshed while the writer is alive
+ * </pre>
+ * Records of {@link #RECORD_SIZE} bytes follow, sorted by symbol:
+ * <pre>
+ *  0  16 bytes symbol, US-ASCII, zero padded
+ * 16  long  latest price
+ * 24  long  daily change %
+ * 32  long  daily change in TL
+ * 40  long  trading volume in TL
+ * 48  long  trade count
+ * </pre>
+ * Numbers are stored as unscaled values with {@link #SCALE} decimals, or as {@link #NO_VALUE} if the value is
+ * not available. Stocks whose symbol is not printable US-ASCII of at most {@link #SYMBOL_SIZE} characters are
+ * left out, as readers could not look them up.
+ *
+ * Readers follow the seqlock protocol: read the sequence, retry while it is odd, read the records,
+ * then read the sequence again and retry if it changed.
+ */
+public class MappedSnapshotFile implements AutoCloseable {
+
+    public static final int MAGIC = 0x50545353;
+    public static final int LAYOUT_VERSION = 2;
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 64;
+    public static final int SYMBOL_SIZE = 16;
+    public static final int SCALE = 4;
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    static final int SEQUENCE_OFFSET = 8;
+    static final int SNAPSHOT_VERSION_OFFSET = 16;
+    static final int PUBLISHED_AT_OFFSET = 24;
+    static final int RECORD_COUNT_OFFSET = 32;
+    static final int CAPACITY_OFFSET = 36;
+    static final int HEARTBEAT_OFFSET = 40;
+
+    private static final VarHandle LONG_HANDLE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final Logger logger = LogManager.getLogger(MappedSnapshotFile.class);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private long sequence;
+
+    public MappedSnapshotFile(Path path, int capacity) throws IOException {
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) RECORD_SIZE * capacity);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        boolean isInitialized = buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == LAYOUT_VERSION;
+        // Continue the sequence of a previous writer, also one with another capacity, so readers never see it
+        // go back to an even value they have already read.
+        this.sequence = isInitialized ? ((long) LONG_HANDLE.getAcquire(buffer, SEQUENCE_OFFSET) + 1) & ~1L : 0;
+
+        LONG_HANDLE.setRelease(buffer, SEQUENCE_OFFSET, sequence + 1);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, LAYOUT_VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        // Records written with a larger capacity may not fit.
+        if (!isInitialized || buffer.getInt(RECORD_COUNT_OFFSET) > capacity) {
+            buffer.putInt(RECORD_COUNT_OFFSET, 0);
+        }
+        sequence += 2;
+        LONG_HANDLE.setRelease(buffer, SEQUENCE_OFFSET, sequence);
+    }
+
+    /**
+     * Writes the stocks of a snapshot, replacing the previous one. Stocks with a symbol that cannot be stored
+     * are left out with a warning.
+     *
+     * @throws IllegalArgumentException if there are more stocks than the file capacity.
+     */
+    public synchronized void write(long snapshotVersion, long publishedAtMillis, Map<String, StockResponse> stocks) {
+
+        List<StockResponse> sortedStocks = new ArrayList<>(stocks.size());
+        List<String> skippedSymbols = new ArrayList<>();
+        for (StockResponse stock : stocks.values()) {
+            if (isStorableSymbol(stock.getStockSymbol())) {
+                sortedStocks.add(stock);
+            } else {
+                skippedSymbols.add(stock.getStockSymbol());
+            }
+        }
+        if (!skippedSymbols.isEmpty()) {
+            logger.warn("{} stocks left out of the snapshot file, as their symbols are not US-ASCII of at most {} characters: {}",
+                    skippedSymbols.size(), SYMBOL_SIZE, skippedSymbols);
+        }
+
+        if (sortedStocks.size() > capacity) {
+            throw new IllegalArgumentException(String.format(
+                    "Snapshot has %d stocks but the snapshot file capacity is %d. A capacity of at least %d is required.",
+                    sortedStocks.size(), capacity, sortedStocks.size()));
+        }
+
+        sortedStocks.sort(Comparator.comparing(StockResponse::getStockSymbol));
+
+        LONG_HANDLE.setRelease(buffer, SEQUENCE_OFFSET, sequence + 1);
+        VarHandle.storeStoreFence();
+
+        int offset = HEADER_SIZE;
+        for (StockResponse stock : sortedStocks) {
+            byte[] symbol = stock.getStockSymbol().getBytes(StandardCharsets.US_ASCII);
+            for (int i = 0; i < SYMBOL_SIZE; i++) {
+                buffer.put(offset + i, i < symbol.length ? symbol[i] : 0);
+            }
+            buffer.putLong(offset + 16, unscaled(stock.getLatestPrice()));
+            buffer.putLong(offset + 24, unscaled(stock.getDailyChangePct()));
+            buffer.putLong(offset + 32, unscaled(stock.getDailyChangeInTL()));
+            buffer.putLong(offset + 40, unscaled(stock.getTradingVolumeTL()));
+            buffer.putLong(offset + 48, unscaled(stock.getTradeVolumeCount()));
+            offset += RECORD_SIZE;
+        }
+        buffer.putLong(SNAPSHOT_VERSION_OFFSET, snapshotVersion);
+        buffer.putLong(PUBLISHED_AT_OFFSET, publishedAtMillis);
+        buffer.putInt(RECORD_COUNT_OFFSET, sortedStocks.size());
+
+        sequence += 2;
+        LONG_HANDLE.setRelease(buffer, SEQUENCE_OFFSET, sequence);
+        LONG_HANDLE.setRelease(buffer, HEARTBEAT_OFFSET, System.currentTimeMillis());
+    }
+
+    public void writeHeartbeat() {
+        LONG_HANDLE.setRelease(buffer, HEARTBEAT_OFFSET, System.currentTimeMillis());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return {@code true} if the symbol is 1 to {@link #SYMBOL_SIZE} printable US-ASCII characters, so it is stored
+     * without loss and sorts the same as a string and as bytes.
+     */
+    static boolean isStorableSymbol(String symbol) {
+
+        if (symbol == null || symbol.isEmpty() || symbol.length() > SYMBOL_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            char c = symbol.charAt(i);
+            if (c <= 0x20 || c >= 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long unscaled(BigDecimal value) {
+        return value == null ? NO_VALUE : value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,127 @@
+package com.portfoliotracker.marketdata.store;
+
+import java.util.Arrays;
+
+/**
+ * Append-only price series of a single symbol kept in primitive columns.
+ *
+ * There is a single writer (the snapshot publisher) and any number of readers. Readers work on
+ * an immutable {@link View} whose arrays are never modified below its {@code end} index, so a
+ * range query never copies or locks the series.
+ */
+public class PriceHistory {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private volatile View view = new View(new long[INITIAL_CAPACITY], new double[INITIAL_CAPACITY], 0, 0);
+
+    /**
+     * Appends a point. Timestamps must be non-decreasing; out of order points are ignored.
+     */
+    public synchronized void append(long epochMillis, double price) {
+        View current = view;
+        if (current.end > current.start && epochMillis < current.timestamps[current.end - 1]) {
+            return;
+        }
+
+        long[] timestamps = current.timestamps;
+        double[] prices = current.prices;
+        int start = current.start;
+        int end = current.end;
+
+        if (end == timestamps.length) {
+            int size = end - start;
+            int capacity = size * 2 >= timestamps.length ? timestamps.length * 2 : timestamps.length;
+            long[] newTimestamps = new long[capacity];
+            double[] newPrices = new double[capacity];
+            System.arraycopy(timestamps, start, newTimestamps, 0, size);
+            System.arraycopy(prices, start, newPrices, 0, size);
+            timestamps = newTimestamps;
+            prices = newPrices;
+            start = 0;
+            end = size;
+        }
+
+        timestamps[end] = epochMillis;
+        prices[end] = price;
+        view = new View(timestamps, prices, start, end + 1);
+    }
+
+    /**
+     * Drops every point older than the given timestamp.
+     */
+    public synchronized void evictBefore(long epochMillis) {
+        View current = view;
+        int newStart = current.lowerBound(epochMillis);
+        if (newStart != current.start) {
+            view = new View(current.timestamps, current.prices, newStart, current.end);
+        }
+    }
+
+    public View view() {
+        return view;
+    }
+
+    public static final class View {
+
+        private final long[] timestamps;
+        private final double[] prices;
+        private final int start;
+        private final int end;
+
+        private View(long[] timestamps, double[] prices, int start, int end) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+            this.start = start;
+            this.end = end;
+        }
+
+        public long[] timestamps() {
+            return timestamps;
+        }
+
+        public double[] prices() {
+            return prices;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        public boolean isEmpty() {
+            return start == end;
+        }
+
+        /**
+         * @return index of the first point with a timestamp greater than or equal to the given one.
+         */
+        public int lowerBound(long epochMillis) {
+            int index = Arrays.binarySearch(timestamps, start, end, epochMillis);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > start && timestamps[index - 1] == epochMillis) {
+                index--;
+            }
+            return index;
+        }
+
+        /**
+         * @return index of the first point with a timestamp strictly greater than the given one.
+         */
+        public int upperBound(long epochMillis) {
+            int index = Arrays.binarySearch(timestamps, start, end, epochMillis);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index < end && timestamps[index] == epochMillis) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.portfoliotracker.marketdata.store;
+
+/**
+ * Incrementally maintained technical indicators of a single symbol.
+ *
+ * Every update is O(1): the simple moving average keeps a running sum over a ring buffer, the
+ * return variance uses Welford's algorithm with removal of the value leaving the window, and the
+ * EMA and Wilder RSI are recursive. Windows are measured in observations, not in time.
+ */
+public class RollingIndicators {
+
+    private final int smaWindow;
+    private final int emaPeriod;
+    private final int volatilityWindow;
+    private final int rsiPeriod;
+
+    private final double[] prices;
+    private final double[] returns;
+    private final double emaAlpha;
+
+    private long observations;
+    private double lastPrice;
+    private double lastTradeCount = Double.NaN;
+
+    private int priceCursor;
+    private int priceCount;
+    private double priceSum;
+
+    private double ema = Double.NaN;
+
+    private int returnCursor;
+    private int returnCount;
+    private double returnMean;
+    private double returnM2;
+
+    private int rsiSamples;
+    private double averageGain;
+    private double averageLoss;
+
+    public RollingIndicators(int smaWindow, int emaPeriod, int volatilityWindow, int rsiPeriod) {
+        this.smaWindow = smaWindow;
+        this.emaPeriod = emaPeriod;
+        this.volatilityWindow = volatilityWindow;
+        this.rsiPeriod = rsiPeriod;
+        this.prices = new double[smaWindow];
+        this.returns = new double[volatilityWindow];
+        this.emaAlpha = 2.0 / (emaPeriod + 1);
+    }
+
+    /**
+     * Adds an observation. Observations without new trades since the previous one are skipped,
+     * so idle pre-open and after-close refreshes do not dilute the windows.
+     *
+     * @return {@code true} if the observation was applied.
+     */
+    public synchronized boolean update(double price, double tradeCount) {
+
+        if (observations > 0 && price == lastPrice && tradeCount == lastTradeCount) {
+            return false;
+        }
+
+        if (priceCount == smaWindow) {
+            priceSum -= prices[priceCursor];
+        } else {
+            priceCount++;
+        }
+        prices[priceCursor] = price;
+        priceSum += price;
+        priceCursor = (priceCursor + 1) % smaWindow;
+
+        ema = Double.isNaN(ema) ? price : ema + emaAlpha * (price - ema);
+
+        if (observations > 0 && lastPrice != 0) {
+            addReturn(price / lastPrice - 1);
+            addRsiChange(price - lastPrice);
+        }
+
+        lastPrice = price;
+        lastTradeCount = tradeCount;
+        observations++;
+        return true;
+    }
+
+    private void addReturn(double value) {
+
+        if (returnCount == volatilityWindow) {
+            double leaving = returns[returnCursor];
+            double delta = leaving - returnMean;
+            returnMean -= delta / (returnCount - 1);
+            returnM2 -= delta * (leaving - returnMean);
+            returnCount--;
+        }
+
+        returns[returnCursor] = value;
+        returnCursor = (returnCursor + 1) % volatilityWindow;
+
+        returnCount++;
+        double delta = value - returnMean;
+        returnMean += delta / returnCount;
+        returnM2 += delta * (value - returnMean);
+        if (returnM2 < 0) {
+            returnM2 = 0;
+        }
+    }
+
+    private void addRsiChange(double change) {
+
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+
+        if (rsiSamples < rsiPeriod) {
+            rsiSamples++;
+            averageGain += (gain - averageGain) / rsiSamples;
+            averageLoss += (loss - averageLoss) / rsiSamples;
+        } else {
+            averageGain = (averageGain * (rsiPeriod - 1) + gain) / rsiPeriod;
+            averageLoss = (averageLoss * (rsiPeriod - 1) + loss) / rsiPeriod;
+        }
+    }
+
+    public synchronized Values values() {
+
+        double sma = priceCount == smaWindow ? priceSum / priceCount : Double.NaN;
+        double emaValue = observations >= emaPeriod ? ema : Double.NaN;
+        double variance = returnCount >= 2 ? returnM2 / (returnCount - 1) : Double.NaN;
+        double rsi = Double.NaN;
+        if (rsiSamples == rsiPeriod) {
+            rsi = averageLoss == 0 ? 100 : 100 - 100 / (1 + averageGain / averageLoss);
+        }
+
+        return new Values(observations, lastPrice, sma, emaValue,
+                returnCount > 0 ? returnMean : Double.NaN, variance, rsi);
+    }
+
+    /**
+     * Point-in-time copy of the indicators. Values that do not have enough observations yet are NaN.
+     */
+    public record Values(long observations, double lastPrice, double sma, double ema,
+                         double meanReturn, double returnVariance, double rsi) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.portfoliotracker.marketdata.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the sample covariance and Pearson correlation matrices of {@code n} return series of
+ * equal length {@code t}.
+ *
+ * The series are centered once and copied into a single row-major {@code double[n * t]} array.
+ * The upper triangle of the {@code n x n} result is then split into square tiles of
+ * {@link #TILE_SIZE} rows by {@link #TILE_SIZE} columns so that both row blocks of a tile stay in
+ * cache while their dot products are computed, and tiles are processed in parallel on a fork-join
+ * pool. Results are written into flat row-major {@code double[n * n]} arrays.
+ */
+public final class CovarianceKernel {
+
+    static final int TILE_SIZE = 64;
+
+    /**
+     * Largest number of series whose {@code n x n} result still fits into a single array.
+     */
+    public static final int MAX_SERIES = 46_340;
+
+    private static final int TILES_PER_TASK = 4;
+
+    private CovarianceKernel() {
+    }
+
+    public static final class Result {
+
+        private final int size;
+        private final double[] covariance;
+        private final double[] correlation;
+
+        private Result(int size, double[] covariance, double[] correlation) {
+            this.size = size;
+            this.covariance = covariance;
+            this.correlation = correlation;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public double covariance(int row, int column) {
+            return covariance[row * size + column];
+        }
+
+        public double correlation(int row, int column) {
+            return correlation[row * size + column];
+        }
+    }
+
+    /**
+     * @param series return series, one row per symbol, all of the same length (at least 2).
+     * @param pool   pool to run the tiles on.
+     * @throws IllegalArgumentException if there are fewer than two observations, more than {@link #MAX_SERIES}
+     *                                  series, or more observations in total than fit into an array.
+     */
+    public static Result compute(double[][] series, ForkJoinPool pool) {
+
+        int n = series.length;
+        int t = n == 0 ? 0 : series[0].length;
+        if (t < 2) {
+            throw new IllegalArgumentException("At least two observations are required per series.");
+        }
+        if (n > MAX_SERIES) {
+            throw new IllegalArgumentException(String.format(
+                    "At most %d series are supported, but %d were given.", MAX_SERIES, n));
+        }
+        if ((long) n * t > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                    "%d series of %d observations do not fit into a single array.", n, t));
+        }
+
+        double[] centered = new double[n * t];
+        double[] deviations = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] row = series[i];
+            double mean = 0;
+            for (int k = 0; k < t; k++) {
+                mean += row[k];
+            }
+            mean /= t;
+            int offset = i * t;
+            for (int k = 0; k < t; k++) {
+                centered[offset + k] = row[k] - mean;
+            }
+            deviations[i] = Math.sqrt(dot(centered, offset, centered, offset, t));
+        }
+
+        double[] covariance = new double[n * n];
+        double[] correlation = new double[n * n];
+        int tiles = (n + TILE_SIZE - 1) / TILE_SIZE;
+        int tilePairs = tiles * (tiles + 1) / 2;
+
+        pool.invoke(new TileTask(centered, deviations, covariance, correlation, n, t, tiles, 0, tilePairs));
+
+        return new Result(n, covariance, correlation);
+    }
+
+    private static final class TileTask extends RecursiveAction {
+
+        private final double[] centered;
+        private final double[] deviations;
+        private final double[] covariance;
+        private final double[] correlation;
+        private final int n;
+        private final int t;
+        private final int tiles;
+        private final int from;
+        private final int to;
+
+        private TileTask(double[] centered, double[] deviations, double[] covariance, double[] correlation,
+                         int n, int t, int tiles, int from, int to) {
+            this.centered = centered;
+            this.deviations = deviations;
+            this.covariance = covariance;
+            this.correlation = correlation;
+            this.n = n;
+            this.t = t;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > TILES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new TileTask(centered, deviations, covariance, correlation, n, t, tiles, from, middle),
+                        new TileTask(centered, deviations, covariance, correlation, n, t, tiles, middle, to)
+                );
+                return;
+            }
+
+            for (int pair = from; pair < to; pair++) {
+                computeTile(pair);
+            }
+        }
+
+        private void computeTile(int pair) {
+
+            int rowTile = 0;
+            int remaining = pair;
+            while (remaining >= tiles - rowTile) {
+                remaining -= tiles - rowTile;
+                rowTile++;
+            }
+            int columnTile = rowTile + remaining;
+
+            int rowStart = rowTile * TILE_SIZE;
+            int rowEnd = Math.min(rowStart + TILE_SIZE, n);
+            int columnStart = columnTile * TILE_SIZE;
+            int columnEnd = Math.min(columnStart + TILE_SIZE, n);
+            double denominator = t - 1;
+
+            for (int i = rowStart; i < rowEnd; i++) {
+                int iOffset = i * t;
+                for (int j = Math.max(columnStart, i); j < columnEnd; j++) {
+                    double sum = dot(centered, iOffset, centered, j * t, t);
+                    double cov = sum / denominator;
+                    double scale = deviations[i] * deviations[j];
+                    double corr = scale == 0 ? (i == j ? 1 : 0) : sum / scale;
+                    covariance[i * n + j] = cov;
+                    covariance[j * n + i] = cov;
+                    correlation[i * n + j] = corr;
+                    correlation[j * n + i] = corr;
+                }
+            }
+        }
+    }
+
+    private static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int k = 0;
+        for (; k + 3 < length; k += 4) {
+            s0 += a[aOffset + k] * b[bOffset + k];
+            s1 += a[aOffset + k + 1] * b[bOffset + k + 1];
+            s2 += a[aOffset + k + 2] * b[bOffset + k + 2];
+            s3 += a[aOffset + k + 3] * b[bOffset + k + 3];
+        }
+        for (; k < length; k++) {
+            s0 += a[aOffset + k] * b[bOffset + k];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
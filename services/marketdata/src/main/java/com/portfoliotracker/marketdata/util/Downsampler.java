@@ -0,0 +1,93 @@
+package com.portfoliotracker.marketdata.util;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling over primitive time series columns.
+ *
+ * The algorithm walks the requested index range once and emits at most {@code threshold}
+ * points to the given consumer, so the output size is bounded by the point budget and the
+ * source range is never copied.
+ */
+public final class Downsampler {
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    private Downsampler() {
+    }
+
+    /**
+     * Downsamples {@code [from, to)} of the given columns to at most {@code threshold} points.
+     *
+     * @param timestamps the x column, sorted ascending
+     * @param values     the y column
+     * @param from       first index of the range, inclusive
+     * @param to         last index of the range, exclusive
+     * @param threshold  maximum number of points to emit
+     * @param consumer   receives the selected points in ascending order
+     */
+    public static void lttb(long[] timestamps, double[] values, int from, int to, int threshold,
+                            PointConsumer consumer) {
+
+        int length = to - from;
+        if (length <= 0 || threshold <= 0) {
+            return;
+        }
+
+        if (threshold >= length) {
+            for (int i = from; i < to; i++) {
+                consumer.accept(timestamps[i], values[i]);
+            }
+            return;
+        }
+
+        if (threshold < 3) {
+            if (threshold == 2) {
+                consumer.accept(timestamps[from], values[from]);
+            }
+            consumer.accept(timestamps[to - 1], values[to - 1]);
+            return;
+        }
+
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int selected = from;
+        consumer.accept(timestamps[selected], values[selected]);
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+
+            int nextStart = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) Math.floor((bucket + 2) * bucketSize) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            int nextLength = nextEnd - nextStart;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += timestamps[i];
+                averageY += values[i];
+            }
+            averageX /= nextLength;
+            averageY /= nextLength;
+
+            int rangeStart = from + (int) Math.floor(bucket * bucketSize) + 1;
+            int rangeEnd = nextStart;
+            double pointX = timestamps[selected];
+            double pointY = values[selected];
+            double maxArea = -1;
+            int next = rangeStart;
+
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((pointX - averageX) * (values[i] - pointY)
+                        - (pointX - timestamps[i]) * (averageY - pointY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+
+            consumer.accept(timestamps[next], values[next]);
+            selected = next;
+        }
+
+        consumer.accept(timestamps[to - 1], values[to - 1]);
+    }
+}
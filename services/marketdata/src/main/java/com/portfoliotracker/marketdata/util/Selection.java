@@ -0,0 +1,70 @@
+package com.portfoliotracker.marketdata.util;
+
+/**
+ * In-place selection of order statistics on primitive arrays.
+ */
+public final class Selection {
+
+    private Selection() {
+    }
+
+    /**
+     * Rearranges {@code values[from, to)} so that the element at index {@code k} is the one that would be
+     * there if the range were sorted, every element before it is less than or equal to it and every
+     * element after it is greater than or equal to it. Runs in expected linear time.
+     *
+     * @return the selected value.
+     */
+    public static double select(double[] values, int from, int to, int k) {
+
+        int left = from;
+        int right = to - 1;
+
+        while (right > left) {
+
+            int middle = (left + right) >>> 1;
+            if (values[middle] < values[left]) {
+                swap(values, middle, left);
+            }
+            if (values[right] < values[left]) {
+                swap(values, right, left);
+            }
+            if (values[right] < values[middle]) {
+                swap(values, right, middle);
+            }
+            double pivot = values[middle];
+
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+
+        return values[k];
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+}
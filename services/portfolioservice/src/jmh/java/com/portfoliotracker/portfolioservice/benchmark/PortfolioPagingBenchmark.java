@@ -0,0 +1,93 @@
+package com.portfoliotracker.portfolioservice.benchmark;
+
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioStockResponse;
+import com.portfoliotracker.portfolioservice.util.FixedPoint;
+import com.portfoliotracker.portfolioservice.util.InMemoryQuery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Returns a page of a large portfolio sorted by profit and loss with the compiled comparator and top-k
+ * selection of {@link InMemoryQuery}, and with the previous sort, which looked up the comparator of every order
+ * for every comparison and sorted the whole portfolio before taking the page.
+ *
+ * Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PortfolioPagingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int positionCount;
+
+    @Param({"0", "10"})
+    private int page;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final Sort SORT = Sort.by(Sort.Order.desc("profitLossInTL"), Sort.Order.asc("stockSymbol"));
+
+    private static final InMemoryQuery<PortfolioStockResponse> QUERY = new InMemoryQuery<>(Map.of(
+            "stockSymbol", Comparator.comparing(PortfolioStockResponse::getStockSymbol),
+            "profitLossInTL", Comparator.comparingLong(PortfolioStockResponse::getProfitLossInTL)
+    ), Map.of(
+            "profitLossInTL", stock -> stock.getProfitLossInTL() == FixedPoint.NONE
+    ));
+
+    private List<PortfolioStockResponse> stocks;
+
+    @Setup
+    public void setUp() {
+
+        Random random = new Random(42);
+        List<PortfolioStockResponse> generatedStocks = new ArrayList<>(positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            generatedStocks.add(PortfolioStockResponse.builder()
+                    .stockSymbol(String.format("S%05d", i))
+                    .profitLossInTL((random.nextInt(2_000_000) - 1_000_000) * 100L)
+                    .build());
+        }
+        stocks = List.copyOf(generatedStocks);
+    }
+
+    @Benchmark
+    public Page<PortfolioStockResponse> compiledTopK() {
+        return QUERY.getPage(stocks, page, PAGE_SIZE, SORT);
+    }
+
+    @Benchmark
+    public Page<PortfolioStockResponse> comparatorPerCompare() {
+
+        List<PortfolioStockResponse> sorted = stocks.stream().sorted((o1, o2) -> {
+            for (Sort.Order order : SORT) {
+                Comparator<PortfolioStockResponse> comparator = getComparator(order);
+                int result = comparator.compare(o1, o2);
+                if (result != 0) {
+                    return order.isAscending() ? result : -result;
+                }
+            }
+            return 0;
+        }).collect(Collectors.toList());
+
+        PageRequest pageRequest = PageRequest.of(page, PAGE_SIZE, SORT);
+        int start = (int) pageRequest.getOffset();
+        int end = Math.min(start + pageRequest.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(start, end), pageRequest, sorted.size());
+    }
+
+    private static Comparator<PortfolioStockResponse> getComparator(Sort.Order order) {
+        return switch (order.getProperty()) {
+            case "stockSymbol" -> Comparator.comparing(PortfolioStockResponse::getStockSymbol);
+            case "profitLossInTL" -> Comparator.comparingLong(PortfolioStockResponse::getProfitLossInTL);
+            default -> throw new IllegalArgumentException(order.getProperty());
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.portfoliotracker.portfolioservice.benchmark;
+
+import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
+import com.portfoliotracker.portfolioservice.util.FixedPoint;
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Values a portfolio of many positions with the fixed-point calculator and with the previous valuation, which
+ * read the average cost and quantity as doubles and computed the profit and loss with {@link BigDecimal}.
+ *
+ * Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PortfolioValuationBenchmark {
+
+    @Param({"1000", "5000"})
+    private int positionCount;
+
+    private List<PortfolioStock> portfolioStocks;
+    private List<DoublePosition> doublePositions;
+    private Map<String, StockMarketDataResponse> marketData;
+
+    private record DoublePosition(String stockSymbol, Double averageCost, Double quantity) {
+    }
+
+    /**
+     * Previous result type, with the amounts as {@link BigDecimal}.
+     */
+    private record DecimalStockResponse(String stockSymbol, BigDecimal latestPrice, BigDecimal dailyChangePct,
+                                        BigDecimal dailyChangeInTL, BigDecimal averageCost, BigDecimal profitLossPct,
+                                        BigDecimal profitLossInTL, BigDecimal quantity) {
+    }
+
+    @Setup
+    public void setUp() {
+
+        Random random = new Random(42);
+        portfolioStocks = new ArrayList<>(positionCount);
+        doublePositions = new ArrayList<>(positionCount);
+        marketData = new LinkedHashMap<>();
+
+        for (int i = 0; i < positionCount; i++) {
+            String symbol = String.format("S%05d", i);
+            long quantity = 1 + random.nextInt(1_000_000);
+            BigDecimal totalCost = BigDecimal.valueOf(quantity)
+                    .multiply(BigDecimal.valueOf(100 + random.nextInt(500_000), 2));
+            long totalCostAmount = FixedPoint.fromDecimal(totalCost);
+            long averageCost = FixedPoint.round(FixedPoint.divide(totalCostAmount, quantity), 2);
+
+            portfolioStocks.add(new PortfolioStock(symbol, quantity, totalCostAmount, averageCost, 0));
+            doublePositions.add(new DoublePosition(symbol,
+                    totalCost.divide(BigDecimal.valueOf(quantity), 2, RoundingMode.HALF_UP).doubleValue(),
+                    (double) quantity));
+            marketData.put(symbol, StockMarketDataResponse.builder()
+                    .stockSymbol(symbol)
+                    .latestPrice(BigDecimal.valueOf(100 + random.nextInt(500_000), 2))
+                    .dailyChangePct(BigDecimal.valueOf(random.nextInt(2_000) - 1_000, 2))
+                    .dailyChangeInTL(BigDecimal.valueOf(random.nextInt(20_000) - 10_000, 2))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public PortfolioValuationCalculator.Valuation fixedPoint() {
+        return PortfolioValuationCalculator.value(portfolioStocks, PortfolioValuationCalculator.toQuotes(marketData));
+    }
+
+    @Benchmark
+    public List<DecimalStockResponse> doubleAndBigDecimal() {
+
+        List<DecimalStockResponse> stocksWithMarketData = new ArrayList<>(doublePositions.size());
+        for (DoublePosition position : doublePositions) {
+            StockMarketDataResponse stockMarketData = marketData.get(position.stockSymbol());
+
+            BigDecimal averageCost = BigDecimal.valueOf(position.averageCost());
+            BigDecimal quantity = BigDecimal.valueOf(position.quantity());
+            BigDecimal latestPrice = stockMarketData.getLatestPrice();
+
+            BigDecimal profitLossPct = latestPrice
+                    .divide(averageCost, 4, RoundingMode.HALF_UP)
+                    .subtract(BigDecimal.ONE)
+                    .multiply(BigDecimal.valueOf(100))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            BigDecimal profitLossInTL = latestPrice.subtract(averageCost).multiply(quantity);
+
+            stocksWithMarketData.add(new DecimalStockResponse(position.stockSymbol(), latestPrice,
+                    stockMarketData.getDailyChangePct(), stockMarketData.getDailyChangeInTL(), averageCost,
+                    profitLossPct, profitLossInTL, quantity));
+        }
+        return stocksWithMarketData;
+    }
+}
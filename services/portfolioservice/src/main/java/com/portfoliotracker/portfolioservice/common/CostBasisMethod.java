@@ -0,0 +1,14 @@
+package com.portfoliotracker.portfolioservice.common;
+
+/**
+ * How the cost of a sale is determined.
+ */
+public enum CostBasisMethod {
+
+    /** The oldest lots are sold first. */
+    FIFO,
+    /** The newest lots are sold first. */
+    LIFO,
+    /** The sale costs the average cost of the position. Lots are still reduced oldest first. */
+    AVERAGE
+}
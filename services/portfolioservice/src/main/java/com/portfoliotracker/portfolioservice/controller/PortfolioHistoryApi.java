@@ -0,0 +1,87 @@
+package com.portfoliotracker.portfolioservice.controller;
+
+import com.portfoliotracker.portfolioservice.common.ApiCustomResponse;
+import com.portfoliotracker.portfolioservice.common.ErrorDetails;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioValueResponse;
+import com.portfoliotracker.portfolioservice.exception.UserNotFoundException;
+import com.portfoliotracker.portfolioservice.service.PortfolioHistoryService;
+import com.portfoliotracker.portfolioservice.util.JwtUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/portfolio/api/v1")
+public class PortfolioHistoryApi {
+
+    private final PortfolioHistoryService portfolioHistoryService;
+    private static final Logger logger = LogManager.getLogger(PortfolioHistoryApi.class);
+
+    @GetMapping("/history")
+    @Operation(
+            summary = "Returns the value history of a user portfolio.",
+            description = "This endpoint returns the market value and invested amount of a user portfolio at the end " +
+                    "of every day between the given days, oldest first. Values are recorded by a nightly job, " +
+                    "so the current day appears once the job has run."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Portfolio history received successfully.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "400", description  = "Start date is after end date.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<List<PortfolioValueResponse>>> getUserPortfolioHistory(
+            WebRequest webRequest,
+            @Parameter(description = "First day in ISO-8601 format. Defaults to 365 days before the last day.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day in ISO-8601 format. Defaults to the current market day.")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ){
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        List<PortfolioValueResponse> portfolioHistory = portfolioHistoryService.getUserPortfolioHistory(userId, from, to);
+
+        ApiCustomResponse<List<PortfolioValueResponse>> apiCustomResponse = ApiCustomResponse
+                .<List<PortfolioValueResponse>>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(String.format("%d portfolio values received successfully.", portfolioHistory.size()))
+                .data(portfolioHistory)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        logger.info(String.format("Portfolio history received successfully for user '%s'.", userId));
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+}
@@ -2,8 +2,12 @@ package com.portfoliotracker.portfolioservice.controller;
 
 import com.portfoliotracker.portfolioservice.common.ApiCustomResponse;
 import com.portfoliotracker.portfolioservice.common.ErrorDetails;
+import com.portfoliotracker.portfolioservice.dto.request.ExportFormat;
 import com.portfoliotracker.portfolioservice.dto.response.PortfolioStockResponse;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioSummaryResponse;
+import com.portfoliotracker.portfolioservice.dto.response.RealizedGainResponse;
 import com.portfoliotracker.portfolioservice.exception.UserNotFoundException;
+import com.portfoliotracker.portfolioservice.service.PortfolioExportService;
 import com.portfoliotracker.portfolioservice.service.PortfolioService;
 import com.portfoliotracker.portfolioservice.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,11 +21,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -33,12 +41,16 @@ import java.util.List;
 public class PortfolioStocksApi {
 
     private final PortfolioService portfolioService;
+    private final PortfolioExportService portfolioExportService;
     private static final Logger logger = LogManager.getLogger(PortfolioTransactionApi.class);
 
     @GetMapping("/stocks")
     @Operation(
             summary = "Returns a page of user portfolio stocks list with their market data.",
-            description = "This endpoint returns a page of user portfolio stocks list with their market data."
+            description = "This endpoint returns a page of user portfolio stocks list with their market data. " +
+                    "Stocks whose market data is not available in time are returned with quoteMissing set and " +
+                    "without market data fields. The profit and loss is unrealized, on the quantity held, and " +
+                    "realizedProfitLossInTL is the total gain of the sales of the stock."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode  = "200", description  = "Portfolio stocks received successfully.",
@@ -75,7 +87,9 @@ public class PortfolioStocksApi {
                 .timestamp(Instant.now())
                 .success(true)
                 .status(HttpStatus.OK.value())
-                .message("Portfolio stocks received successfully.")
+                .message(userPortfolioStocks.stream().anyMatch(PortfolioStockResponse::isQuoteMissing)
+                        ? "Portfolio stocks received with missing quotes."
+                        : "Portfolio stocks received successfully.")
                 .data(userPortfolioStocks)
                 .errors(errors)
                 .path(path)
@@ -85,4 +99,145 @@ public class PortfolioStocksApi {
 
         return ResponseEntity.ok(apiCustomResponse);
     }
+
+    @GetMapping("/summary")
+    @Operation(
+            summary = "Returns the totals of the user portfolio.",
+            description = "This endpoint returns the market value, total cost, unrealized and realized profit and loss, " +
+                    "and today's change of the user portfolio without its stocks. The totals are computed and cached " +
+                    "together with the portfolio stocks. If the market data of a stock is not available in time, " +
+                    "quoteMissing is set and the market totals leave the stock out."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Portfolio summary received successfully.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "404", description  = "Stocks not found for userId.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<PortfolioSummaryResponse>> getUserPortfolioSummary(
+            WebRequest webRequest
+    ){
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        PortfolioSummaryResponse portfolioSummary = portfolioService.getUserPortfolioSummary(userId);
+
+        ApiCustomResponse<PortfolioSummaryResponse> apiCustomResponse = ApiCustomResponse
+                .<PortfolioSummaryResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message(portfolioSummary.isQuoteMissing()
+                        ? "Portfolio summary received with missing quotes."
+                        : "Portfolio summary received successfully.")
+                .data(portfolioSummary)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        logger.info(String.format("User portfolio summary received successfully for user '%s'.", userId));
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @GetMapping("/realized-gains")
+    @Operation(
+            summary = "Returns a page of realized gains of a user.",
+            description = "This endpoint returns the gains and losses of the sales of a user, newest sale first. " +
+                    "Every sale is matched against the open lots of the stock by the configured cost basis method."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Realized gains received successfully.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "404", description  = "Realized gains not found for userId.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<ApiCustomResponse<Page<RealizedGainResponse>>> getUserRealizedGains(
+            WebRequest webRequest,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Set to receive only the realized gains of a stock.")
+            @RequestParam(required = false) String stockSymbol
+    ){
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        Page<RealizedGainResponse> realizedGains = portfolioService.getRealizedGainsByUserId(userId, stockSymbol, page, size);
+
+        ApiCustomResponse<Page<RealizedGainResponse>> apiCustomResponse = ApiCustomResponse
+                .<Page<RealizedGainResponse>>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message("Realized gains received successfully.")
+                .data(realizedGains)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        logger.info(String.format("Realized gains received successfully for user '%s'.", userId));
+
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @GetMapping("/stocks/export")
+    @Operation(
+            summary = "Export open positions of a user.",
+            description = "This endpoint streams the open positions of a user with their quantity, total cost and average cost " +
+                    "as newline-delimited JSON or CSV, without market data."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Export streamed successfully.",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode  = "400", description  = "Export format is not supported.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportUserPositions(
+            WebRequest webRequest,
+            @Parameter(description = "ndjson or csv.")
+            @RequestParam(defaultValue = "ndjson") String format
+    ){
+
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody export = outputStream -> portfolioExportService.exportPositions(userId, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("positions." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(export);
+    }
 }
@@ -1,29 +1,43 @@
 package com.portfoliotracker.portfolioservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.portfoliotracker.portfolioservice.common.ApiCustomResponse;
 import com.portfoliotracker.portfolioservice.common.ErrorDetails;
+import com.portfoliotracker.portfolioservice.dto.request.ExportFormat;
 import com.portfoliotracker.portfolioservice.dto.request.PortfolioTransactionRequest;
 import com.portfoliotracker.portfolioservice.dto.response.PortfolioTransactionResponse;
+import com.portfoliotracker.portfolioservice.dto.response.TransactionImportResult;
+import com.portfoliotracker.portfolioservice.dto.response.TransactionWindowResponse;
 import com.portfoliotracker.portfolioservice.exception.UserNotFoundException;
+import com.portfoliotracker.portfolioservice.service.PortfolioExportService;
+import com.portfoliotracker.portfolioservice.service.PortfolioImportService;
 import com.portfoliotracker.portfolioservice.service.PortfolioService;
 import com.portfoliotracker.portfolioservice.util.JwtUtil;
+import com.portfoliotracker.portfolioservice.util.TransactionImportReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,15 +49,23 @@ import java.util.List;
 public class PortfolioTransactionApi {
 
     private final PortfolioService portfolioService;
+    private final PortfolioImportService portfolioImportService;
+    private final PortfolioExportService portfolioExportService;
+    private final ObjectMapper objectMapper;
     private static final Logger logger = LogManager.getLogger(PortfolioTransactionApi.class);
 
     @PostMapping("/transaction")
     @Operation(
             summary = "Add portfolio transaction for a user.",
-            description = "This endpoint adds a portfolio transaction for a user"
+            description = "This endpoint adds a portfolio transaction for a user. " +
+                    "If the price is omitted, the closing price of the stock on the transaction date is used. " +
+                    "A negative quantity records a sale, which is matched against the open lots of the stock."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode  = "200", description  = "User transactions received successfully.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "400", description  = "Sale exceeds the quantity held or the date is in the future.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ApiCustomResponse.class)))
     })
@@ -85,6 +107,61 @@ public class PortfolioTransactionApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiCustomResponse);
     }
 
+    @PostMapping(value = "/transactions/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Import portfolio transactions of a user from a file.",
+            description = "This endpoint imports portfolio transactions from a CSV file with a date, stockSymbol, " +
+                    "quantity and price header, or from a JSON array of transactions. Every row must have a price, " +
+                    "and sales have a negative quantity. " +
+                    "The result of every row is streamed back as newline-delimited JSON while the file is imported. " +
+                    "Rows that are not valid are reported and skipped without stopping the import."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Transactions imported, see the result of every row.",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = TransactionImportResult.class))),
+            @ApiResponse(responseCode  = "400", description  = "Import file is not valid.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> importPortfolioTransactions(
+            WebRequest webRequest,
+            HttpServletRequest request
+    ) throws IOException {
+
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        boolean isJson = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        TransactionImportReader reader = isJson
+                ? TransactionImportReader.ofJson(request.getInputStream(), objectMapper)
+                : TransactionImportReader.ofCsv(request.getInputStream());
+
+        StreamingResponseBody importReport = outputStream -> {
+            try (reader) {
+                portfolioImportService.importTransactions(userId, reader, result -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(result));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(importReport);
+    }
+
     @GetMapping("/transactions")
     @Operation(
             summary = "Returns a page of transactions list of added stocks by user id.",
@@ -100,7 +177,7 @@ public class PortfolioTransactionApi {
     })
     public  ResponseEntity<ApiCustomResponse<Page<PortfolioTransactionResponse>>>getUserTransactions(
             WebRequest webRequest,
-            @Parameter(description = "Set page -1 to receive all transactions.")
+            @Parameter(description = "Set page -1 to receive all transactions. Use /transactions/export for long histories.")
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -134,6 +211,105 @@ public class PortfolioTransactionApi {
         return ResponseEntity.ok(apiCustomResponse);
     }
 
+    @GetMapping(value = "/transactions", params = "cursor")
+    @Operation(
+            summary = "Returns a window of transactions of a user after a cursor.",
+            description = "This endpoint returns transactions of a user in cursor mode, selected by the presence of " +
+                    "the 'cursor' parameter. Pass an empty cursor for the first window and the returned 'nextCursor' " +
+                    "for the following ones, with the same sort. Every window costs the same regardless of its depth. " +
+                    "Supported sort keys are id, date, stockSymbol, quantity and price. The total count is only " +
+                    "returned when requested."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "User transactions received successfully.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "400", description  = "Sort key or cursor is not valid.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class))),
+            @ApiResponse(responseCode  = "404", description  = "No user transaction found.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public  ResponseEntity<ApiCustomResponse<TransactionWindowResponse>>scrollUserTransactions(
+            WebRequest webRequest,
+            @Parameter(description = "Empty for the first window, then the 'nextCursor' of the previous window.")
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "true") boolean descending,
+            @Parameter(description = "Set true to also count all transactions of the user.")
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        TransactionWindowResponse userTransactions = portfolioService
+                .scrollPortfolioTransactionsByUserId(userId, cursor, size, sortBy, descending, includeTotal);
+
+        ApiCustomResponse<TransactionWindowResponse> apiCustomResponse = ApiCustomResponse
+                .<TransactionWindowResponse>builder()
+                .timestamp(Instant.now())
+                .success(true)
+                .status(HttpStatus.OK.value())
+                .message("User transactions received successfully.")
+                .data(userTransactions)
+                .errors(errors)
+                .path(path)
+                .build();
+        return ResponseEntity.ok(apiCustomResponse);
+    }
+
+    @GetMapping("/transactions/export")
+    @Operation(
+            summary = "Export all transactions of a user.",
+            description = "This endpoint streams all transactions of a user in id order as newline-delimited JSON or CSV. " +
+                    "Rows are written while they are read, so exports of any size start immediately and use constant memory."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode  = "200", description  = "Export streamed successfully.",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode  = "400", description  = "Export format is not supported.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiCustomResponse.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(
+            WebRequest webRequest,
+            @Parameter(description = "ndjson or csv.")
+            @RequestParam(defaultValue = "ndjson") String format
+    ){
+
+        String userId;
+
+        try {
+            String token = webRequest.getHeader("Authorization");
+            userId = JwtUtil.getJwtSub(token);
+        }catch (Exception UserNotFoundException){
+            throw new UserNotFoundException();
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody export = outputStream -> portfolioExportService.exportTransactions(userId, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(export);
+    }
+
     @DeleteMapping("/transactions/{transactionId}")
     @Operation(
             summary = "Deletes a transaction by user id and transaction id.",
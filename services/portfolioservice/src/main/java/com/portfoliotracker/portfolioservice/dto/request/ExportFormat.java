@@ -0,0 +1,30 @@
+package com.portfoliotracker.portfolioservice.dto.request;
+
+import com.portfoliotracker.portfolioservice.exception.UnsupportedExportFormatException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    /**
+     * @throws UnsupportedExportFormatException if the format is neither ndjson nor csv.
+     */
+    public static ExportFormat fromParameter(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedExportFormatException(format);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.portfoliotracker.portfolioservice.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 
@@ -20,9 +21,15 @@ public class PortfolioTransactionRequest {
     private LocalDate date;
     @NotNull(message = "stockSymbol cannot be null")
     private String stockSymbol;
-    @Positive(message = "Quantity must be greater than 0")
+    // Negative for sales.
     private Long quantity;
     @PositiveOrZero(message = "Price must be zero or positive")
     private BigDecimal price;
 
+    @JsonIgnore
+    @AssertTrue(message = "Quantity must not be 0")
+    public boolean isQuantityNonZero() {
+        return quantity == null || quantity != 0;
+    }
+
 }
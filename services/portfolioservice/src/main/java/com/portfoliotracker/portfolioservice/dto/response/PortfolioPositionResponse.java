@@ -0,0 +1,19 @@
+package com.portfoliotracker.portfolioservice.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class PortfolioPositionResponse {
+
+    private String stockSymbol;
+    private Long quantity;
+    private BigDecimal totalCost;
+    private BigDecimal averageCost;
+}
@@ -1,10 +1,13 @@
 package com.portfoliotracker.portfolioservice.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.portfoliotracker.portfolioservice.util.FixedPointSerializer;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
-import java.math.BigDecimal;
-
+/**
+ * Amounts are {@link com.portfoliotracker.portfolioservice.util.FixedPoint} amounts and written to JSON as decimals.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,12 +18,23 @@ public class PortfolioStockResponse {
 
     @NotNull(message = "stockSymbol cannot be null")
     private String stockSymbol;
-    private BigDecimal latestPrice;
-    private BigDecimal dailyChangePct;
-    private BigDecimal dailyChangeInTL;
-    private BigDecimal averageCost;
-    private BigDecimal profitLossPct;
-    private BigDecimal profitLossInTL;
-    @NotNull(message = "quantity cannot be null")
-    private BigDecimal quantity;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long latestPrice;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long dailyChangePct;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long dailyChangeInTL;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long averageCost;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long profitLossPct;
+    // Unrealized, on the quantity still held.
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long profitLossInTL;
+    // Total gain of the sales of the stock.
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long realizedProfitLossInTL;
+    private long quantity;
+    // Set when the market data of the stock could not be received in time. Market data fields are null then.
+    private boolean quoteMissing;
 }
@@ -0,0 +1,39 @@
+package com.portfoliotracker.portfolioservice.dto.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.portfoliotracker.portfolioservice.util.FixedPointSerializer;
+import lombok.*;
+
+/**
+ * Totals of the portfolio stocks of a user. Amounts are {@link com.portfoliotracker.portfolioservice.util.FixedPoint}
+ * amounts and written to JSON as decimals.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Builder
+public class PortfolioSummaryResponse {
+
+    private int stockCount;
+    // Of the stocks with a quote.
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long marketValue;
+    // Of all stocks.
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long totalCost;
+    // Unrealized, of the stocks with a quote.
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long profitLossInTL;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long profitLossPct;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long dailyChangeInTL;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long dailyChangePct;
+    @JsonSerialize(using = FixedPointSerializer.class)
+    private long realizedProfitLossInTL;
+    // Set when the market data of any stock could not be received in time. Market totals leave these stocks out.
+    private boolean quoteMissing;
+}
@@ -1,7 +1,6 @@
 package com.portfoliotracker.portfolioservice.dto.response;
 
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 
@@ -22,7 +21,6 @@ public class PortfolioTransactionResponse {
     private LocalDate date;
     @NotNull(message = "stockSymbol cannot be null")
     private String stockSymbol;
-    @Positive(message = "Quantity ust be greater than 0")
     private Long quantity;
     @PositiveOrZero(message = "Price must be zero or positive")
     private BigDecimal price;
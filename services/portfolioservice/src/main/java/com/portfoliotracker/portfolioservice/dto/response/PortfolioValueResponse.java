@@ -0,0 +1,18 @@
+package com.portfoliotracker.portfolioservice.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class PortfolioValueResponse {
+
+    private LocalDate date;
+    private BigDecimal marketValue;
+    private BigDecimal investedAmount;
+}
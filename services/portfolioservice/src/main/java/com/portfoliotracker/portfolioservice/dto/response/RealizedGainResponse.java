@@ -0,0 +1,23 @@
+package com.portfoliotracker.portfolioservice.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RealizedGainResponse {
+
+    // Id of the sale.
+    private long transactionId;
+    private LocalDate date;
+    private String stockSymbol;
+    private Long quantity;
+    private BigDecimal proceeds;
+    private BigDecimal costBasis;
+    private BigDecimal gain;
+}
@@ -0,0 +1,18 @@
+package com.portfoliotracker.portfolioservice.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TransactionImportResult {
+
+    private long row;
+    private boolean imported;
+    private Long transactionId;
+    private String stockSymbol;
+    private String message;
+}
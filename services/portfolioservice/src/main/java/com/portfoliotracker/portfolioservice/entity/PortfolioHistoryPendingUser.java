@@ -0,0 +1,24 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a user whose transactions changed since the last run of the history job.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "portfolio_history_pending_users")
+public class PortfolioHistoryPendingUser {
+
+    @Id
+    private String userId;
+    @Column(nullable = false)
+    private LocalDateTime markedAt;
+}
@@ -0,0 +1,27 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Closing price of a stock used by the history job, and the day it last changed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "portfolio_history_prices")
+public class PortfolioHistoryPrice {
+
+    @Id
+    private String stockSymbol;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal price;
+    @Column(nullable = false)
+    private LocalDate changedOn;
+}
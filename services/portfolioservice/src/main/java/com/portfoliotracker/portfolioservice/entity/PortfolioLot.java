@@ -0,0 +1,65 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Open quantity of a purchase. The quantity is reduced by the sales matched against the lot, and the lot
+ * is removed once it is sold completely.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+@Entity
+@Table(name = "portfolio_lots")
+public class PortfolioLot implements Persistable<Long> {
+
+    @Id
+    private Long transactionId;
+    @Column(nullable = false)
+    private String userId;
+    @Column(nullable = false)
+    private String stockSymbol;
+    @Column(nullable = false)
+    private LocalDate date;
+    @Column(nullable = false)
+    private Long quantity;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal price;
+
+    // The id is the id of the purchase, so new lots are inserted without looking them up first.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    public PortfolioLot(PortfolioTransaction purchase) {
+        this.transactionId = purchase.getId();
+        this.userId = purchase.getUserId();
+        this.stockSymbol = purchase.getStockSymbol();
+        this.date = purchase.getDate();
+        this.quantity = purchase.getQuantity();
+        this.price = purchase.getPrice();
+    }
+
+    @Override
+    public Long getId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
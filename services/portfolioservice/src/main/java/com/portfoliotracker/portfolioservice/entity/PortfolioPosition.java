@@ -0,0 +1,35 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantity and cost totals of the transactions of a user for a stock, maintained together with the
+ * transactions so positions are read without aggregating the transaction history.
+ * The total cost is the cost basis of the quantity still held. The realized gain is the total of all sales.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@IdClass(PortfolioPositionId.class)
+@Table(name = "portfolio_positions")
+public class PortfolioPosition {
+
+    @Id
+    @Column(nullable = false)
+    private String userId;
+    @Id
+    @Column(nullable = false)
+    private String stockSymbol;
+    @Column(nullable = false)
+    private Long quantity;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalCost;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal realizedGain;
+}
@@ -0,0 +1,17 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class PortfolioPositionId implements Serializable {
+
+    private String userId;
+    private String stockSymbol;
+}
@@ -0,0 +1,70 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Gain or loss of a sale: the proceeds minus the cost of the lots it was matched against.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+@Entity
+@Table(name = "portfolio_realized_gains")
+public class PortfolioRealizedGain implements Persistable<Long> {
+
+    @Id
+    private Long transactionId;
+    @Column(nullable = false)
+    private String userId;
+    @Column(nullable = false)
+    private String stockSymbol;
+    @Column(nullable = false)
+    private LocalDate date;
+    @Column(nullable = false)
+    private Long quantity;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal proceeds;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal costBasis;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal gain;
+
+    // The id is the id of the sale, so new gains are inserted without looking them up first.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    public PortfolioRealizedGain(PortfolioTransaction sale, long quantity, BigDecimal proceeds, BigDecimal costBasis) {
+        this.transactionId = sale.getId();
+        this.userId = sale.getUserId();
+        this.stockSymbol = sale.getStockSymbol();
+        this.date = sale.getDate();
+        this.quantity = quantity;
+        this.proceeds = proceeds;
+        this.costBasis = costBasis;
+        this.gain = proceeds.subtract(costBasis);
+    }
+
+    @Override
+    public Long getId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
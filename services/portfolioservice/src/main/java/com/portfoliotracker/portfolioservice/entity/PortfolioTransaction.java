@@ -1,7 +1,7 @@
 package com.portfoliotracker.portfolioservice.entity;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class PortfolioTransaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "portfolio_transactions_seq")
+    @SequenceGenerator(name = "portfolio_transactions_seq", sequenceName = "portfolio_transactions_seq", allocationSize = 50)
     private long id;
     @CreationTimestamp
     private LocalDateTime dateCreated;
@@ -30,10 +31,15 @@ public class PortfolioTransaction {
     private LocalDate date;
     @Column(nullable = false)
     private String stockSymbol;
+    // Negative for sales.
     @Column(nullable = false)
-    @Positive(message = "Quantity must be greater than 0")
     private Long quantity;
     @Column(nullable = false)
     @PositiveOrZero(message = "Price must be zero or positive")
     private BigDecimal price;
+
+    @AssertTrue(message = "Quantity must not be 0")
+    private boolean isQuantityNonZero() {
+        return quantity == null || quantity != 0;
+    }
 }
\ No newline at end of file
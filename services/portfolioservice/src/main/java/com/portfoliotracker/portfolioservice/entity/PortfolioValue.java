@@ -0,0 +1,33 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Value of the portfolio of a user at the end of a day. Rows are only written by the history job, in bulk.
+ * The invested amount is the cost basis of the quantity held.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@IdClass(PortfolioValueId.class)
+@Table(name = "portfolio_value_history")
+public class PortfolioValue {
+
+    @Id
+    @Column(nullable = false)
+    private String userId;
+    @Id
+    @Column(nullable = false)
+    private LocalDate date;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal marketValue;
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal investedAmount;
+}
@@ -0,0 +1,18 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class PortfolioValueId implements Serializable {
+
+    private String userId;
+    private LocalDate date;
+}
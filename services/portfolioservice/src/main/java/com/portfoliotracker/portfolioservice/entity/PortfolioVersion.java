@@ -0,0 +1,22 @@
+package com.portfoliotracker.portfolioservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Version of the transactions of a user, moved forward with every change of their positions.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Entity
+@Table(name = "portfolio_versions")
+public class PortfolioVersion {
+
+    @Id
+    private String userId;
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,9 @@
+package com.portfoliotracker.portfolioservice.event;
+
+/**
+ * Published when the transactions and positions of a user change.
+ *
+ * @param userId the ID of the user, or {@code null} if the positions of all users were rebuilt.
+ */
+public record PortfolioChangedEvent(String userId) {
+}
@@ -183,4 +183,200 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
     }
+
+    @ExceptionHandler(PriceNotAvailableException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handlePriceNotAvailableException(
+            PriceNotAvailableException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
+
+    @ExceptionHandler(InvalidTransactionDateException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleInvalidTransactionDateException(
+            InvalidTransactionDateException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
+
+    @ExceptionHandler(InsufficientQuantityException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleInsufficientQuantityException(
+            InsufficientQuantityException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
+
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleInvalidImportFileException(
+            InvalidImportFileException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleInvalidCursorException(
+            InvalidCursorException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
+
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleInvalidDateRangeException(
+            InvalidDateRangeException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
+
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<ApiCustomResponse<String>> handleUnsupportedExportFormatException(
+            UnsupportedExportFormatException exception, WebRequest webRequest){
+
+        String path = webRequest.getDescription(false).replace("uri=", "");
+        List<ErrorDetails> errors = new ArrayList<>(List.of());
+
+        ErrorDetails errorDetails = ErrorDetails.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .path(path)
+                .build();
+
+        errors.add(errorDetails);
+
+        ApiCustomResponse<String> apiCustomResponse = ApiCustomResponse.<String>builder()
+                .timestamp(Instant.now())
+                .success(false)
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message(exception.getMessage())
+                .data(null)
+                .errors(errors)
+                .path(path)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiCustomResponse);
+    }
 }
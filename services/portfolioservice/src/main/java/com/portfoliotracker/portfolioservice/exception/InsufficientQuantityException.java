@@ -0,0 +1,14 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InsufficientQuantityException extends  RuntimeException{
+
+    public InsufficientQuantityException(String stockSymbol, long quantity, long openQuantity){
+
+        super(String.format("Cannot sell %d of '%s', only %d are held.", quantity, stockSymbol, openQuantity));
+
+    }
+}
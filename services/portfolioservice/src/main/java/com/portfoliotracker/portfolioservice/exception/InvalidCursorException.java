@@ -0,0 +1,14 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends  RuntimeException{
+
+    public InvalidCursorException(){
+
+        super("Cursor is not valid for the requested sort. Start again without a cursor.");
+
+    }
+}
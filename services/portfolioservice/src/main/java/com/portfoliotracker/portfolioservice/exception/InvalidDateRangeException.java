@@ -0,0 +1,16 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDate;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidDateRangeException extends  RuntimeException{
+
+    public InvalidDateRangeException(LocalDate from, LocalDate to){
+
+        super(String.format("Start date '%s' must not be after end date '%s'.", from, to));
+
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidImportFileException extends  RuntimeException{
+
+    public InvalidImportFileException(String reason){
+
+        super(String.format("Import file is not valid: %s", reason));
+
+    }
+}
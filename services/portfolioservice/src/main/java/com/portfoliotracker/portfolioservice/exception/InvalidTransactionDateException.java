@@ -0,0 +1,16 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDate;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidTransactionDateException extends  RuntimeException{
+
+    public InvalidTransactionDateException(LocalDate date, LocalDate today){
+
+        super(String.format("Transaction date %s is in the future. It must not be after %s.", date, today));
+
+    }
+}
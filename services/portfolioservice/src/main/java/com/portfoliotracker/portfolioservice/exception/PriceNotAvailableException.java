@@ -0,0 +1,16 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDate;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class PriceNotAvailableException extends  RuntimeException{
+
+    public PriceNotAvailableException(String stockSymbol, LocalDate date){
+
+        super(String.format("Price of '%s' on %s is not available. Provide the transaction price.", stockSymbol, date));
+
+    }
+}
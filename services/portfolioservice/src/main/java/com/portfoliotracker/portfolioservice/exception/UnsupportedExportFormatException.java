@@ -0,0 +1,14 @@
+package com.portfoliotracker.portfolioservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class UnsupportedExportFormatException extends  RuntimeException{
+
+    public UnsupportedExportFormatException(String format){
+
+        super(String.format("Unsupported export format: '%s'. Supported formats are ndjson and csv.", format));
+
+    }
+}
@@ -0,0 +1,12 @@
+package com.portfoliotracker.portfolioservice.mapper;
+
+import com.portfoliotracker.portfolioservice.dto.response.RealizedGainResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioRealizedGain;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface PortfolioRealizedGainMapper {
+
+    RealizedGainResponse toResponseDto(PortfolioRealizedGain entity);
+
+}
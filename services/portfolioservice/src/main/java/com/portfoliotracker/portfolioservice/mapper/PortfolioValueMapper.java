@@ -0,0 +1,12 @@
+package com.portfoliotracker.portfolioservice.mapper;
+
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioValueResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioValue;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface PortfolioValueMapper {
+
+    PortfolioValueResponse toResponseDto(PortfolioValue entity);
+
+}
@@ -2,6 +2,9 @@ package com.portfoliotracker.portfolioservice.projection;
 
 import lombok.*;
 
+/**
+ * Position of a user. Closed positions have a quantity of 0 and only carry their realized gain. Costs are {@link com.portfoliotracker.portfolioservice.util.FixedPoint} amounts.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -10,6 +13,9 @@ import lombok.*;
 public class PortfolioStock {
 
     private String stockSymbol;
-    private Double averageCost;
-    private Double quantity;
+    private long quantity;
+    private long totalCost;
+    // Rounded to two decimals.
+    private long averageCost;
+    private long realizedGain;
 }
@@ -0,0 +1,47 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioHistoryPendingUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PortfolioHistoryPendingUserRepository extends JpaRepository<PortfolioHistoryPendingUser, String> {
+
+    /**
+     * Marks a user, or moves the mark of an already marked user forward.
+     */
+    @Modifying
+    @Query("INSERT INTO PortfolioHistoryPendingUser (userId, markedAt) VALUES (:userId, :markedAt) " +
+            "ON CONFLICT (userId) DO UPDATE SET markedAt = excluded.markedAt")
+    int markUser(String userId, LocalDateTime markedAt);
+
+    @Modifying
+    @Query("UPDATE PortfolioHistoryPendingUser u SET u.markedAt = :markedAt")
+    int moveAllMarks(LocalDateTime markedAt);
+
+    /**
+     * Marks the users with transactions that are not marked yet.
+     */
+    @Modifying
+    @Query("INSERT INTO PortfolioHistoryPendingUser (userId, markedAt) " +
+            "SELECT DISTINCT t.userId, :markedAt FROM PortfolioTransaction t " +
+            "WHERE NOT EXISTS (SELECT 1 FROM PortfolioHistoryPendingUser u WHERE u.userId = t.userId)")
+    int markUnmarkedUsers(LocalDateTime markedAt);
+
+    @Query("SELECT u.userId FROM PortfolioHistoryPendingUser u WHERE u.markedAt <= :markedAt")
+    List<String> findUserIdsMarkedUntil(LocalDateTime markedAt);
+
+    /**
+     * Removes the marks of the users, unless they were marked again after the given time.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioHistoryPendingUser u WHERE u.userId IN :userIds AND u.markedAt <= :markedAt")
+    int deleteMarks(Collection<String> userIds, LocalDateTime markedAt);
+
+}
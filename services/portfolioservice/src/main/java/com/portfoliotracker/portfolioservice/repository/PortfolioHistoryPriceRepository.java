@@ -0,0 +1,9 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioHistoryPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioHistoryPriceRepository extends JpaRepository<PortfolioHistoryPrice, String> {
+}
@@ -0,0 +1,46 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioLot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PortfolioLotRepository extends JpaRepository<PortfolioLot, Long> {
+
+    /**
+     * Locks the oldest open lots of a position, so concurrent sales of the same position are matched one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PortfolioLot> findByUserIdAndStockSymbolOrderByDateAscTransactionIdAsc(String userId, String stockSymbol, Limit limit);
+
+    /**
+     * Locks the newest open lots of a position, so concurrent sales of the same position are matched one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PortfolioLot> findByUserIdAndStockSymbolOrderByDateDescTransactionIdDesc(String userId, String stockSymbol, Limit limit);
+
+    /**
+     * Removes the lot of a purchase if none of it has been sold.
+     *
+     * @return 1 if the lot was removed, 0 if it is sold partly or completely.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioLot l WHERE l.transactionId = :transactionId AND l.quantity = :quantity")
+    int deleteOpenLot(long transactionId, Long quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioLot l WHERE l.userId = :userId AND l.stockSymbol = :stockSymbol")
+    int deleteLots(String userId, String stockSymbol);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioLot l")
+    int deleteAllLots();
+
+}
@@ -0,0 +1,88 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioPosition;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPositionId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface PortfolioPositionRepository extends JpaRepository<PortfolioPosition, PortfolioPositionId> {
+
+    List<PortfolioPosition> findByUserIdAndQuantityGreaterThan(String userId, Long quantity);
+
+    List<PortfolioPosition> findByUserId(String userId);
+
+    List<PortfolioPosition> findByUserIdIn(Collection<String> userIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM PortfolioPosition p WHERE p.userId = :userId AND p.quantity > 0 ORDER BY p.stockSymbol")
+    Stream<PortfolioPosition> streamOpenPositionsByUserId(String userId);
+
+    @Query("SELECT DISTINCT p.stockSymbol FROM PortfolioPosition p WHERE p.quantity > 0")
+    List<String> findHeldStockSymbols();
+
+    @Query("SELECT DISTINCT p.userId FROM PortfolioPosition p WHERE p.stockSymbol IN :stockSymbols AND p.quantity > 0")
+    List<String> findUserIdsHoldingAny(Collection<String> stockSymbols);
+
+    /**
+     * Locks the position, so concurrent sales of the same position are checked against its quantity one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PortfolioPosition> findWithLockByUserIdAndStockSymbol(String userId, String stockSymbol);
+
+    /**
+     * Adds to the totals in place, so concurrent transactions of the same position do not overwrite each other.
+     *
+     * @return the number of updated positions, 0 if the position does not exist yet.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PortfolioPosition p " +
+            "SET p.quantity = p.quantity + :quantity, p.totalCost = p.totalCost + :cost, " +
+            "p.realizedGain = p.realizedGain + :realizedGain " +
+            "WHERE p.userId = :userId AND p.stockSymbol = :stockSymbol")
+    int addToPosition(String userId, String stockSymbol, Long quantity, BigDecimal cost, BigDecimal realizedGain);
+
+    /**
+     * Creates the position, or adds to its totals in place if it exists. Unlike an update followed by an insert,
+     * concurrent first transactions of the same position do not fail on the primary key.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO PortfolioPosition (userId, stockSymbol, quantity, totalCost, realizedGain) " +
+            "VALUES (:userId, :stockSymbol, :quantity, :cost, :realizedGain) " +
+            "ON CONFLICT (userId, stockSymbol) DO UPDATE SET quantity = quantity + excluded.quantity, " +
+            "totalCost = totalCost + excluded.totalCost, realizedGain = realizedGain + excluded.realizedGain")
+    int upsertPosition(String userId, String stockSymbol, Long quantity, BigDecimal cost, BigDecimal realizedGain);
+
+    /**
+     * Removes the position once it is sold or deleted completely. Positions with realized gains are kept.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioPosition p " +
+            "WHERE p.userId = :userId AND p.stockSymbol = :stockSymbol AND p.quantity <= 0 AND p.realizedGain = 0")
+    int deleteClosedPosition(String userId, String stockSymbol);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioPosition p WHERE p.userId = :userId AND p.stockSymbol = :stockSymbol")
+    int deletePosition(String userId, String stockSymbol);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioPosition p")
+    int deleteAllPositions();
+
+}
@@ -0,0 +1,25 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioRealizedGain;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioRealizedGainRepository extends JpaRepository<PortfolioRealizedGain, Long> {
+
+    Page<PortfolioRealizedGain> findByUserId(String userId, Pageable pageable);
+    Page<PortfolioRealizedGain> findByUserIdAndStockSymbol(String userId, String stockSymbol, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioRealizedGain g WHERE g.userId = :userId AND g.stockSymbol = :stockSymbol")
+    int deleteRealizedGains(String userId, String stockSymbol);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioRealizedGain g")
+    int deleteAllRealizedGains();
+
+}
@@ -1,31 +1,46 @@
 package com.portfoliotracker.portfolioservice.repository;
 
+import com.portfoliotracker.portfolioservice.entity.PortfolioPositionId;
 import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
-import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PortfolioTransactionRepository extends JpaRepository<PortfolioTransaction, Long> {
     List<PortfolioTransaction> findByUserId(String userId);
     Page<PortfolioTransaction> findByUserId(String userId, Pageable pageable);
+    Window<PortfolioTransaction> findByUserId(String userId, ScrollPosition position, Sort sort, Limit limit);
+    long countByUserId(String userId);
     boolean existsByUserIdAndId(String userId, long id);
+    Optional<PortfolioTransaction> findByUserIdAndId(String userId, long id);
     void deleteByUserIdAndId(String userId, long id);
     void deleteByUserIdAndStockSymbol(String userId, String stockSymbol);
     boolean existsByUserIdAndStockSymbol(String userId, String stockSymbol);
+    List<PortfolioTransaction> findByUserIdAndStockSymbolOrderById(String userId, String stockSymbol);
+    boolean existsByUserIdAndStockSymbolAndIdGreaterThanAndQuantityLessThan(String userId, String stockSymbol, long id, long quantity);
 
-    @Query("SELECT new com.portfoliotracker.portfolioservice.projection.PortfolioStock(" +
-            "t.stockSymbol, " +
-            "ROUND((SUM(t.price * t.quantity) / SUM(t.quantity)) * 1.0, 2) AS averageCost, " +
-            "SUM(t.quantity) * 1.0 AS quantity)" +
-            "FROM PortfolioTransaction t " +
-            "WHERE t.userId = :userId " +
-            "GROUP BY t.stockSymbol")
-    List<PortfolioStock> getUserPortfolioStocks(String userId);
+    @Query("SELECT DISTINCT new com.portfoliotracker.portfolioservice.entity.PortfolioPositionId(t.userId, t.stockSymbol) " +
+            "FROM PortfolioTransaction t")
+    List<PortfolioPositionId> findPositionIds();
+
+    /**
+     * Streams the transactions of a user in id order. Must be consumed within a transaction, and the entities
+     * should be detached once written, so the persistence context does not grow with the history.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM PortfolioTransaction t WHERE t.userId = :userId ORDER BY t.id")
+    Stream<PortfolioTransaction> streamByUserId(String userId);
 
 }
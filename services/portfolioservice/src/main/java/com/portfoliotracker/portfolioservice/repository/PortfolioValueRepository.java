@@ -0,0 +1,63 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioValue;
+import com.portfoliotracker.portfolioservice.entity.PortfolioValueId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PortfolioValueRepository extends JpaRepository<PortfolioValue, PortfolioValueId> {
+
+    List<PortfolioValue> findByUserIdAndDateBetweenOrderByDate(String userId, LocalDate from, LocalDate to);
+
+    @Query("SELECT MAX(v.date) FROM PortfolioValue v WHERE v.date < :date")
+    Optional<LocalDate> findPreviousDate(LocalDate date);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PortfolioValue v WHERE v.userId IN :userIds AND v.date = :date")
+    int deleteValues(Collection<String> userIds, LocalDate date);
+
+    /**
+     * Values the open positions of the users at the recorded closing prices. Positions of stocks without a
+     * recorded price are valued at cost.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO PortfolioValue (userId, date, marketValue, investedAmount) " +
+            "SELECT p.userId, :date, SUM(COALESCE(p.quantity * pr.price, p.totalCost)), SUM(p.totalCost) " +
+            "FROM PortfolioPosition p LEFT JOIN PortfolioHistoryPrice pr ON pr.stockSymbol = p.stockSymbol " +
+            "WHERE p.userId IN :userIds AND p.quantity > 0 " +
+            "GROUP BY p.userId")
+    int insertValues(Collection<String> userIds, LocalDate date);
+
+    /**
+     * Appends a zero value for the users that held stocks on the previous date but none now.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO PortfolioValue (userId, date, marketValue, investedAmount) " +
+            "SELECT v.userId, :date, 0, 0 " +
+            "FROM PortfolioValue v " +
+            "WHERE v.userId IN :userIds AND v.date = :previousDate " +
+            "AND (v.marketValue <> 0 OR v.investedAmount <> 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM PortfolioValue c WHERE c.userId = v.userId AND c.date = :date)")
+    int insertClosedValues(Collection<String> userIds, LocalDate date, LocalDate previousDate);
+
+    /**
+     * Carries the values of the previous date forward for the users that have no value for the date yet.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO PortfolioValue (userId, date, marketValue, investedAmount) " +
+            "SELECT v.userId, :date, v.marketValue, v.investedAmount " +
+            "FROM PortfolioValue v " +
+            "WHERE v.date = :previousDate " +
+            "AND (v.marketValue <> 0 OR v.investedAmount <> 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM PortfolioValue c WHERE c.userId = v.userId AND c.date = :date)")
+    int carryValuesForward(LocalDate date, LocalDate previousDate);
+
+}
@@ -0,0 +1,42 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PortfolioVersionRepository extends JpaRepository<PortfolioVersion, String> {
+
+    @Query("SELECT v.version FROM PortfolioVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersion(String userId);
+
+    List<PortfolioVersion> findByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Moves the version of a user forward, starting at 1 for a user without a version.
+     */
+    @Modifying
+    @Query("INSERT INTO PortfolioVersion (userId, version) VALUES (:userId, 1) " +
+            "ON CONFLICT (userId) DO UPDATE SET version = version + 1")
+    int incrementVersion(String userId);
+
+    @Modifying
+    @Query("UPDATE PortfolioVersion v SET v.version = v.version + 1")
+    int incrementAllVersions();
+
+    /**
+     * Gives the users with transactions that do not have a version yet their first version.
+     */
+    @Modifying
+    @Query("INSERT INTO PortfolioVersion (userId, version) " +
+            "SELECT DISTINCT t.userId, 1L FROM PortfolioTransaction t " +
+            "WHERE NOT EXISTS (SELECT 1 FROM PortfolioVersion v WHERE v.userId = t.userId)")
+    int insertMissingVersions();
+
+}
@@ -1,13 +1,23 @@
 package com.portfoliotracker.portfolioservice.service;
 
 import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.dto.response.SymbolChangeFeedResponse;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 
 public interface MarketDataService {
 
-    boolean isValidStockSymbol(String symbol);
+    List<String> fetchStockSymbols();
+    SymbolChangeFeedResponse fetchSymbolChanges(long since);
     Map<String, StockMarketDataResponse> fetchStocksMarketData(List<String> stockSymbols);
+    CompletableFuture<Map<String, StockMarketDataResponse>> fetchStocksMarketDataAsync(List<String> stockSymbols);
+    Optional<BigDecimal> fetchStockPriceAsOf(String stockSymbol, LocalDate date);
+    OptionalLong findLocalSnapshotVersion();
 
 }
@@ -0,0 +1,13 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.dto.request.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PortfolioExportService {
+
+    long exportTransactions(String userId, ExportFormat format, OutputStream outputStream) throws IOException;
+    long exportPositions(String userId, ExportFormat format, OutputStream outputStream) throws IOException;
+
+}
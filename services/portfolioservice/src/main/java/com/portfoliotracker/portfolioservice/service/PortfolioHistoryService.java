@@ -0,0 +1,13 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioValueResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PortfolioHistoryService {
+
+    void recordPortfolioValues();
+    List<PortfolioValueResponse> getUserPortfolioHistory(String userId, LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,12 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.dto.response.TransactionImportResult;
+import com.portfoliotracker.portfolioservice.util.TransactionImportReader;
+
+import java.util.function.Consumer;
+
+public interface PortfolioImportService {
+
+    long importTransactions(String userId, TransactionImportReader reader, Consumer<TransactionImportResult> resultConsumer);
+
+}
@@ -0,0 +1,18 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.common.CostBasisMethod;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPosition;
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+
+import java.math.BigDecimal;
+
+public interface PortfolioLotService {
+
+    PortfolioPosition openLot(PortfolioTransaction purchase);
+    PortfolioPosition closeLots(PortfolioTransaction sale, long quantity, long openQuantity, BigDecimal openCost);
+    boolean deleteOpenLot(PortfolioTransaction purchase);
+    void deleteLots(String userId, String stockSymbol);
+    void deleteAllLots();
+    CostBasisMethod getCostBasisMethod();
+
+}
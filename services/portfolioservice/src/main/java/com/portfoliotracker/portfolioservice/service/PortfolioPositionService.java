@@ -0,0 +1,20 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface PortfolioPositionService {
+
+    PortfolioTransaction saveTransaction(PortfolioTransaction portfolioTransaction);
+    List<PortfolioTransaction> saveTransactions(List<PortfolioTransaction> portfolioTransactions);
+    void deleteTransaction(PortfolioTransaction portfolioTransaction);
+    void deleteTransactionsByStockSymbol(String userId, String stockSymbol);
+    List<PortfolioStock> getUserPositions(String userId);
+    Map<String, List<PortfolioStock>> getUsersPositions(Collection<String> userIds);
+    int rebuildPositions();
+
+}
@@ -2,7 +2,10 @@ package com.portfoliotracker.portfolioservice.service;
 
 import com.portfoliotracker.portfolioservice.dto.request.PortfolioTransactionRequest;
 import com.portfoliotracker.portfolioservice.dto.response.PortfolioStockResponse;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioSummaryResponse;
 import com.portfoliotracker.portfolioservice.dto.response.PortfolioTransactionResponse;
+import com.portfoliotracker.portfolioservice.dto.response.RealizedGainResponse;
+import com.portfoliotracker.portfolioservice.dto.response.TransactionWindowResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 
@@ -10,8 +13,12 @@ public interface PortfolioService {
 
     PortfolioTransactionResponse savePortfolioTransaction(String userId, PortfolioTransactionRequest portfolioTransactionRequest);
     Page<PortfolioTransactionResponse> getPortfolioTransactionsByUserId(String userId, int page, int size, Sort sort);
+    TransactionWindowResponse scrollPortfolioTransactionsByUserId(String userId, String cursor, int size, String sortBy,
+                                                                 boolean descending, boolean includeTotal);
     void deletePortfolioTransaction(String userId, long transactionId);
     void deleteAllTransactionsByUserIdAndStockSymbol(String userId, String stockSymbol);
 
     Page<PortfolioStockResponse> getUserPortfolioStocks(String userId, int page, int size, Sort sort);
+    PortfolioSummaryResponse getUserPortfolioSummary(String userId);
+    Page<RealizedGainResponse> getRealizedGainsByUserId(String userId, String stockSymbol, int page, int size);
 }
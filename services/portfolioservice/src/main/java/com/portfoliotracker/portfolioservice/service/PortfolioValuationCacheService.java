@@ -0,0 +1,15 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator.Valuation;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface PortfolioValuationCacheService {
+
+    Valuation getUserValuation(String userId, Function<String, Valuation> valuationLoader);
+    List<String> getLastKnownSymbols(String userId);
+    void invalidateAll();
+    void revaluePortfolios();
+
+}
@@ -0,0 +1,9 @@
+package com.portfoliotracker.portfolioservice.service;
+
+public interface SymbolRegistryService {
+
+    boolean isKnownSymbol(String stockSymbol);
+    void refreshSymbols();
+    long getSnapshotVersion();
+
+}
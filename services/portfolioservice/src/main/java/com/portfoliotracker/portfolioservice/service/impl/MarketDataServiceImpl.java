@@ -2,22 +2,40 @@ package com.portfoliotracker.portfolioservice.service.impl;
 
 import com.portfoliotracker.portfolioservice.common.ApiCustomResponse;
 import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.dto.response.SymbolChangeFeedResponse;
 import com.portfoliotracker.portfolioservice.service.MarketDataService;
+import com.portfoliotracker.portfolioservice.util.MarketDataSnapshotReader;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 
 @Service
 public class MarketDataServiceImpl implements MarketDataService {
 
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Istanbul");
+
     private final WebClient webClient;
 
+    private final MarketDataSnapshotReader snapshotReader;
+
+    // Every call to the market data service ends after this time, so callers that gave up waiting do not leave
+    // requests behind.
+    private final Duration requestTimeout;
+
     public MarketDataServiceImpl(WebClient.Builder webClientBuilder , Environment env) {
 
         String baseUrl = env.getProperty("MARKET_DATA_SERVICE_BASE_URL");
@@ -27,17 +45,32 @@ public class MarketDataServiceImpl implements MarketDataService {
         }
 
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+
+        // Set when a marketdata instance publishes its snapshot file on the same host.
+        String snapshotFile = env.getProperty("MARKET_DATA_SNAPSHOT_FILE");
+        this.snapshotReader = new MarketDataSnapshotReader(
+                snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile),
+                env.getProperty("MARKET_DATA_SNAPSHOT_FILE_MAX_AGE_MS", Long.class, 30_000L)
+        );
+
+        this.requestTimeout = Duration.ofMillis(
+                env.getProperty("PORTFOLIO_MARKET_DATA_REQUEST_TIMEOUT_MS", Long.class, 10_000L));
     }
 
     /**
-     * Validates if a given stock symbol is available in the market data service.
+     * Fetches all stock symbols of the market data service.
+     * Symbols are read from the local snapshot file when it is available.
      *
-     * @param symbol the stock symbol to validate.
-     * @return {@code true} if the symbol exists in the market data; {@code false} otherwise.
-     * @throws RuntimeException if an unexpected error occurs while validating the stock symbol.
+     * @return the stock symbols.
+     * @throws RuntimeException if an unexpected error occurs while fetching the stock symbols.
      */
     @Override
-    public boolean isValidStockSymbol(String symbol) {
+    public List<String> fetchStockSymbols() {
+
+        Optional<List<String>> localSymbols = snapshotReader.findSymbols();
+        if (localSymbols.isPresent()) {
+            return localSymbols.get();
+        }
 
         try {
 
@@ -45,54 +78,196 @@ public class MarketDataServiceImpl implements MarketDataService {
                     .uri("/market-data/api/v1/stocks/symbols")
                     .retrieve()
                     .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<List<String>>>() {})
+                    .timeout(requestTimeout)
                     .block();
 
-            List<String> stockSymbols = serviceResponse != null ? serviceResponse.getData() : Collections.emptyList();
-
-            return stockSymbols.contains(symbol);
+            return serviceResponse != null ? serviceResponse.getData() : Collections.emptyList();
 
         }  catch (Exception e) {
-            throw new RuntimeException("Unexpected error occurred while validation stock symbol.", e);
+            throw new RuntimeException("Unexpected error occurred while fetching stock symbols.", e);
         }
 
     }
 
+    /**
+     * Fetches the stock symbols listed or delisted in the market data service after the given snapshot version.
+     *
+     * @param since the last snapshot version applied by the caller.
+     * @return the symbol changes, and whether the caller must reload all symbols instead.
+     * @throws RuntimeException if an unexpected error occurs while fetching the symbol changes.
+     */
+    @Override
+    public SymbolChangeFeedResponse fetchSymbolChanges(long since) {
+
+        try {
+
+            ApiCustomResponse<SymbolChangeFeedResponse> serviceResponse = webClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/market-data/api/v1/symbols/changes")
+                            .queryParam("since", since)
+                            .build())
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<SymbolChangeFeedResponse>>() {})
+                    .timeout(requestTimeout)
+                    .block();
+
+            return Objects.requireNonNull(serviceResponse).getData();
+
+        } catch (Exception e) {
+            throw new RuntimeException("Unexpected error occurred while fetching symbol changes.", e);
+        }
+    }
+
     /**
      * Fetches market data for a list of stock symbols from the market data service.
+     * Quotes are read from the local snapshot file when it is available and has any of the symbols.
      *
      * @param symbols a list of stock symbols for which market data is to be retrieved.
      * @return a map where the key is the stock symbol and the value is the corresponding market data response.
      * @throws RuntimeException if an error occurs while fetching stock market data,
-     *                          including HTTP errors or unexpected exceptions.
+     *                          including HTTP errors, timeouts or unexpected exceptions.
      */
     @Override
     public Map<String, StockMarketDataResponse> fetchStocksMarketData(List<String> symbols) {
 
+        Optional<Map<String, StockMarketDataResponse>> localMarketData = findLocalStocksMarketData(symbols);
+        if (localMarketData.isPresent()) {
+            return localMarketData.get();
+        }
+
+        try {
+            return requestStocksMarketData(symbols).block();
+        } catch (WebClientResponseException e) {
+            throw new RuntimeException("HTTP Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("An error occurred while fetching stock details", e);
+        }
+    }
+
+    /**
+     * Fetches market data for a list of stock symbols without blocking the caller, so the caller can do other work
+     * while the market data service responds. No thread is held while waiting for the response, and cancelling the
+     * future cancels the request.
+     *
+     * @param symbols a list of stock symbols for which market data is to be retrieved.
+     * @return a future of the market data keyed by stock symbol, completed exceptionally if the fetch fails or
+     * times out.
+     */
+    @Override
+    public CompletableFuture<Map<String, StockMarketDataResponse>> fetchStocksMarketDataAsync(List<String> symbols) {
+
+        Optional<Map<String, StockMarketDataResponse>> localMarketData = findLocalStocksMarketData(symbols);
+        if (localMarketData.isPresent()) {
+            return CompletableFuture.completedFuture(localMarketData.get());
+        }
+
+        return requestStocksMarketData(symbols).toFuture();
+    }
+
+    private Optional<Map<String, StockMarketDataResponse>> findLocalStocksMarketData(List<String> symbols) {
+
+        if (symbols == null || symbols.isEmpty()) {
+            return Optional.empty();
+        }
+
         Map<String, StockMarketDataResponse> response = new LinkedHashMap<>();
+        Map<String, MarketDataSnapshotReader.Quote> localQuotes = snapshotReader.findQuotes(symbols)
+                .orElse(Collections.emptyMap());
+        for (MarketDataSnapshotReader.Quote quote : localQuotes.values()) {
+            response.put(quote.stockSymbol(), StockMarketDataResponse.builder()
+                    .stockSymbol(quote.stockSymbol())
+                    .latestPrice(quote.latestPrice())
+                    .dailyChangePct(quote.dailyChangePct())
+                    .dailyChangeInTL(quote.dailyChangeInTL())
+                    .tradingVolumeTL(quote.tradingVolumeTL())
+                    .tradeVolume(quote.tradeVolumeCount())
+                    .build());
+        }
+        return response.isEmpty() ? Optional.empty() : Optional.of(response);
+    }
+
+    private Mono<Map<String, StockMarketDataResponse>> requestStocksMarketData(List<String> symbols) {
+
+        String uri = UriComponentsBuilder.fromUriString("/market-data/api/v1/stocks")
+                .queryParam("symbols", symbols != null && !symbols.isEmpty() ? symbols.toArray(new String[0]) : null)
+                .build()
+                .toString();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<List<StockMarketDataResponse>>>() {})
+                .timeout(requestTimeout)
+                .map(serviceResponse -> {
+                    Map<String, StockMarketDataResponse> response = new LinkedHashMap<>();
+                    for (StockMarketDataResponse userStock : serviceResponse.getData()) {
+                        response.put(userStock.getStockSymbol(), userStock);
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Fetches the closing price of a stock on the given market day, or the latest price for the current
+     * day, from the retained price history of the market data service. The price for the current day is
+     * read from the local snapshot file when it is available.
+     *
+     * @param stockSymbol the stock symbol.
+     * @param date        the market day.
+     * @return the price, or an empty optional if the market data service has no price for the symbol and day.
+     * @throws RuntimeException if the market data service fails or an unexpected error occurs while fetching the price.
+     */
+    @Override
+    public Optional<BigDecimal> fetchStockPriceAsOf(String stockSymbol, LocalDate date) {
+
+        if (LocalDate.now(MARKET_ZONE).equals(date)) {
+            Optional<BigDecimal> localPrice = snapshotReader.findQuotes(List.of(stockSymbol))
+                    .map(quotes -> quotes.get(stockSymbol))
+                    .map(MarketDataSnapshotReader.Quote::latestPrice);
+            if (localPrice.isPresent()) {
+                return localPrice;
+            }
+        }
 
         try {
 
-            String uri = UriComponentsBuilder.fromUriString("/market-data/api/v1/stocks")
-                    .queryParam("symbols", symbols != null && !symbols.isEmpty() ? symbols.toArray(new String[0]) : null)
-                    .build()
-                    .toString();
+            String uri = UriComponentsBuilder.fromUriString("/market-data/api/v1/stocks/{symbol}/price")
+                    .queryParam("date", date)
+                    .buildAndExpand(stockSymbol)
+                    .toUriString();
 
-            ApiCustomResponse<List<StockMarketDataResponse>> serviceResponse = webClient.get()
+            ApiCustomResponse<Map<String, Object>> serviceResponse = webClient.get()
                     .uri(uri)
                     .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<List<StockMarketDataResponse>>>() {})
+                    .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<Map<String, Object>>>() {})
+                    .timeout(requestTimeout)
                     .block();
 
-            for (StockMarketDataResponse userStock : serviceResponse.getData()){
-                response.put(userStock.getStockSymbol(),userStock);
-            }
+            return Optional.ofNullable(serviceResponse)
+                    .map(ApiCustomResponse::getData)
+                    .map(pricePoint -> pricePoint.get("price"))
+                    .map(price -> new BigDecimal(price.toString()));
 
-            return response;
         } catch (WebClientResponseException e) {
-            throw new RuntimeException("HTTP Error: " + e.getStatusCode() + " - " + e.getResponseBodyAsString(), e);
+            // Only a symbol or day without a price means the price is not available. Other errors of the
+            // market data service must not be reported as such.
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                return Optional.empty();
+            }
+            throw new RuntimeException(String.format("HTTP error while fetching stock price... Status Code: '%s'. " +
+                    "Response Body: '%s'.", e.getStatusCode(), e.getResponseBodyAsString()), e);
         } catch (Exception e) {
-            throw new RuntimeException("An error occurred while fetching stock details", e);
+            throw new RuntimeException("An error occurred while fetching stock price.", e);
         }
     }
 
+    /**
+     * Reads the version of the market data snapshot from the local snapshot file.
+     *
+     * @return the snapshot version, or an empty optional if the local snapshot file is not available.
+     */
+    @Override
+    public OptionalLong findLocalSnapshotVersion() {
+        return snapshotReader.findSnapshotVersion();
+    }
 }
@@ -0,0 +1,135 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfoliotracker.portfolioservice.dto.request.ExportFormat;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioPositionResponse;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioTransactionResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPosition;
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.mapper.PortfolioTransactionMapper;
+import com.portfoliotracker.portfolioservice.repository.PortfolioPositionRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioTransactionRepository;
+import com.portfoliotracker.portfolioservice.service.PortfolioExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the transactions and positions of a user as NDJSON or CSV while they are read from the database.
+ *
+ * Rows are read through a JPA stream with a fetch size, and every entity is detached once written, so
+ * memory use does not depend on the number of rows. Rows reach the client as the response buffer fills.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioExportServiceImpl implements PortfolioExportService {
+
+    private static final String TRANSACTIONS_CSV_HEADER = "id,date,stockSymbol,quantity,price";
+    private static final String POSITIONS_CSV_HEADER = "stockSymbol,quantity,totalCost,averageCost";
+
+    private final PortfolioTransactionRepository portfolioTransactionRepository;
+    private final PortfolioPositionRepository portfolioPositionRepository;
+    private final PortfolioTransactionMapper portfolioTransactionMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private static final Logger logger = LogManager.getLogger(PortfolioExportServiceImpl.class);
+
+    /**
+     * Writes all transactions of a user in id order.
+     *
+     * @return the number of written transactions.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransactions(String userId, ExportFormat format, OutputStream outputStream) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(TRANSACTIONS_CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rowCount = 0;
+        try (Stream<PortfolioTransaction> transactions = portfolioTransactionRepository.streamByUserId(userId)) {
+            Iterator<PortfolioTransaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                PortfolioTransaction transaction = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writer.write(String.join(",",
+                            String.valueOf(transaction.getId()),
+                            transaction.getDate().toString(),
+                            transaction.getStockSymbol(),
+                            transaction.getQuantity().toString(),
+                            transaction.getPrice().toPlainString()));
+                } else {
+                    PortfolioTransactionResponse response = portfolioTransactionMapper.toResponseDto(transaction);
+                    writer.write(objectMapper.writeValueAsString(response));
+                }
+                writer.write('\n');
+                entityManager.detach(transaction);
+                rowCount++;
+            }
+        }
+
+        writer.flush();
+        logger.info("Exported {} transactions of user '{}' as {}.", rowCount, userId, format);
+        return rowCount;
+    }
+
+    /**
+     * Writes the open positions of a user in stock symbol order, with the average cost rounded to two decimals.
+     *
+     * @return the number of written positions.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPositions(String userId, ExportFormat format, OutputStream outputStream) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(POSITIONS_CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rowCount = 0;
+        try (Stream<PortfolioPosition> positions = portfolioPositionRepository.streamOpenPositionsByUserId(userId)) {
+            Iterator<PortfolioPosition> iterator = positions.iterator();
+            while (iterator.hasNext()) {
+                PortfolioPosition position = iterator.next();
+                BigDecimal averageCost = position.getTotalCost()
+                        .divide(BigDecimal.valueOf(position.getQuantity()), 2, RoundingMode.HALF_UP);
+                if (format == ExportFormat.CSV) {
+                    writer.write(String.join(",",
+                            position.getStockSymbol(),
+                            position.getQuantity().toString(),
+                            position.getTotalCost().toPlainString(),
+                            averageCost.toPlainString()));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(PortfolioPositionResponse.builder()
+                            .stockSymbol(position.getStockSymbol())
+                            .quantity(position.getQuantity())
+                            .totalCost(position.getTotalCost())
+                            .averageCost(averageCost)
+                            .build()));
+                }
+                writer.write('\n');
+                entityManager.detach(position);
+                rowCount++;
+            }
+        }
+
+        writer.flush();
+        return rowCount;
+    }
+}
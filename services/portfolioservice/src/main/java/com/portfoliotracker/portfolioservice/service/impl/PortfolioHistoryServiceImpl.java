@@ -0,0 +1,257 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioValueResponse;
+import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioHistoryPrice;
+import com.portfoliotracker.portfolioservice.event.PortfolioChangedEvent;
+import com.portfoliotracker.portfolioservice.exception.InvalidDateRangeException;
+import com.portfoliotracker.portfolioservice.mapper.PortfolioValueMapper;
+import com.portfoliotracker.portfolioservice.repository.PortfolioHistoryPendingUserRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioHistoryPriceRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioPositionRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioValueRepository;
+import com.portfoliotracker.portfolioservice.service.MarketDataService;
+import com.portfoliotracker.portfolioservice.service.PortfolioHistoryService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records the market value and invested amount of every active portfolio once a day.
+ *
+ * The nightly run only revalues the users whose transactions changed since the last run and the users holding
+ * a stock whose closing price changed. Their values are computed by the database, one set-based insert per chunk
+ * of users, with the chunks written in parallel. All other active users carry their previous value forward
+ * with a single insert, so a run does not read the history of a user or replay transactions.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioHistoryServiceImpl implements PortfolioHistoryService {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Istanbul");
+
+    private final PortfolioValueRepository portfolioValueRepository;
+    private final PortfolioHistoryPriceRepository portfolioHistoryPriceRepository;
+    private final PortfolioHistoryPendingUserRepository portfolioHistoryPendingUserRepository;
+    private final PortfolioPositionRepository portfolioPositionRepository;
+    private final MarketDataService marketDataService;
+    private final PortfolioValueMapper portfolioValueMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Off by default, as every instance with it set records the history. Set it on exactly one instance.
+    @Value("${PORTFOLIO_HISTORY_ENABLED:false}")
+    private boolean isHistoryEnabled;
+
+    @Value("${PORTFOLIO_HISTORY_CHUNK_SIZE:1000}")
+    private int chunkSize;
+
+    @Value("${PORTFOLIO_HISTORY_THREADS:4}")
+    private int threadCount;
+
+    @Value("${PORTFOLIO_HISTORY_DEFAULT_DAYS:365}")
+    private int defaultDays;
+
+    private static final Logger logger = LogManager.getLogger(PortfolioHistoryServiceImpl.class);
+
+    /**
+     * Appends the values of the active portfolios for the current market day. Running it again on the same day
+     * replaces the values of the users revalued by the run.
+     */
+    @Override
+    @Scheduled(cron = "${PORTFOLIO_HISTORY_CRON:0 30 23 * * *}", zone = "Europe/Istanbul")
+    public synchronized void recordPortfolioValues() {
+
+        if (!isHistoryEnabled) {
+            return;
+        }
+
+        LocalDate date = LocalDate.now(MARKET_ZONE);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        try {
+
+            long startedNanos = System.nanoTime();
+            LocalDate previousDate = portfolioValueRepository.findPreviousDate(date).orElse(null);
+
+            List<String> stockSymbols = portfolioPositionRepository.findHeldStockSymbols();
+            Map<String, StockMarketDataResponse> marketData = stockSymbols.isEmpty()
+                    ? Map.of()
+                    : marketDataService.fetchStocksMarketData(stockSymbols);
+            Set<String> changedSymbols = transactionTemplate.execute(status -> updatePrices(marketData, date));
+
+            Set<String> userIds = new LinkedHashSet<>(portfolioHistoryPendingUserRepository.findUserIdsMarkedUntil(startedAt));
+            if (!changedSymbols.isEmpty()) {
+                userIds.addAll(portfolioPositionRepository.findUserIdsHoldingAny(changedSymbols));
+            }
+
+            int revaluedCount = recordValues(List.copyOf(userIds), date, previousDate, startedAt);
+            int carriedCount = previousDate == null
+                    ? 0
+                    : transactionTemplate.execute(status -> portfolioValueRepository.carryValuesForward(date, previousDate));
+
+            logger.info("Recorded portfolio values for {}: {} revalued, {} carried forward, {} changed prices, in {} ms.",
+                    date, revaluedCount, carriedCount, changedSymbols.size(), (System.nanoTime() - startedNanos) / 1_000_000);
+
+        } catch (Exception e) {
+            logger.error("Portfolio values could not be recorded for {}: {}", date, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores the closing prices and moves the change date of the prices that changed.
+     *
+     * @return the symbols whose price changed on the date, also by an earlier run of the same day.
+     */
+    private Set<String> updatePrices(Map<String, StockMarketDataResponse> marketData, LocalDate date) {
+
+        Map<String, PortfolioHistoryPrice> prices = portfolioHistoryPriceRepository.findAll().stream()
+                .collect(Collectors.toMap(PortfolioHistoryPrice::getStockSymbol, Function.identity()));
+
+        List<PortfolioHistoryPrice> newPrices = new ArrayList<>();
+        for (StockMarketDataResponse stockMarketData : marketData.values()) {
+            if (stockMarketData.getLatestPrice() == null) {
+                continue;
+            }
+
+            BigDecimal closingPrice = stockMarketData.getLatestPrice().setScale(2, RoundingMode.HALF_UP);
+            PortfolioHistoryPrice price = prices.get(stockMarketData.getStockSymbol());
+            if (price == null) {
+                price = new PortfolioHistoryPrice(stockMarketData.getStockSymbol(), closingPrice, date);
+                prices.put(price.getStockSymbol(), price);
+                newPrices.add(price);
+            } else if (price.getPrice().compareTo(closingPrice) != 0) {
+                price.setPrice(closingPrice);
+                price.setChangedOn(date);
+            }
+        }
+        portfolioHistoryPriceRepository.saveAll(newPrices);
+
+        return prices.values().stream()
+                .filter(price -> date.equals(price.getChangedOn()))
+                .map(PortfolioHistoryPrice::getStockSymbol)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Revalues the users in chunks, each in its own database transaction on a pool of {@link #threadCount} threads.
+     * A failed chunk keeps the marks of its users, so they are revalued by the next run.
+     *
+     * @return the number of values written.
+     */
+    private int recordValues(List<String> userIds, LocalDate date, LocalDate previousDate, LocalDateTime startedAt) {
+
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-history-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+
+            List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                List<String> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> recordChunk(chunk, date, previousDate, startedAt)),
+                        executor));
+            }
+
+            int valueCount = 0;
+            int failedChunkCount = 0;
+            for (CompletableFuture<Integer> chunk : chunks) {
+                try {
+                    valueCount += chunk.join();
+                } catch (Exception e) {
+                    failedChunkCount++;
+                    logger.warn("Chunk of portfolio values could not be recorded for {}: {}", date, e.getMessage());
+                }
+            }
+            if (failedChunkCount > 0) {
+                logger.warn("{} of {} chunks of portfolio values could not be recorded for {}.",
+                        failedChunkCount, chunks.size(), date);
+            }
+            return valueCount;
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int recordChunk(List<String> userIds, LocalDate date, LocalDate previousDate, LocalDateTime startedAt) {
+
+        portfolioValueRepository.deleteValues(userIds, date);
+        int valueCount = portfolioValueRepository.insertValues(userIds, date);
+        if (previousDate != null) {
+            valueCount += portfolioValueRepository.insertClosedValues(userIds, date, previousDate);
+        }
+        portfolioHistoryPendingUserRepository.deleteMarks(userIds, startedAt);
+        return valueCount;
+    }
+
+    /**
+     * Retrieves the recorded values of the portfolio of a user, oldest first.
+     *
+     * @param userId the ID of the user.
+     * @param from   the first day, or {@code null} for {@link #defaultDays} days before the last day.
+     * @param to     the last day, or {@code null} for the current market day.
+     * @return the values recorded between the days, both included. Days before the first run are left out.
+     * @throws InvalidDateRangeException if the first day is after the last day.
+     */
+    @Override
+    public List<PortfolioValueResponse> getUserPortfolioHistory(String userId, LocalDate from, LocalDate to) {
+
+        LocalDate lastDay = to != null ? to : LocalDate.now(MARKET_ZONE);
+        LocalDate firstDay = from != null ? from : lastDay.minusDays(defaultDays);
+        if (firstDay.isAfter(lastDay)) {
+            throw new InvalidDateRangeException(firstDay, lastDay);
+        }
+
+        return portfolioValueRepository.findByUserIdAndDateBetweenOrderByDate(userId, firstDay, lastDay)
+                .stream()
+                .map(portfolioValueMapper::toResponseDto)
+                .toList();
+    }
+
+    /**
+     * Marks the changed user for the next run in the same database transaction as the change,
+     * or all users if the positions were rebuilt.
+     */
+    @Transactional
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+
+        LocalDateTime markedAt = LocalDateTime.now();
+        if (event.userId() == null) {
+            portfolioHistoryPendingUserRepository.moveAllMarks(markedAt);
+            portfolioHistoryPendingUserRepository.markUnmarkedUsers(markedAt);
+            return;
+        }
+
+        portfolioHistoryPendingUserRepository.markUser(event.userId(), markedAt);
+    }
+}
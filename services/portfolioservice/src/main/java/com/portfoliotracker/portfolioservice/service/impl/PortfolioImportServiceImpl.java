@@ -0,0 +1,187 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.portfoliotracker.portfolioservice.dto.request.PortfolioTransactionRequest;
+import com.portfoliotracker.portfolioservice.dto.response.TransactionImportResult;
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.exception.InvalidSymbolsException;
+import com.portfoliotracker.portfolioservice.mapper.PortfolioTransactionMapper;
+import com.portfoliotracker.portfolioservice.service.PortfolioImportService;
+import com.portfoliotracker.portfolioservice.service.PortfolioPositionService;
+import com.portfoliotracker.portfolioservice.service.SymbolRegistryService;
+import com.portfoliotracker.portfolioservice.util.TransactionImportReader;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class PortfolioImportServiceImpl implements PortfolioImportService {
+
+    private final SymbolRegistryService symbolRegistryService;
+    private final PortfolioPositionService portfolioPositionService;
+    private final PortfolioTransactionMapper portfolioTransactionMapper;
+
+    @Value("${PORTFOLIO_IMPORT_CHUNK_SIZE:500}")
+    private int chunkSize;
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Istanbul");
+
+    private static final Logger logger = LogManager.getLogger(PortfolioImportServiceImpl.class);
+
+    /**
+     * Imports the transactions of a file for a user.
+     *
+     * Rows are validated against the local symbol registry and saved in chunks, each in its own database
+     * transaction together with the position updates, so a failing chunk does not roll back the chunks
+     * before it. The rows of a failing chunk are then saved one by one, so only the failing rows are lost.
+     * Results are passed to the consumer in row order once the chunk of the row is saved, so at most one chunk
+     * of rows is held in memory. Unlike single transactions, imported rows must have a price.
+     *
+     * @param userId         the ID of the user.
+     * @param reader         the rows of the import file.
+     * @param resultConsumer receives the result of every row.
+     * @return the number of imported transactions.
+     */
+    @Override
+    public long importTransactions(String userId, TransactionImportReader reader, Consumer<TransactionImportResult> resultConsumer) {
+
+        List<TransactionImportResult> chunkResults = new ArrayList<>(chunkSize);
+        List<PortfolioTransaction> chunkTransactions = new ArrayList<>(chunkSize);
+        List<TransactionImportResult> chunkTransactionResults = new ArrayList<>(chunkSize);
+        long rowCount = 0;
+        long importedCount = 0;
+
+        try {
+            TransactionImportReader.Row row;
+            while ((row = reader.next()) != null) {
+
+                rowCount++;
+                String stockSymbol = row.request() != null ? row.request().getStockSymbol() : null;
+                String error = row.error() != null ? row.error() : validate(row.request());
+                TransactionImportResult result = TransactionImportResult.builder()
+                        .row(row.number())
+                        .imported(false)
+                        .stockSymbol(stockSymbol)
+                        .message(error)
+                        .build();
+                chunkResults.add(result);
+
+                if (error == null) {
+                    chunkTransactions.add(portfolioTransactionMapper.toEntity(userId, row.request()));
+                    chunkTransactionResults.add(result);
+                }
+
+                if (chunkResults.size() >= chunkSize) {
+                    importedCount += saveChunk(chunkTransactions, chunkTransactionResults);
+                    chunkResults.forEach(resultConsumer);
+                    chunkResults.clear();
+                }
+            }
+        } catch (IOException e) {
+            chunkResults.add(TransactionImportResult.builder()
+                    .row(rowCount + 1)
+                    .imported(false)
+                    .message(String.format("Import stopped, the file could not be read: %s", e.getMessage()))
+                    .build());
+        }
+
+        importedCount += saveChunk(chunkTransactions, chunkTransactionResults);
+        chunkResults.forEach(resultConsumer);
+
+        logger.info("Imported {} of {} transaction rows for user '{}'.", importedCount, rowCount, userId);
+        return importedCount;
+    }
+
+    private int saveChunk(List<PortfolioTransaction> transactions, List<TransactionImportResult> results) {
+
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        int savedCount = 0;
+        try {
+            List<PortfolioTransaction> savedTransactions = portfolioPositionService.saveTransactions(transactions);
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).setImported(true);
+                results.get(i).setTransactionId(savedTransactions.get(i).getId());
+                results.get(i).setMessage("Transaction imported.");
+            }
+            savedCount = savedTransactions.size();
+        } catch (RuntimeException e) {
+            logger.warn("Chunk of {} imported transactions could not be saved, saving them one by one: {}",
+                    transactions.size(), e.getMessage());
+            savedCount = saveEach(transactions, results);
+        }
+
+        transactions.clear();
+        results.clear();
+        return savedCount;
+    }
+
+    /**
+     * Saves the transactions of a failed chunk one by one, each in its own database transaction, so only the rows
+     * that fail themselves, such as a sale exceeding the quantity held, are reported as failed.
+     */
+    private int saveEach(List<PortfolioTransaction> transactions, List<TransactionImportResult> results) {
+
+        int savedCount = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            PortfolioTransaction transaction = transactions.get(i);
+            TransactionImportResult result = results.get(i);
+            // The rolled back chunk has already assigned an ID.
+            transaction.setId(0);
+            try {
+                PortfolioTransaction savedTransaction = portfolioPositionService.saveTransaction(transaction);
+                result.setImported(true);
+                result.setTransactionId(savedTransaction.getId());
+                result.setMessage("Transaction imported.");
+                savedCount++;
+            } catch (RuntimeException e) {
+                result.setMessage(String.format("Transaction could not be saved: %s", e.getMessage()));
+            }
+        }
+        return savedCount;
+    }
+
+    private String validate(PortfolioTransactionRequest request) {
+
+        if (request.getDate() == null) {
+            return "Date cannot be null";
+        }
+        if (request.getDate().isAfter(LocalDate.now(MARKET_ZONE))) {
+            return "Date must not be in the future";
+        }
+        if (request.getStockSymbol() == null || request.getStockSymbol().isBlank()) {
+            return "stockSymbol cannot be null";
+        }
+        if (request.getQuantity() == null || request.getQuantity() == 0) {
+            return "Quantity must not be 0";
+        }
+        if (request.getPrice() == null) {
+            return "Price is required for imported transactions";
+        }
+        if (request.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "Price must be zero or positive";
+        }
+
+        try {
+            if (!symbolRegistryService.isKnownSymbol(request.getStockSymbol())) {
+                return new InvalidSymbolsException(request.getStockSymbol()).getMessage();
+            }
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.portfoliotracker.portfolioservice.common.CostBasisMethod;
+import com.portfoliotracker.portfolioservice.entity.PortfolioLot;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPosition;
+import com.portfoliotracker.portfolioservice.entity.PortfolioRealizedGain;
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.repository.PortfolioLotRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioRealizedGainRepository;
+import com.portfoliotracker.portfolioservice.service.PortfolioLotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Matches sales against the open lots of a position.
+ *
+ * A sale reads and locks only as many open lots as it needs, oldest or newest first, reduces the last of
+ * them and removes the others. The history of the position is never replayed. Both methods return the change
+ * of the position and are called by the position service within its database transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortfolioLotServiceImpl implements PortfolioLotService {
+
+    private static final int LOT_BATCH_SIZE = 32;
+
+    private final PortfolioLotRepository portfolioLotRepository;
+    private final PortfolioRealizedGainRepository portfolioRealizedGainRepository;
+
+    @Value("${PORTFOLIO_COST_BASIS_METHOD:FIFO}")
+    private CostBasisMethod costBasisMethod;
+
+    /**
+     * Opens a lot for a purchase.
+     *
+     * @param purchase the saved purchase transaction.
+     * @return the change of the position.
+     */
+    @Override
+    public PortfolioPosition openLot(PortfolioTransaction purchase) {
+
+        portfolioLotRepository.save(new PortfolioLot(purchase));
+        BigDecimal cost = purchase.getPrice().multiply(BigDecimal.valueOf(purchase.getQuantity()));
+        return new PortfolioPosition(purchase.getUserId(), purchase.getStockSymbol(), purchase.getQuantity(), cost,
+                BigDecimal.ZERO);
+    }
+
+    /**
+     * Matches a sale against the open lots of the position and records its realized gain.
+     *
+     * @param sale         the saved sale transaction.
+     * @param quantity     the quantity sold, at most the open quantity.
+     * @param openQuantity the quantity of the position before the sale.
+     * @param openCost     the total cost of the position before the sale.
+     * @return the change of the position.
+     * @throws IllegalStateException if the open lots do not cover the sold quantity.
+     */
+    @Override
+    public PortfolioPosition closeLots(PortfolioTransaction sale, long quantity, long openQuantity, BigDecimal openCost) {
+
+        long remainingQuantity = quantity;
+        BigDecimal lotCost = BigDecimal.ZERO;
+
+        while (remainingQuantity > 0) {
+            List<PortfolioLot> lots = costBasisMethod == CostBasisMethod.LIFO
+                    ? portfolioLotRepository.findByUserIdAndStockSymbolOrderByDateDescTransactionIdDesc(
+                            sale.getUserId(), sale.getStockSymbol(), Limit.of(LOT_BATCH_SIZE))
+                    : portfolioLotRepository.findByUserIdAndStockSymbolOrderByDateAscTransactionIdAsc(
+                            sale.getUserId(), sale.getStockSymbol(), Limit.of(LOT_BATCH_SIZE));
+            if (lots.isEmpty()) {
+                throw new IllegalStateException(String.format(
+                        "Open lots of '%s' for user '%s' do not cover the sold quantity.", sale.getStockSymbol(), sale.getUserId()));
+            }
+
+            for (PortfolioLot lot : lots) {
+                long matchedQuantity = Math.min(remainingQuantity, lot.getQuantity());
+                lotCost = lotCost.add(lot.getPrice().multiply(BigDecimal.valueOf(matchedQuantity)));
+                remainingQuantity -= matchedQuantity;
+
+                if (matchedQuantity == lot.getQuantity()) {
+                    portfolioLotRepository.delete(lot);
+                } else {
+                    lot.setQuantity(lot.getQuantity() - matchedQuantity);
+                }
+                if (remainingQuantity == 0) {
+                    break;
+                }
+            }
+        }
+
+        BigDecimal costBasis = costBasisMethod == CostBasisMethod.AVERAGE
+                ? openCost.multiply(BigDecimal.valueOf(quantity)).divide(BigDecimal.valueOf(openQuantity), 2, RoundingMode.HALF_UP)
+                : lotCost;
+        BigDecimal proceeds = sale.getPrice().multiply(BigDecimal.valueOf(quantity));
+        PortfolioRealizedGain realizedGain = portfolioRealizedGainRepository.save(
+                new PortfolioRealizedGain(sale, quantity, proceeds, costBasis));
+
+        return new PortfolioPosition(sale.getUserId(), sale.getStockSymbol(), -quantity, costBasis.negate(),
+                realizedGain.getGain());
+    }
+
+    /**
+     * @param purchase the purchase to remove the lot of.
+     * @return {@code true} if the lot was removed, {@code false} if some of it has been sold.
+     */
+    @Override
+    public boolean deleteOpenLot(PortfolioTransaction purchase) {
+        return portfolioLotRepository.deleteOpenLot(purchase.getId(), purchase.getQuantity()) == 1;
+    }
+
+    /**
+     * Removes the lots and realized gains of a position.
+     */
+    @Override
+    public void deleteLots(String userId, String stockSymbol) {
+        portfolioLotRepository.deleteLots(userId, stockSymbol);
+        portfolioRealizedGainRepository.deleteRealizedGains(userId, stockSymbol);
+    }
+
+    @Override
+    public void deleteAllLots() {
+        portfolioLotRepository.deleteAllLots();
+        portfolioRealizedGainRepository.deleteAllRealizedGains();
+    }
+
+    @Override
+    public CostBasisMethod getCostBasisMethod() {
+        return costBasisMethod;
+    }
+}
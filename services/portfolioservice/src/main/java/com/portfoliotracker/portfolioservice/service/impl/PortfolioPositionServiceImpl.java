@@ -0,0 +1,335 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.portfoliotracker.portfolioservice.common.CostBasisMethod;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPosition;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPositionId;
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.event.PortfolioChangedEvent;
+import com.portfoliotracker.portfolioservice.exception.InsufficientQuantityException;
+import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
+import com.portfoliotracker.portfolioservice.repository.PortfolioPositionRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioTransactionRepository;
+import com.portfoliotracker.portfolioservice.service.PortfolioLotService;
+import com.portfoliotracker.portfolioservice.service.PortfolioPositionService;
+import com.portfoliotracker.portfolioservice.util.FixedPoint;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PortfolioPositionServiceImpl implements PortfolioPositionService {
+
+    private final PortfolioTransactionRepository portfolioTransactionRepository;
+    private final PortfolioPositionRepository portfolioPositionRepository;
+    private final PortfolioLotService portfolioLotService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final EntityManager entityManager;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    @Value("${PORTFOLIO_POSITIONS_REBUILD:false}")
+    private boolean isRebuildRequested;
+
+    private static final Logger logger = LogManager.getLogger(PortfolioPositionServiceImpl.class);
+
+    /**
+     * Saves a transaction and applies it to the position of the user for the stock in the same database transaction.
+     * A purchase opens a lot. A sale is matched against the open lots and records its realized gain.
+     *
+     * @param portfolioTransaction the transaction to save. Sales have a negative quantity.
+     * @return the saved transaction.
+     * @throws InsufficientQuantityException if a sale exceeds the quantity held.
+     */
+    @Transactional
+    @Override
+    public PortfolioTransaction saveTransaction(PortfolioTransaction portfolioTransaction) {
+
+        PortfolioTransaction savedTransaction = portfolioTransactionRepository.save(portfolioTransaction);
+
+        PortfolioPosition position = isSale(savedTransaction)
+                ? findLockedPosition(savedTransaction.getUserId(), savedTransaction.getStockSymbol())
+                : emptyPosition(savedTransaction.getUserId(), savedTransaction.getStockSymbol());
+        addToPosition(applyTransaction(savedTransaction, position.getQuantity(), position.getTotalCost(), true));
+
+        applicationEventPublisher.publishEvent(new PortfolioChangedEvent(savedTransaction.getUserId()));
+        return savedTransaction;
+    }
+
+    /**
+     * Saves transactions and applies them to the positions in the same database transaction. Inserts are sent
+     * in JDBC batches, the transactions are applied in the given order, and every position is updated once
+     * for all of its transactions.
+     *
+     * @param portfolioTransactions the transactions to save.
+     * @return the saved transactions, in the given order.
+     * @throws InsufficientQuantityException if a sale exceeds the quantity held at that point of the list.
+     */
+    @Transactional
+    @Override
+    public List<PortfolioTransaction> saveTransactions(List<PortfolioTransaction> portfolioTransactions) {
+
+        List<PortfolioTransaction> savedTransactions = portfolioTransactionRepository.saveAll(portfolioTransactions);
+
+        Map<PortfolioPositionId, PortfolioPosition> positionChanges = new LinkedHashMap<>();
+        Map<PortfolioPositionId, PortfolioPosition> lockedPositions = new HashMap<>();
+        for (PortfolioTransaction transaction : savedTransactions) {
+            PortfolioPositionId positionId = new PortfolioPositionId(transaction.getUserId(), transaction.getStockSymbol());
+            PortfolioPosition positionChange = positionChanges.computeIfAbsent(positionId,
+                    id -> emptyPosition(id.getUserId(), id.getStockSymbol()));
+
+            long openQuantity = positionChange.getQuantity();
+            BigDecimal openCost = positionChange.getTotalCost();
+            if (isSale(transaction)) {
+                PortfolioPosition position = lockedPositions.computeIfAbsent(positionId,
+                        id -> findLockedPosition(id.getUserId(), id.getStockSymbol()));
+                openQuantity += position.getQuantity();
+                openCost = openCost.add(position.getTotalCost());
+            }
+
+            add(positionChange, applyTransaction(transaction, openQuantity, openCost, true));
+        }
+
+        positionChanges.values().forEach(this::addToPosition);
+
+        positionChanges.keySet().stream()
+                .map(PortfolioPositionId::getUserId)
+                .distinct()
+                .forEach(userId -> applicationEventPublisher.publishEvent(new PortfolioChangedEvent(userId)));
+        return savedTransactions;
+    }
+
+    /**
+     * Deletes a transaction and removes it from the position of the user for the stock in the same database
+     * transaction. With FIFO or LIFO cost basis, a purchase without a later sale only removes its lot. Otherwise
+     * the position is replayed from its remaining transactions, which fails if a sale is no longer covered by the purchases
+     * before it. The position is removed once nothing is held and nothing was realized.
+     *
+     * @param portfolioTransaction the transaction to delete.
+     * @throws InsufficientQuantityException if the remaining sales exceed the quantity held.
+     */
+    @Transactional
+    @Override
+    public void deleteTransaction(PortfolioTransaction portfolioTransaction) {
+
+        String userId = portfolioTransaction.getUserId();
+        String stockSymbol = portfolioTransaction.getStockSymbol();
+        portfolioTransactionRepository.deleteByUserIdAndId(userId, portfolioTransaction.getId());
+
+        if (isOnlyLotRemoved(portfolioTransaction) && portfolioLotService.deleteOpenLot(portfolioTransaction)) {
+            BigDecimal cost = portfolioTransaction.getPrice().multiply(BigDecimal.valueOf(portfolioTransaction.getQuantity()));
+            portfolioPositionRepository.addToPosition(userId, stockSymbol, -portfolioTransaction.getQuantity(),
+                    cost.negate(), BigDecimal.ZERO);
+            portfolioPositionRepository.deleteClosedPosition(userId, stockSymbol);
+        } else {
+            portfolioLotService.deleteLots(userId, stockSymbol);
+            portfolioPositionRepository.deletePosition(userId, stockSymbol);
+            replayPosition(userId, stockSymbol, true);
+        }
+
+        applicationEventPublisher.publishEvent(new PortfolioChangedEvent(userId));
+    }
+
+    /**
+     * Deletes all transactions of a user for a stock together with the position, its lots and realized gains.
+     */
+    @Transactional
+    @Override
+    public void deleteTransactionsByStockSymbol(String userId, String stockSymbol) {
+
+        portfolioTransactionRepository.deleteByUserIdAndStockSymbol(userId, stockSymbol);
+        portfolioLotService.deleteLots(userId, stockSymbol);
+        portfolioPositionRepository.deletePosition(userId, stockSymbol);
+        applicationEventPublisher.publishEvent(new PortfolioChangedEvent(userId));
+    }
+
+    /**
+     * @param userId the ID of the user.
+     * @return the positions of the user with the average cost rounded to two decimals. Closed positions are kept
+     * for their realized gain and have a quantity of 0.
+     */
+    @Override
+    public List<PortfolioStock> getUserPositions(String userId) {
+
+        return portfolioPositionRepository.findByUserId(userId)
+                .stream()
+                .map(this::toPortfolioStock)
+                .toList();
+    }
+
+    /**
+     * Reads the positions of many users with one query.
+     *
+     * @param userIds the IDs of the users.
+     * @return the positions keyed by user ID, including closed positions as in {@link #getUserPositions}.
+     * Users without positions are left out.
+     */
+    @Override
+    public Map<String, List<PortfolioStock>> getUsersPositions(Collection<String> userIds) {
+
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return portfolioPositionRepository.findByUserIdIn(userIds)
+                .stream()
+                .collect(Collectors.groupingBy(PortfolioPosition::getUserId,
+                        Collectors.mapping(this::toPortfolioStock, Collectors.toList())));
+    }
+
+    private PortfolioStock toPortfolioStock(PortfolioPosition position) {
+        long totalCost = FixedPoint.fromDecimal(position.getTotalCost());
+        return new PortfolioStock(
+                position.getStockSymbol(),
+                position.getQuantity(),
+                totalCost,
+                position.getQuantity() == 0 ? 0 : FixedPoint.round(FixedPoint.divide(totalCost, position.getQuantity()), 2),
+                FixedPoint.fromDecimal(position.getRealizedGain()));
+    }
+
+    /**
+     * Recomputes all positions, lots and realized gains from the transactions. Used to repair positions and to fill
+     * the tables the first time the service starts with existing transactions. Sales exceeding the quantity held,
+     * which can only come from data written before sales were checked, are reduced to the quantity held.
+     *
+     * @return the number of positions written.
+     */
+    @Transactional
+    @Override
+    public int rebuildPositions() {
+
+        portfolioPositionRepository.deleteAllPositions();
+        portfolioLotService.deleteAllLots();
+
+        int positionCount = 0;
+        List<PortfolioPositionId> positionIds = portfolioTransactionRepository.findPositionIds();
+        for (int i = 0; i < positionIds.size(); i++) {
+            if (replayPosition(positionIds.get(i).getUserId(), positionIds.get(i).getStockSymbol(), false)) {
+                positionCount++;
+            }
+            if ((i + 1) % REBUILD_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        applicationEventPublisher.publishEvent(new PortfolioChangedEvent(null));
+        logger.info("Rebuilt {} portfolio positions from transactions.", positionCount);
+        return positionCount;
+    }
+
+    /**
+     * Applies the transactions of a position in the order they were recorded, so the lots are matched as they were
+     * when the transactions were saved. The position, its lots and realized gains must not exist.
+     *
+     * @param isStrict whether a sale exceeding the quantity held fails, or is reduced to the quantity held.
+     * @return {@code true} if a position was written.
+     */
+    private boolean replayPosition(String userId, String stockSymbol, boolean isStrict) {
+
+        PortfolioPosition position = emptyPosition(userId, stockSymbol);
+        for (PortfolioTransaction transaction : portfolioTransactionRepository.findByUserIdAndStockSymbolOrderById(userId, stockSymbol)) {
+            add(position, applyTransaction(transaction, position.getQuantity(), position.getTotalCost(), isStrict));
+        }
+
+        if (position.getQuantity() == 0 && position.getRealizedGain().signum() == 0) {
+            return false;
+        }
+        portfolioPositionRepository.save(position);
+        return true;
+    }
+
+    /**
+     * @return the change of the position.
+     */
+    private PortfolioPosition applyTransaction(PortfolioTransaction transaction, long openQuantity, BigDecimal openCost,
+                                               boolean isStrict) {
+
+        if (!isSale(transaction)) {
+            return portfolioLotService.openLot(transaction);
+        }
+
+        long soldQuantity = -transaction.getQuantity();
+        if (soldQuantity > openQuantity) {
+            if (isStrict) {
+                throw new InsufficientQuantityException(transaction.getStockSymbol(), soldQuantity, openQuantity);
+            }
+            logger.warn("Sale {} of {} '{}' exceeds the {} held by user '{}', only the quantity held is sold.",
+                    transaction.getId(), soldQuantity, transaction.getStockSymbol(), openQuantity, transaction.getUserId());
+            soldQuantity = openQuantity;
+        }
+        if (soldQuantity == 0) {
+            return emptyPosition(transaction.getUserId(), transaction.getStockSymbol());
+        }
+
+        return portfolioLotService.closeLots(transaction, soldQuantity, openQuantity, openCost);
+    }
+
+    /**
+     * A later sale may have been matched against the lot of the purchase, and with average cost basis every later
+     * sale was booked at an average that included it, so the position can only be corrected by a replay.
+     *
+     * @return {@code true} if deleting the transaction only removes its lot from the position.
+     */
+    private boolean isOnlyLotRemoved(PortfolioTransaction transaction) {
+        return !isSale(transaction)
+                && portfolioLotService.getCostBasisMethod() != CostBasisMethod.AVERAGE
+                && !portfolioTransactionRepository.existsByUserIdAndStockSymbolAndIdGreaterThanAndQuantityLessThan(
+                        transaction.getUserId(), transaction.getStockSymbol(), transaction.getId(), 0L);
+    }
+
+    private void addToPosition(PortfolioPosition change) {
+
+        portfolioPositionRepository.upsertPosition(change.getUserId(), change.getStockSymbol(),
+                change.getQuantity(), change.getTotalCost(), change.getRealizedGain());
+    }
+
+    private PortfolioPosition findLockedPosition(String userId, String stockSymbol) {
+        return portfolioPositionRepository.findWithLockByUserIdAndStockSymbol(userId, stockSymbol)
+                .orElseGet(() -> emptyPosition(userId, stockSymbol));
+    }
+
+    private static boolean isSale(PortfolioTransaction transaction) {
+        return transaction.getQuantity() < 0;
+    }
+
+    private static PortfolioPosition emptyPosition(String userId, String stockSymbol) {
+        return new PortfolioPosition(userId, stockSymbol, 0L, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private static void add(PortfolioPosition position, PortfolioPosition change) {
+        position.setQuantity(position.getQuantity() + change.getQuantity());
+        position.setTotalCost(position.getTotalCost().add(change.getTotalCost()));
+        position.setRealizedGain(position.getRealizedGain().add(change.getRealizedGain()));
+    }
+
+    /**
+     * Rebuilds the positions at startup when PORTFOLIO_POSITIONS_REBUILD is set, or when there are
+     * transactions but no positions yet. Transactional itself, as the call to rebuildPositions does not
+     * go through the proxy.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildPositionsIfRequired() {
+
+        boolean isBackfillRequired = portfolioPositionRepository.count() == 0 && portfolioTransactionRepository.count() > 0;
+        if (isRebuildRequested || isBackfillRequired) {
+            rebuildPositions();
+        }
+    }
+}
@@ -2,27 +2,51 @@ package com.portfoliotracker.portfolioservice.service.impl;
 
 import com.portfoliotracker.portfolioservice.dto.request.PortfolioTransactionRequest;
 import com.portfoliotracker.portfolioservice.dto.response.PortfolioStockResponse;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioSummaryResponse;
 import com.portfoliotracker.portfolioservice.dto.response.PortfolioTransactionResponse;
+import com.portfoliotracker.portfolioservice.dto.response.RealizedGainResponse;
 import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.dto.response.TransactionWindowResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioRealizedGain;
 import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.exception.InvalidCursorException;
 import com.portfoliotracker.portfolioservice.exception.InvalidSymbolsException;
+import com.portfoliotracker.portfolioservice.exception.InvalidTransactionDateException;
+import com.portfoliotracker.portfolioservice.exception.PriceNotAvailableException;
 import com.portfoliotracker.portfolioservice.exception.ResourceNotFoundException;
 import com.portfoliotracker.portfolioservice.exception.ResourceNotDeletedException;
 import com.portfoliotracker.portfolioservice.exception.UnknownSortPropertyException;
+import com.portfoliotracker.portfolioservice.mapper.PortfolioRealizedGainMapper;
 import com.portfoliotracker.portfolioservice.mapper.PortfolioTransactionMapper;
 import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
+import com.portfoliotracker.portfolioservice.repository.PortfolioRealizedGainRepository;
 import com.portfoliotracker.portfolioservice.repository.PortfolioTransactionRepository;
 import com.portfoliotracker.portfolioservice.service.MarketDataService;
+import com.portfoliotracker.portfolioservice.service.PortfolioPositionService;
 import com.portfoliotracker.portfolioservice.service.PortfolioService;
+import com.portfoliotracker.portfolioservice.service.PortfolioValuationCacheService;
+import com.portfoliotracker.portfolioservice.service.SymbolRegistryService;
+import com.portfoliotracker.portfolioservice.util.FixedPoint;
+import com.portfoliotracker.portfolioservice.util.InMemoryQuery;
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator;
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator.Valuation;
+import com.portfoliotracker.portfolioservice.util.TransactionCursor;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,23 +56,77 @@ public class PortfolioServiceImpl implements PortfolioService {
     private final PortfolioTransactionRepository portfolioTransactionRepository;
     private final MarketDataService marketDataService;
     private final PortfolioTransactionMapper portfolioTransactionMapper;
+    private final PortfolioPositionService portfolioPositionService;
+    private final SymbolRegistryService symbolRegistryService;
+    private final PortfolioValuationCacheService portfolioValuationCacheService;
+    private final PortfolioRealizedGainRepository portfolioRealizedGainRepository;
+    private final PortfolioRealizedGainMapper portfolioRealizedGainMapper;
+
+    @Value("${PORTFOLIO_MARKET_DATA_TIMEOUT_MS:2000}")
+    private long marketDataTimeoutMillis;
+
+    @Value("${PORTFOLIO_PARTIAL_QUOTES_ENABLED:true}")
+    private boolean isPartialQuotesEnabled;
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Istanbul");
+
+    private static final Logger logger = LogManager.getLogger(PortfolioServiceImpl.class);
+
+    private static final InMemoryQuery<PortfolioStockResponse> PORTFOLIO_STOCK_QUERY = new InMemoryQuery<>(Map.of(
+            "stockSymbol", Comparator.comparing(PortfolioStockResponse::getStockSymbol),
+            "latestPrice", Comparator.comparingLong(PortfolioStockResponse::getLatestPrice),
+            "dailyChangePct", Comparator.comparingLong(PortfolioStockResponse::getDailyChangePct),
+            "averageCost", Comparator.comparingLong(PortfolioStockResponse::getAverageCost),
+            "profitLossPct", Comparator.comparingLong(PortfolioStockResponse::getProfitLossPct),
+            "profitLossInTL", Comparator.comparingLong(PortfolioStockResponse::getProfitLossInTL),
+            "realizedProfitLossInTL", Comparator.comparingLong(PortfolioStockResponse::getRealizedProfitLossInTL),
+            "quantity", Comparator.comparingLong(PortfolioStockResponse::getQuantity)
+    ), Map.of(
+            // Stocks without a quote sort last.
+            "latestPrice", stock -> stock.getLatestPrice() == FixedPoint.NONE,
+            "dailyChangePct", stock -> stock.getDailyChangePct() == FixedPoint.NONE,
+            "profitLossPct", stock -> stock.getProfitLossPct() == FixedPoint.NONE,
+            "profitLossInTL", stock -> stock.getProfitLossInTL() == FixedPoint.NONE
+    ));
 
     /**
      * Saves a portfolio transaction for a specific user.
      *
      * @param userId                      the ID of the user performing the transaction.
      * @param portfolioTransactionRequest the transaction details including stock symbol, quantity, etc.
+     * If the price is omitted, it is resolved from the market data service as the closing price of the
+     * stock on the transaction date. A resolved price also proves the symbol valid. Otherwise, the symbol
+     * is validated against the local symbol registry, without a call to the market data service.
+     *
      * @return a response DTO containing details of the saved transaction.
-     * @throws InvalidSymbolsException if the provided stock symbol is invalid.
+     * @throws InvalidTransactionDateException if the transaction date is after today in the market time zone.
+     * @throws InvalidSymbolsException          if the provided stock symbol is invalid.
+     * @throws PriceNotAvailableException       if the price is omitted and cannot be resolved for the date.
      */
     @Override
     public PortfolioTransactionResponse savePortfolioTransaction(String userId, PortfolioTransactionRequest portfolioTransactionRequest) {
 
+        LocalDate today = LocalDate.now(MARKET_ZONE);
+        if (portfolioTransactionRequest.getDate() != null && portfolioTransactionRequest.getDate().isAfter(today)) {
+            throw new InvalidTransactionDateException(portfolioTransactionRequest.getDate(), today);
+        }
+
         String stockSymbol = portfolioTransactionRequest.getStockSymbol();
-        boolean isStockSymbolValid = marketDataService.isValidStockSymbol(stockSymbol);
+        boolean isStockSymbolValid;
+        if (portfolioTransactionRequest.getPrice() == null) {
+            Optional<BigDecimal> price = marketDataService.fetchStockPriceAsOf(stockSymbol, portfolioTransactionRequest.getDate());
+            isStockSymbolValid = price.isPresent() || symbolRegistryService.isKnownSymbol(stockSymbol);
+            if (isStockSymbolValid && price.isEmpty()) {
+                throw new PriceNotAvailableException(stockSymbol, portfolioTransactionRequest.getDate());
+            }
+            price.ifPresent(portfolioTransactionRequest::setPrice);
+        } else {
+            isStockSymbolValid = symbolRegistryService.isKnownSymbol(stockSymbol);
+        }
+
         if (isStockSymbolValid) {
             PortfolioTransaction portfolioTransaction = portfolioTransactionMapper.toEntity(userId, portfolioTransactionRequest);
-            PortfolioTransaction savedTransaction  = portfolioTransactionRepository.save(portfolioTransaction);
+            PortfolioTransaction savedTransaction  = portfolioPositionService.saveTransaction(portfolioTransaction);
             return portfolioTransactionMapper.toResponseDto(savedTransaction);
         } else {
             throw new InvalidSymbolsException(stockSymbol);
@@ -101,6 +179,51 @@ public class PortfolioServiceImpl implements PortfolioService {
 
     }
 
+    /**
+     * Retrieves a window of portfolio transactions for a specific user, continuing after the last transaction
+     * of the previous window. The window is read with a keyset condition on the sort key and id instead of an
+     * offset, so every window costs the same regardless of how far the user has scrolled.
+     *
+     * @param userId       the ID of the user whose transactions are being fetched.
+     * @param cursor       the cursor returned with the previous window, or a blank value for the first window.
+     * @param size         the number of transactions per window.
+     * @param sortBy       the sort key, one of id, date, stockSymbol, quantity or price.
+     * @param descending   whether to sort in descending order.
+     * @param includeTotal whether to count all transactions of the user, which is a separate query.
+     * @return the window of transactions with the cursor of the next window.
+     * @throws ResourceNotFoundException     if the user has no transactions.
+     * @throws UnknownSortPropertyException if the sort key is not supported.
+     * @throws InvalidCursorException        if the cursor is malformed or was created for another sort.
+     */
+    @Override
+    public TransactionWindowResponse scrollPortfolioTransactionsByUserId(String userId, String cursor, int size, String sortBy,
+                                                                        boolean descending, boolean includeTotal) {
+
+        Sort sort = TransactionCursor.getSort(sortBy, descending);
+        KeysetScrollPosition position = TransactionCursor.decode(cursor, sortBy, descending);
+
+        Window<PortfolioTransaction> portfolioTransactions = portfolioTransactionRepository
+                .findByUserId(userId, position, sort, Limit.of(Math.max(size, 1)));
+
+        if (portfolioTransactions.isEmpty() && position.isInitial()) {
+            throw new ResourceNotFoundException("Transactions", "userId", userId);
+        }
+
+        String nextCursor = null;
+        if (portfolioTransactions.hasNext()) {
+            ScrollPosition lastPosition = portfolioTransactions.positionAt(portfolioTransactions.size() - 1);
+            nextCursor = TransactionCursor.encode(sortBy, descending, (KeysetScrollPosition) lastPosition);
+        }
+
+        return TransactionWindowResponse.builder()
+                .content(portfolioTransactions.stream().map(portfolioTransactionMapper::toResponseDto).toList())
+                .size(portfolioTransactions.size())
+                .hasNext(portfolioTransactions.hasNext())
+                .nextCursor(nextCursor)
+                .totalElements(includeTotal ? portfolioTransactionRepository.countByUserId(userId) : null)
+                .build();
+    }
+
     /**
      * Deletes a specific portfolio transaction for a user.
      *
@@ -113,11 +236,10 @@ public class PortfolioServiceImpl implements PortfolioService {
     @Override
     public void deletePortfolioTransaction(String userId, long transactionId) {
 
-        if (!portfolioTransactionRepository.existsByUserIdAndId(userId, transactionId)) {
-            throw new ResourceNotFoundException("Transaction", "userId/transactionId", userId + "/" + transactionId);
-        }
+        PortfolioTransaction portfolioTransaction = portfolioTransactionRepository.findByUserIdAndId(userId, transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction", "userId/transactionId", userId + "/" + transactionId));
 
-        portfolioTransactionRepository.deleteByUserIdAndId(userId, transactionId);
+        portfolioPositionService.deleteTransaction(portfolioTransaction);
         boolean existsAfterDelete = portfolioTransactionRepository.existsByUserIdAndId(userId, transactionId);
         if (existsAfterDelete){
             throw new ResourceNotDeletedException("Transaction", "userId/transactionId", userId + "/" + Long.toString(transactionId));
@@ -139,7 +261,7 @@ public class PortfolioServiceImpl implements PortfolioService {
         if (!portfolioTransactionRepository.existsByUserIdAndStockSymbol(userId, stockSymbol)) {
             throw new ResourceNotFoundException("Stock Symbol", "userId/stockSymbol", userId + "/" + stockSymbol );
         }
-        portfolioTransactionRepository.deleteByUserIdAndStockSymbol(userId, stockSymbol);
+        portfolioPositionService.deleteTransactionsByStockSymbol(userId, stockSymbol);
         boolean existsAfterDelete = portfolioTransactionRepository.existsByUserIdAndStockSymbol(userId, stockSymbol);
         if (existsAfterDelete){
             throw new ResourceNotDeletedException("Stock Symbol", "userId/stockSymbol", userId + "/" + stockSymbol);
@@ -148,137 +270,147 @@ public class PortfolioServiceImpl implements PortfolioService {
 
     /**
      * Retrieves a paginated list of portfolio stocks for a user, enriched with market data.
+     * The unsorted stocks are cached per user until the user's transactions or the market data snapshot
+     * change, so paging and sorting do not fetch the positions and the market data again. Only the stocks up to
+     * the end of the requested page are put in order, see {@link InMemoryQuery}.
+     * Stocks whose market data did not arrive in time are marked as missing a quote.
      *
      * @param userId the ID of the user.
      * @param page   the page number to retrieve (use -1 to retrieve all stocks without pagination).
      * @param size   the number of stocks per page.
      * @param sort   the sorting criteria for stocks.
      * @return a paginated list of portfolio stocks, including market data such as latest price and profit/loss.
-     * @throws ResourceNotFoundException if no stocks are found for the given user ID.
-     * @throws IllegalArgumentException  if stock data is missing for any symbol.
+     * @throws ResourceNotFoundException    if no stocks are found for the given user ID.
+     * @throws UnknownSortPropertyException if the stocks cannot be sorted by a property of the sort.
      */
     @Override
     public Page<PortfolioStockResponse> getUserPortfolioStocks(String userId, int page, int size, Sort sort) {
 
-        List<PortfolioStock> userPortfolioStocks =  portfolioTransactionRepository.getUserPortfolioStocks(userId);
-
-        if(userPortfolioStocks.isEmpty()){
-            throw new ResourceNotFoundException("Stocks","userId",userId);
+        List<PortfolioStockResponse> stocksWithMarketData = portfolioValuationCacheService
+                .getUserValuation(userId, this::getUserPortfolioValuation)
+                .stocks();
+        if (stocksWithMarketData.isEmpty()) {
+            throw new ResourceNotFoundException("Stocks", "userId", userId);
         }
 
-        Map<String, PortfolioStock> mappedUserPortfolioStocks = userPortfolioStocks.stream()
-                .collect(Collectors.toMap(
-                        PortfolioStock::getStockSymbol,
-                        Function.identity(),
-                        (existing, replacement) -> existing));
-
-        Map<String, StockMarketDataResponse> userStocksMarketData = marketDataService
-                .fetchStocksMarketData(new ArrayList<>(mappedUserPortfolioStocks.keySet()));
-
-        List<PortfolioStockResponse> stocksWithMarketData = new ArrayList<>();
-        for (Map.Entry<String, StockMarketDataResponse> stringStockMarketDataResponseEntry : userStocksMarketData.entrySet()) {
-            String symbol = stringStockMarketDataResponseEntry.getKey();
-            StockMarketDataResponse marketData = stringStockMarketDataResponseEntry.getValue();
-            PortfolioStock portfolioStock = mappedUserPortfolioStocks.get(symbol);
-
-            if (portfolioStock == null) {
-                throw new IllegalArgumentException("Stock data not found for symbol: " + symbol);
-            }
-
-            BigDecimal averageCost = BigDecimal.valueOf(portfolioStock.getAverageCost());
-            BigDecimal quantity = BigDecimal.valueOf(portfolioStock.getQuantity());
-            BigDecimal latestPrice = marketData.getLatestPrice();
-
-            BigDecimal profitLossPct = latestPrice
-                    .divide(averageCost, 4, RoundingMode.HALF_UP)
-                    .subtract(BigDecimal.ONE)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP);
-
-            BigDecimal profitLossInTL = latestPrice.subtract(averageCost).multiply(quantity);
-
-            PortfolioStockResponse portfolioStockResponseDto = PortfolioStockResponse.builder()
-                    .stockSymbol(symbol)
-                    .latestPrice(latestPrice)
-                    .dailyChangePct(marketData.getDailyChangePct())
-                    .dailyChangeInTL(marketData.getDailyChangeInTL())
-                    .averageCost(averageCost)
-                    .profitLossPct(profitLossPct)
-                    .profitLossInTL(profitLossInTL)
-                    .quantity(quantity)
-                    .build();
-            stocksWithMarketData.add(portfolioStockResponseDto);
-        }
+        return PORTFOLIO_STOCK_QUERY.getPage(stocksWithMarketData, page, size, sort);
+    }
 
-        stocksWithMarketData = sortPortfolioStockResponses(stocksWithMarketData, sort);
+    /**
+     * Retrieves the totals of the portfolio stocks of a user. The totals are computed together with the stocks
+     * and cached with them, so the summary and the stocks of a user are served from the same valuation.
+     * The realized profit or loss also covers the stocks the user has sold completely, so a user who has sold
+     * everything gets a summary without market value.
+     *
+     * @param userId the ID of the user.
+     * @return the totals of the portfolio stocks.
+     * @throws ResourceNotFoundException if the user has never held a stock.
+     */
+    @Override
+    public PortfolioSummaryResponse getUserPortfolioSummary(String userId) {
+        return portfolioValuationCacheService.getUserValuation(userId, this::getUserPortfolioValuation).summary();
+    }
 
-        if (page < 0) {
-            return new PageImpl<>(
-                    stocksWithMarketData,
-                    PageRequest.of(0, Math.max(stocksWithMarketData.size(), 1), sort),
-                    stocksWithMarketData.size()
-            );
-        }
+    /**
+     * Computes the portfolio stocks of a user and their totals from their positions and the latest market data.
+     *
+     * The market data of the symbols the user held at their last valuation is requested before the positions
+     * are read, so both run at the same time. Only symbols that were not known yet are requested after the read.
+     * All market data has to arrive within the timeout budget. Otherwise, the stocks without market data are
+     * marked as missing a quote, or the request fails if partial results are disabled.
+     *
+     * @param userId the ID of the user.
+     * @return the portfolio stocks in the order of the positions, and their totals.
+     * @throws ResourceNotFoundException if the user has no positions, open or closed.
+     * @throws RuntimeException          if market data is missing and partial results are disabled.
+     */
+    private Valuation getUserPortfolioValuation(String userId) {
 
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(marketDataTimeoutMillis);
 
-        int totalElements = stocksWithMarketData.size();
+        List<String> lastKnownSymbols = portfolioValuationCacheService.getLastKnownSymbols(userId);
+        CompletableFuture<Map<String, StockMarketDataResponse>> speculativeMarketData = lastKnownSymbols.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : marketDataService.fetchStocksMarketDataAsync(lastKnownSymbols);
 
-        int start = (int) pageRequest.getOffset();
-        int end = Math.min((start + pageRequest.getPageSize()), totalElements);
+        List<PortfolioStock> userPortfolioStocks =  portfolioPositionService.getUserPositions(userId);
 
-        if (start > totalElements) {
-            return new PageImpl<>(new ArrayList<>(), pageRequest, totalElements);
+        if(userPortfolioStocks.isEmpty()){
+            speculativeMarketData.cancel(true);
+            throw new ResourceNotFoundException("Stocks","userId",userId);
         }
 
-        List<PortfolioStockResponse> pageContent = stocksWithMarketData.subList(start, end);
-
-        return new PageImpl<>(pageContent, pageRequest, totalElements);
-
+        Set<String> knownSymbols = new HashSet<>(lastKnownSymbols);
+        List<String> newSymbols = userPortfolioStocks.stream()
+                .filter(portfolioStock -> portfolioStock.getQuantity() > 0)
+                .map(PortfolioStock::getStockSymbol)
+                .filter(symbol -> !knownSymbols.contains(symbol))
+                .distinct()
+                .toList();
+        CompletableFuture<Map<String, StockMarketDataResponse>> newMarketData = newSymbols.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : marketDataService.fetchStocksMarketDataAsync(newSymbols);
+
+        Map<String, StockMarketDataResponse> userStocksMarketData = new HashMap<>();
+        userStocksMarketData.putAll(awaitMarketData(userId, speculativeMarketData, deadline));
+        userStocksMarketData.putAll(awaitMarketData(userId, newMarketData, deadline));
+
+        return PortfolioValuationCalculator.value(userPortfolioStocks,
+                PortfolioValuationCalculator.toQuotes(userStocksMarketData));
     }
 
     /**
-     * Helper method to sort a list of portfolio stock responses based on the provided sorting criteria.
+     * Waits for market data until the deadline. Market data that did not arrive in time is cancelled, which
+     * cancels its request to the market data service.
      *
-     * @param list the list of portfolio stock responses to sort.
-     * @param sort the sorting criteria.
-     * @return a sorted list of portfolio stock responses.
+     * @return the market data, or an empty map if it did not arrive in time and partial results are enabled.
+     * @throws RuntimeException if the market data did not arrive in time and partial results are disabled.
      */
-    private List<PortfolioStockResponse> sortPortfolioStockResponses(List<PortfolioStockResponse> list, Sort sort) {
-
-        if (sort.isUnsorted()) {
-            return list;
-        }
-
-        return list.stream().sorted((o1, o2) -> {
-            for (Sort.Order order : sort) {
-                Comparator<PortfolioStockResponse> comparator = getComparator(order);
-                int result = comparator.compare(o1, o2);
-                if (result != 0) {
-                    return order.isAscending() ? result : -result;
-                }
+    private Map<String, StockMarketDataResponse> awaitMarketData(String userId,
+                                                                 CompletableFuture<Map<String, StockMarketDataResponse>> marketData,
+                                                                 long deadline) {
+
+        try {
+            return marketData.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            marketData.cancel(true);
+            throw new RuntimeException("Interrupted while waiting for market data.", e);
+        } catch (TimeoutException | ExecutionException e) {
+            marketData.cancel(true);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (!isPartialQuotesEnabled) {
+                throw new RuntimeException(String.format("Market data is not available within %d ms.",
+                        marketDataTimeoutMillis), cause);
             }
-            return 0;
-        }).collect(Collectors.toList());
+            logger.warn("Portfolio of user '{}' is returned with missing quotes: {}", userId, cause.toString());
+            return Map.of();
+        }
     }
 
     /**
-     * Retrieves a comparator for sorting portfolio stock responses based on a specific property.
+     * Retrieves a page of the realized gains of a user, newest sale first.
      *
-     * @param order the sorting order containing the property and direction.
-     * @return a comparator for the specified property.
-     * @throws UnknownSortPropertyException if the property is not recognized.
+     * @param userId      the ID of the user.
+     * @param stockSymbol the stock symbol to filter by, or {@code null} for all stocks.
+     * @param page        the page number to retrieve.
+     * @param size        the number of gains per page.
+     * @return a page of realized gains.
+     * @throws ResourceNotFoundException if no realized gains are found for the given user ID.
      */
-    private Comparator<PortfolioStockResponse> getComparator(Sort.Order order) {
-        return switch (order.getProperty()) {
-            case "stockSymbol" -> Comparator.comparing(PortfolioStockResponse::getStockSymbol);
-            case "latestPrice" -> Comparator.comparing(PortfolioStockResponse::getLatestPrice);
-            case "dailyChangePct" -> Comparator.comparing(PortfolioStockResponse::getDailyChangePct);
-            case "averageCost" -> Comparator.comparing(PortfolioStockResponse::getAverageCost);
-            case "profitLossPct" -> Comparator.comparing(PortfolioStockResponse::getProfitLossPct);
-            case "profitLossInTL" -> Comparator.comparing(PortfolioStockResponse::getProfitLossInTL);
-            case "quantity" -> Comparator.comparing(PortfolioStockResponse::getQuantity);
-            default -> throw new UnknownSortPropertyException( order.getProperty());
-        };
+    @Override
+    public Page<RealizedGainResponse> getRealizedGainsByUserId(String userId, String stockSymbol, int page, int size) {
+
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Order.desc("date"), Sort.Order.desc("transactionId")));
+        Page<PortfolioRealizedGain> realizedGains = stockSymbol == null
+                ? portfolioRealizedGainRepository.findByUserId(userId, pageable)
+                : portfolioRealizedGainRepository.findByUserIdAndStockSymbol(userId, stockSymbol, pageable);
+
+        if (realizedGains.isEmpty()) {
+            throw new ResourceNotFoundException("Realized gains", "userId", userId);
+        }
+
+        return realizedGains.map(portfolioRealizedGainMapper::toResponseDto);
     }
 }
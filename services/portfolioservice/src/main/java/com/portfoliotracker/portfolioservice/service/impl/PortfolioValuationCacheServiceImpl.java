@@ -0,0 +1,249 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioStockResponse;
+import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioVersion;
+import com.portfoliotracker.portfolioservice.event.PortfolioChangedEvent;
+import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
+import com.portfoliotracker.portfolioservice.repository.PortfolioVersionRepository;
+import com.portfoliotracker.portfolioservice.service.MarketDataService;
+import com.portfoliotracker.portfolioservice.service.PortfolioPositionService;
+import com.portfoliotracker.portfolioservice.service.PortfolioValuationCacheService;
+import com.portfoliotracker.portfolioservice.service.SymbolRegistryService;
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator;
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator.Valuation;
+import jakarta.transaction.Transactional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the computed portfolio stocks and totals of recently active users, so paging and sorting the same
+ * portfolio or reading its summary does not query the positions and the market data service again.
+ *
+ * An entry is only served while both the transaction version of the user and the market data snapshot
+ * version are the ones it was computed for. The transaction version of a user is kept in the database and moved
+ * forward in the same database transaction as every change of their positions, so a change committed by any
+ * instance is seen by the caches of all instances, and a user always reads their own changes. It is read with one
+ * primary key lookup before an entry is served. The snapshot version is read from the local snapshot file, or
+ * otherwise taken from the last poll of the symbol registry. Without a known snapshot version nothing is cached.
+ *
+ * When the market data snapshot changes, the portfolios of the users who requested their stocks recently
+ * are revalued together, so the first request after a price update is served from the cache as well.
+ * The positions of all these users are read in a few queries, the market data of all their symbols in one
+ * call, and the portfolios are valued in parallel on the common fork-join pool.
+ *
+ * Valuations with missing quotes are returned but never cached.
+ */
+@Service
+public class PortfolioValuationCacheServiceImpl implements PortfolioValuationCacheService {
+
+    private final MarketDataService marketDataService;
+    private final SymbolRegistryService symbolRegistryService;
+    private final PortfolioPositionService portfolioPositionService;
+    private final PortfolioVersionRepository portfolioVersionRepository;
+
+    private final Cache<String, CachedValuation> valuations;
+    private final Cache<String, List<String>> userSymbols;
+
+    @Value("${PORTFOLIO_REVALUATION_CHUNK_SIZE:1000}")
+    private int revaluationChunkSize;
+
+    private long lastRevaluedSnapshotVersion;
+
+    private static final Logger logger = LogManager.getLogger(PortfolioValuationCacheServiceImpl.class);
+
+    private record CachedValuation(long transactionVersion, long snapshotVersion, Valuation valuation) {
+    }
+
+    public PortfolioValuationCacheServiceImpl(MarketDataService marketDataService,
+                                              SymbolRegistryService symbolRegistryService,
+                                              PortfolioPositionService portfolioPositionService,
+                                              PortfolioVersionRepository portfolioVersionRepository,
+                                              @Value("${PORTFOLIO_VALUATION_CACHE_SIZE:10000}") long maximumSize,
+                                              @Value("${PORTFOLIO_VALUATION_CACHE_TTL_SECONDS:60}") long timeToLiveSeconds,
+                                              @Value("${PORTFOLIO_REVALUATION_ACTIVE_SECONDS:900}") long activeSeconds) {
+        this.marketDataService = marketDataService;
+        this.symbolRegistryService = symbolRegistryService;
+        this.portfolioPositionService = portfolioPositionService;
+        this.portfolioVersionRepository = portfolioVersionRepository;
+        this.valuations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveSeconds))
+                .build();
+        this.userSymbols = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofSeconds(activeSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the computed portfolio stocks and totals of a user, computing them if the cached ones were computed
+     * for other transactions or another market data snapshot.
+     *
+     * @param userId           the ID of the user.
+     * @param valuationLoader  computes the portfolio stocks and totals of the user.
+     * @return the valuation with an unmodifiable list of portfolio stocks, in the order returned by the loader.
+     */
+    @Override
+    public Valuation getUserValuation(String userId, Function<String, Valuation> valuationLoader) {
+
+        // Versions are read before loading, so a change committed during the load leaves a stale entry behind
+        // that no later read accepts.
+        long transactionVersion = portfolioVersionRepository.findVersion(userId).orElse(0L);
+        long snapshotVersion = getMarketSnapshotVersion();
+        userSymbols.get(userId, key -> List.of());
+
+        CachedValuation cachedValuation = valuations.getIfPresent(userId);
+        if (cachedValuation != null && snapshotVersion != 0
+                && cachedValuation.transactionVersion() == transactionVersion
+                && cachedValuation.snapshotVersion() == snapshotVersion) {
+            return cachedValuation.valuation();
+        }
+
+        Valuation loadedValuation = valuationLoader.apply(userId);
+        Valuation valuation = new Valuation(List.copyOf(loadedValuation.stocks()), loadedValuation.summary());
+        userSymbols.put(userId, getStockSymbols(valuation.stocks()));
+        if (snapshotVersion != 0 && !valuation.summary().isQuoteMissing()) {
+            valuations.put(userId, new CachedValuation(transactionVersion, snapshotVersion, valuation));
+        }
+        return valuation;
+    }
+
+    /**
+     * @param userId the ID of the user.
+     * @return the stock symbols of the last valuation of the user, or an empty list if the user was not active recently.
+     */
+    @Override
+    public List<String> getLastKnownSymbols(String userId) {
+        List<String> symbols = userSymbols.getIfPresent(userId);
+        return symbols == null ? List.of() : symbols;
+    }
+
+    @Override
+    public void invalidateAll() {
+        valuations.invalidateAll();
+    }
+
+    /**
+     * Revalues the portfolios of the recently active users once per market data snapshot.
+     * If the revaluation fails, it is retried on the next run and requests compute their portfolio on demand.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${PORTFOLIO_REVALUATION_POLL_MS:1000}")
+    public synchronized void revaluePortfolios() {
+
+        long snapshotVersion = getMarketSnapshotVersion();
+        if (snapshotVersion == 0 || snapshotVersion == lastRevaluedSnapshotVersion) {
+            return;
+        }
+
+        List<String> userIds = List.copyOf(userSymbols.asMap().keySet());
+        if (userIds.isEmpty()) {
+            lastRevaluedSnapshotVersion = snapshotVersion;
+            return;
+        }
+
+        try {
+
+            long startedAt = System.nanoTime();
+
+            // Versions are read before the positions, as in getUserValuation.
+            Map<String, Long> userTransactionVersions = new HashMap<>();
+            Map<String, List<PortfolioStock>> positions = new HashMap<>();
+            for (int from = 0; from < userIds.size(); from += revaluationChunkSize) {
+                List<String> chunk = userIds.subList(from, Math.min(from + revaluationChunkSize, userIds.size()));
+                userTransactionVersions.putAll(portfolioVersionRepository.findByUserIdIn(chunk).stream()
+                        .collect(Collectors.toMap(PortfolioVersion::getUserId, PortfolioVersion::getVersion)));
+                positions.putAll(portfolioPositionService.getUsersPositions(chunk));
+            }
+
+            List<String> stockSymbols = positions.values().stream()
+                    .flatMap(List::stream)
+                    .filter(portfolioStock -> portfolioStock.getQuantity() > 0)
+                    .map(PortfolioStock::getStockSymbol)
+                    .distinct()
+                    .toList();
+            Map<String, StockMarketDataResponse> marketData = stockSymbols.isEmpty()
+                    ? Map.of()
+                    : marketDataService.fetchStocksMarketData(stockSymbols);
+
+            List<Valuation> userValuations = PortfolioValuationCalculator.valueAll(userIds, positions,
+                    PortfolioValuationCalculator.toQuotes(marketData), ForkJoinPool.commonPool());
+
+            for (int i = 0; i < userIds.size(); i++) {
+                String userId = userIds.get(i);
+                Valuation valuation = userValuations.get(i);
+                if (positions.containsKey(userId) && !valuation.summary().isQuoteMissing()) {
+                    valuations.put(userId, new CachedValuation(userTransactionVersions.getOrDefault(userId, 0L),
+                            snapshotVersion, valuation));
+                    userSymbols.asMap().replace(userId, getStockSymbols(valuation.stocks()));
+                } else {
+                    valuations.invalidate(userId);
+                }
+            }
+
+            lastRevaluedSnapshotVersion = snapshotVersion;
+            logger.info("Revalued {} portfolios with {} symbols for snapshot version {} in {} ms.",
+                    positions.size(), stockSymbols.size(), snapshotVersion, (System.nanoTime() - startedAt) / 1_000_000);
+
+        } catch (Exception e) {
+            logger.warn("Portfolios could not be revalued for snapshot version {}: {}", snapshotVersion, e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the transaction version of the changed user forward in the same database transaction as the change,
+     * or of all users if the positions were rebuilt.
+     */
+    @Transactional
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+
+        if (event.userId() == null) {
+            portfolioVersionRepository.incrementAllVersions();
+            portfolioVersionRepository.insertMissingVersions();
+            return;
+        }
+
+        portfolioVersionRepository.incrementVersion(event.userId());
+    }
+
+    /**
+     * Drops the valuation of the changed user from the cache of this instance once the change is committed,
+     * or all valuations if the positions were rebuilt. Other instances drop theirs on the next read, as the
+     * version no longer matches.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPortfolioChangeCommitted(PortfolioChangedEvent event) {
+
+        if (event.userId() == null) {
+            invalidateAll();
+            return;
+        }
+
+        valuations.invalidate(event.userId());
+    }
+
+    private static List<String> getStockSymbols(List<PortfolioStockResponse> stocks) {
+        return stocks.stream().map(PortfolioStockResponse::getStockSymbol).toList();
+    }
+
+    private long getMarketSnapshotVersion() {
+        return marketDataService.findLocalSnapshotVersion().orElseGet(symbolRegistryService::getSnapshotVersion);
+    }
+}
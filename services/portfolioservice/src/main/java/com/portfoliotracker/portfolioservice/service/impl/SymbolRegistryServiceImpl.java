@@ -0,0 +1,105 @@
+package com.portfoliotracker.portfolioservice.service.impl;
+
+import com.portfoliotracker.portfolioservice.dto.response.SymbolChangeFeedResponse;
+import com.portfoliotracker.portfolioservice.dto.response.SymbolChangeResponse;
+import com.portfoliotracker.portfolioservice.service.MarketDataService;
+import com.portfoliotracker.portfolioservice.service.SymbolRegistryService;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Local copy of the stock symbols of the market data service, used to validate transactions without
+ * a call to the market data service per request.
+ *
+ * The set is replaced as a whole and never modified, so lookups need no locking. It is kept in sync
+ * through the symbol change feed of the market data service, which is empty unless symbols were listed
+ * or delisted, and is reloaded in full only when the feed no longer covers the applied version.
+ * If the market data service is unavailable, the last loaded set is kept.
+ */
+@Service
+@RequiredArgsConstructor
+public class SymbolRegistryServiceImpl implements SymbolRegistryService {
+
+    private final MarketDataService marketDataService;
+
+    private volatile Set<String> stockSymbols;
+    private volatile long snapshotVersion;
+
+    private static final Logger logger = LogManager.getLogger(SymbolRegistryServiceImpl.class);
+
+    /**
+     * Checks whether the stock symbol is listed in the market data service.
+     * Symbols are loaded synchronously only if they could not be loaded since the start of the service.
+     *
+     * @param stockSymbol the stock symbol to check.
+     * @return {@code true} if the symbol is listed; {@code false} otherwise.
+     * @throws RuntimeException if the symbols have never been loaded and the market data service is unavailable.
+     */
+    @Override
+    public boolean isKnownSymbol(String stockSymbol) {
+
+        Set<String> symbols = stockSymbols;
+        if (symbols == null) {
+            refreshSymbols();
+            symbols = stockSymbols;
+            if (symbols == null) {
+                throw new RuntimeException("Stock symbols are not available from the market data service.");
+            }
+        }
+
+        return symbols.contains(stockSymbol);
+    }
+
+    /**
+     * Applies the symbol changes published by the market data service since the last applied snapshot
+     * version, or reloads all symbols if the changes are no longer available.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${PORTFOLIO_SYMBOL_REGISTRY_REFRESH_MS:15000}")
+    public synchronized void refreshSymbols() {
+
+        try {
+
+            SymbolChangeFeedResponse symbolChanges = marketDataService.fetchSymbolChanges(snapshotVersion);
+
+            if (stockSymbols == null || symbolChanges.isFullResyncRequired()) {
+                stockSymbols = Set.copyOf(marketDataService.fetchStockSymbols());
+                logger.info("Symbol registry loaded with {} symbols at snapshot version {}.",
+                        stockSymbols.size(), symbolChanges.getSnapshotVersion());
+            } else if (!symbolChanges.getChanges().isEmpty()) {
+                Set<String> symbols = new HashSet<>(stockSymbols);
+                for (SymbolChangeResponse symbolChange : symbolChanges.getChanges()) {
+                    if ("DELISTED".equals(symbolChange.getChangeType())) {
+                        symbols.remove(symbolChange.getStockSymbol());
+                    } else {
+                        symbols.add(symbolChange.getStockSymbol());
+                    }
+                }
+                stockSymbols = Set.copyOf(symbols);
+                logger.info("Symbol registry applied {} symbol changes up to snapshot version {}.",
+                        symbolChanges.getChanges().size(), symbolChanges.getSnapshotVersion());
+            }
+
+            snapshotVersion = symbolChanges.getSnapshotVersion();
+
+        } catch (Exception e) {
+            logger.warn("Symbol registry could not be refreshed, keeping {} known symbols: {}",
+                    stockSymbols == null ? 0 : stockSymbols.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return the market data snapshot version seen by the last successful refresh, or 0 if the symbols
+     * have never been refreshed.
+     */
+    @Override
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+}
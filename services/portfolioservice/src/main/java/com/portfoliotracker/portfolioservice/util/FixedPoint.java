@@ -0,0 +1,96 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic on amounts stored as a {@code long} number of ten-thousandths, the scale used by the
+ * market data snapshot file. Prices, costs and percentages of the portfolio valuation are kept in this form, so
+ * the valuation of a position does not allocate. Amounts are converted from and to {@link BigDecimal} only at the
+ * edges: when read from the database or the market data service and when written to JSON.
+ *
+ * All rounding is half up, as with {@link RoundingMode#HALF_UP}.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 4;
+    public static final long ONE = 10_000;
+
+    /**
+     * Marks an amount that is not available, for example the price of a stock without a quote.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * @return the amount in ten-thousandths, rounded half up, or {@link #NONE} if the value is {@code null}.
+     * @throws ArithmeticException if the amount does not fit into a long.
+     */
+    public static long fromDecimal(BigDecimal value) {
+        return value == null ? NONE : value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return the amount with at least two decimals and without further trailing zeros, or {@code null} for {@link #NONE}.
+     */
+    public static BigDecimal toDecimal(long amount) {
+        if (amount == NONE) {
+            return null;
+        }
+        BigDecimal value = BigDecimal.valueOf(amount, SCALE).stripTrailingZeros();
+        return value.scale() < 2 ? value.setScale(2) : value;
+    }
+
+    /**
+     * @return the amount multiplied by a whole number.
+     * @throws ArithmeticException if the result does not fit into a long.
+     */
+    public static long multiply(long amount, long factor) {
+        return Math.multiplyExact(amount, factor);
+    }
+
+    /**
+     * @return {@code dividend / divisor} rounded half up to a whole number.
+     */
+    public static long divide(long dividend, long divisor) {
+
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // Compares twice the remainder with the divisor without overflowing.
+        if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * @return {@code numerator / denominator} as an amount in ten-thousandths, rounded half up.
+     * Falls back to {@link BigDecimal} if the scaled numerator does not fit into a long.
+     */
+    public static long ratio(long numerator, long denominator) {
+
+        long high = Math.multiplyHigh(numerator, ONE);
+        long scaled = numerator * ONE;
+        if ((high == 0 && scaled >= 0) || (high == -1 && scaled < 0)) {
+            return divide(scaled, denominator);
+        }
+
+        return BigDecimal.valueOf(numerator)
+                .divide(BigDecimal.valueOf(denominator), SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * @return the amount rounded half up to the given number of decimals, at most {@link #SCALE}.
+     */
+    public static long round(long amount, int decimals) {
+        long unit = 1;
+        for (int i = decimals; i < SCALE; i++) {
+            unit *= 10;
+        }
+        return divide(amount, unit) * unit;
+    }
+}
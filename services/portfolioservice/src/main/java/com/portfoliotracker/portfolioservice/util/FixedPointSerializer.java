@@ -0,0 +1,26 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link FixedPoint} amount as a JSON decimal number, or as {@code null} for {@link FixedPoint#NONE}.
+ */
+public class FixedPointSerializer extends StdSerializer<Long> {
+
+    public FixedPointSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long amount, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (amount == null || amount == FixedPoint.NONE) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(FixedPoint.toDecimal(amount));
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import com.portfoliotracker.portfolioservice.exception.UnknownSortPropertyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Sorts and pages lists that are already in memory, such as the valued stocks of a portfolio.
+ *
+ * The sortable properties are registered once with their ascending comparator, and optionally with a test for
+ * elements missing the value, which sort last in both directions. The comparator of a {@link Sort}
+ * is chained from them on first use and kept, so comparing two elements neither looks up a property nor
+ * allocates. A page is selected with a bounded heap of the first {@code offset + size} elements instead of
+ * sorting the whole list, which costs {@code O(n log k)} for {@code k = offset + size}. Elements that compare
+ * as equal keep their order in the list, as with a stable sort, so consecutive pages neither repeat nor skip
+ * an element.
+ *
+ * @param <T> the type of the elements.
+ */
+public final class InMemoryQuery<T> {
+
+    /**
+     * Upper bound of the kept comparators. Sorts are only kept for registered properties, so the bound is only
+     * reached by requests with many orders.
+     */
+    private static final int MAX_COMPILED_SORTS = 256;
+
+    private final Map<String, Comparator<T>> properties;
+    private final Map<String, Predicate<T>> missingValues;
+    private final Map<Sort, Comparator<T>> compiledSorts = new ConcurrentHashMap<>();
+
+    /**
+     * @param properties the ascending comparator of each sortable property, keyed by property name.
+     */
+    public InMemoryQuery(Map<String, Comparator<T>> properties) {
+        this(properties, Map.of());
+    }
+
+    /**
+     * @param properties    the ascending comparator of each sortable property, keyed by property name.
+     * @param missingValues the test for elements missing the value of a property, keyed by property name. These
+     *                      elements sort last in both directions and are not passed to the comparator.
+     */
+    public InMemoryQuery(Map<String, Comparator<T>> properties, Map<String, Predicate<T>> missingValues) {
+        this.properties = Map.copyOf(properties);
+        this.missingValues = Map.copyOf(missingValues);
+    }
+
+    /**
+     * @return the comparator of the sort, or {@code null} if the sort is unsorted.
+     * @throws UnknownSortPropertyException if the sort has a property that is not registered.
+     */
+    public Comparator<T> getComparator(Sort sort) {
+
+        if (sort.isUnsorted()) {
+            return null;
+        }
+
+        Comparator<T> comparator = compiledSorts.get(sort);
+        if (comparator == null) {
+            comparator = compile(sort);
+            if (compiledSorts.size() < MAX_COMPILED_SORTS) {
+                compiledSorts.putIfAbsent(sort, comparator);
+            }
+        }
+        return comparator;
+    }
+
+    /**
+     * @param elements the elements to page. The list is not modified.
+     * @param page     the page number to retrieve (use -1 to retrieve all elements without pagination).
+     * @param size     the number of elements per page.
+     * @param sort     the sorting criteria.
+     * @return the page of the sorted elements.
+     * @throws UnknownSortPropertyException if the sort has a property that is not registered.
+     */
+    public Page<T> getPage(List<T> elements, int page, int size, Sort sort) {
+
+        Comparator<T> comparator = getComparator(sort);
+        int totalElements = elements.size();
+
+        if (page < 0) {
+            return new PageImpl<>(
+                    selectFirst(elements, totalElements, comparator),
+                    PageRequest.of(0, Math.max(totalElements, 1), sort),
+                    totalElements
+            );
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, sort);
+
+        long start = pageRequest.getOffset();
+        if (start >= totalElements) {
+            return new PageImpl<>(new ArrayList<>(), pageRequest, totalElements);
+        }
+
+        int end = (int) Math.min(start + pageRequest.getPageSize(), totalElements);
+        List<T> pageContent = selectFirst(elements, end, comparator).subList((int) start, end);
+
+        return new PageImpl<>(pageContent, pageRequest, totalElements);
+    }
+
+    /**
+     * Selects the first {@code k} elements in the order of the comparator, in {@code O(n log k)}.
+     *
+     * The heap holds the indexes of the {@code k} smallest elements seen so far with the greatest one at the
+     * root. Ties are broken by the index, so the result is the same as the start of a stable sort.
+     *
+     * @param elements   the elements to select from. The list is not modified.
+     * @param k          the number of elements to select.
+     * @param comparator the order of the elements, or {@code null} to keep the order of the list.
+     * @return the first {@code k} elements in order, or all elements if there are fewer.
+     */
+    public static <T> List<T> selectFirst(List<T> elements, int k, Comparator<? super T> comparator) {
+
+        if (!(elements instanceof RandomAccess)) {
+            elements = new ArrayList<>(elements);
+        }
+        int n = elements.size();
+        k = Math.min(k, n);
+
+        if (comparator == null) {
+            return elements.subList(0, k);
+        }
+        if (k == n) {
+            List<T> sorted = new ArrayList<>(elements);
+            sorted.sort(comparator);
+            return sorted;
+        }
+
+        int[] heap = new int[k];
+        for (int i = 0; i < k; i++) {
+            heap[i] = i;
+            siftUp(heap, i, elements, comparator);
+        }
+        for (int i = k; i < n; i++) {
+            if (compare(elements, comparator, i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, k, elements, comparator);
+            }
+        }
+
+        Object[] selected = new Object[k];
+        for (int size = k; size > 0; size--) {
+            selected[size - 1] = elements.get(heap[0]);
+            heap[0] = heap[size - 1];
+            siftDown(heap, size - 1, elements, comparator);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) Arrays.asList(selected);
+        return result;
+    }
+
+    private Comparator<T> compile(Sort sort) {
+
+        Comparator<T> chain = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> comparator = properties.get(order.getProperty());
+            if (comparator == null) {
+                throw new UnknownSortPropertyException(order.getProperty());
+            }
+            if (order.isDescending()) {
+                comparator = comparator.reversed();
+            }
+            Predicate<T> isMissing = missingValues.get(order.getProperty());
+            if (isMissing != null) {
+                comparator = missingLast(comparator, isMissing);
+            }
+            chain = chain == null ? comparator : chain.thenComparing(comparator);
+        }
+        return chain;
+    }
+
+    private static <T> Comparator<T> missingLast(Comparator<T> comparator, Predicate<T> isMissing) {
+        return (o1, o2) -> {
+            boolean isMissing1 = isMissing.test(o1);
+            boolean isMissing2 = isMissing.test(o2);
+            return isMissing1 || isMissing2 ? Boolean.compare(isMissing1, isMissing2) : comparator.compare(o1, o2);
+        };
+    }
+
+    private static <T> int compare(List<T> elements, Comparator<? super T> comparator, int i, int j) {
+        int result = comparator.compare(elements.get(i), elements.get(j));
+        return result != 0 ? result : Integer.compare(i, j);
+    }
+
+    private static <T> void siftUp(int[] heap, int index, List<T> elements, Comparator<? super T> comparator) {
+
+        int element = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(elements, comparator, element, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    private static <T> void siftDown(int[] heap, int size, List<T> elements, Comparator<? super T> comparator) {
+
+        int index = 0;
+        int element = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(elements, comparator, heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (compare(elements, comparator, element, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = element;
+    }
+}
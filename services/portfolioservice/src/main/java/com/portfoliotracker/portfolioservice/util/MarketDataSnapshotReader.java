@@ -0,0 +1,295 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads stock quotes from the memory-mapped snapshot file published by a marketdata instance running
+ * on the same host, without an HTTP call.
+ *
+ * The layout is defined by the writer in the marketdata service (MappedSnapshotFile): a 64 byte header
+ * followed by 64 byte records sorted by symbol. Records are read in place from the mapped file and
+ * looked up by binary search. A read is retried while the writer is replacing the snapshot
+ * (seqlock), so every result comes from a single snapshot.
+ *
+ * All lookups return an empty optional when the file is missing, has an unknown layout or its
+ * heartbeat is older than the allowed age, so callers can fall back to the market data service.
+ */
+public class MarketDataSnapshotReader {
+
+    private static final int MAGIC = 0x50545353;
+    private static final int LAYOUT_VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 64;
+    private static final int SYMBOL_SIZE = 16;
+    private static final int SCALE = 4;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int SNAPSHOT_VERSION_OFFSET = 16;
+    private static final int RECORD_COUNT_OFFSET = 32;
+    private static final int CAPACITY_OFFSET = 36;
+    private static final int HEARTBEAT_OFFSET = 40;
+
+    private static final int MAX_READ_ATTEMPTS = 64;
+    private static final long REOPEN_INTERVAL_MILLIS = 10_000;
+
+    private static final VarHandle LONG_HANDLE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final long maxHeartbeatAgeMillis;
+
+    private volatile MappedByteBuffer buffer;
+    private volatile long lastOpenAttemptMillis;
+
+    /**
+     * A quote of the snapshot. Values that the market data service did not have are {@code null}.
+     */
+    public record Quote(String stockSymbol, BigDecimal latestPrice, BigDecimal dailyChangePct,
+                        BigDecimal dailyChangeInTL, BigDecimal tradingVolumeTL, BigDecimal tradeVolumeCount) {
+    }
+
+    /**
+     * @param path                  the snapshot file, or {@code null} to always fall back.
+     * @param maxHeartbeatAgeMillis the age after which the file is considered left behind by a stopped writer.
+     */
+    public MarketDataSnapshotReader(Path path, long maxHeartbeatAgeMillis) {
+        this.path = path;
+        this.maxHeartbeatAgeMillis = maxHeartbeatAgeMillis;
+    }
+
+    /**
+     * @return the quotes of the given symbols that are part of the snapshot, keyed by symbol in the given order.
+     */
+    public Optional<Map<String, Quote>> findQuotes(Collection<String> symbols) {
+
+        MappedByteBuffer snapshot = availableBuffer();
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long sequence = (long) LONG_HANDLE.getAcquire(snapshot, SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            int recordCount = recordCount(snapshot);
+            Map<String, Quote> quotes = new LinkedHashMap<>();
+            for (String symbol : symbols) {
+                int index = indexOf(snapshot, recordCount, symbol);
+                if (index >= 0) {
+                    quotes.put(symbol, readQuote(snapshot, index, symbol));
+                }
+            }
+
+            VarHandle.loadLoadFence();
+            if ((long) LONG_HANDLE.getAcquire(snapshot, SEQUENCE_OFFSET) == sequence) {
+                return Optional.of(quotes);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @return all symbols of the snapshot in ascending order.
+     */
+    public Optional<List<String>> findSymbols() {
+
+        MappedByteBuffer snapshot = availableBuffer();
+        if (snapshot == null) {
+            return Optional.empty();
+        }
+
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long sequence = (long) LONG_HANDLE.getAcquire(snapshot, SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            int recordCount = recordCount(snapshot);
+            List<String> symbols = new ArrayList<>(recordCount);
+            for (int index = 0; index < recordCount; index++) {
+                symbols.add(readSymbol(snapshot, index));
+            }
+
+            VarHandle.loadLoadFence();
+            if ((long) LONG_HANDLE.getAcquire(snapshot, SEQUENCE_OFFSET) == sequence) {
+                return Optional.of(symbols);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @return the version of the snapshot in the file, or an empty optional if the file is not available.
+     */
+    public OptionalLong findSnapshotVersion() {
+
+        MappedByteBuffer snapshot = availableBuffer();
+        if (snapshot == null) {
+            return OptionalLong.empty();
+        }
+
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long sequence = (long) LONG_HANDLE.getAcquire(snapshot, SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long snapshotVersion = snapshot.getLong(SNAPSHOT_VERSION_OFFSET);
+            VarHandle.loadLoadFence();
+            if ((long) LONG_HANDLE.getAcquire(snapshot, SEQUENCE_OFFSET) == sequence) {
+                return OptionalLong.of(snapshotVersion);
+            }
+        }
+
+        return OptionalLong.empty();
+    }
+
+    private MappedByteBuffer availableBuffer() {
+
+        MappedByteBuffer snapshot = buffer;
+        if (snapshot == null || !hasExpectedCapacity(snapshot)) {
+            snapshot = reopen();
+        }
+        if (snapshot == null) {
+            return null;
+        }
+
+        long heartbeat = (long) LONG_HANDLE.getAcquire(snapshot, HEARTBEAT_OFFSET);
+        boolean isAlive = System.currentTimeMillis() - heartbeat <= maxHeartbeatAgeMillis;
+        return isAlive && snapshot.getInt(RECORD_COUNT_OFFSET) > 0 ? snapshot : null;
+    }
+
+    private synchronized MappedByteBuffer reopen() {
+
+        if (buffer != null && hasExpectedCapacity(buffer)) {
+            return buffer;
+        }
+
+        long now = System.currentTimeMillis();
+        if (path == null || now - lastOpenAttemptMillis < REOPEN_INTERVAL_MILLIS) {
+            return null;
+        }
+        lastOpenAttemptMillis = now;
+
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != LAYOUT_VERSION || !hasExpectedCapacity(mapped)) {
+                return null;
+            }
+            buffer = mapped;
+            return mapped;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasExpectedCapacity(MappedByteBuffer snapshot) {
+        return HEADER_SIZE + (long) RECORD_SIZE * snapshot.getInt(CAPACITY_OFFSET) <= snapshot.capacity();
+    }
+
+    private static int indexOf(MappedByteBuffer snapshot, int recordCount, String symbol) {
+
+        if (symbol == null || symbol.length() > SYMBOL_SIZE) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareSymbol(snapshot, middle, symbol);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int compareSymbol(MappedByteBuffer snapshot, int index, String symbol) {
+
+        int offset = HEADER_SIZE + index * RECORD_SIZE;
+        for (int i = 0; i < SYMBOL_SIZE; i++) {
+            int stored = snapshot.get(offset + i) & 0xFF;
+            int wanted = i < symbol.length() ? symbol.charAt(i) : 0;
+            if (stored != wanted) {
+                return stored - wanted;
+            }
+            if (stored == 0) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private static String readSymbol(MappedByteBuffer snapshot, int index) {
+
+        int offset = HEADER_SIZE + index * RECORD_SIZE;
+        byte[] symbol = new byte[SYMBOL_SIZE];
+        int length = 0;
+        while (length < SYMBOL_SIZE && (symbol[length] = snapshot.get(offset + length)) != 0) {
+            length++;
+        }
+        return new String(symbol, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static Quote readQuote(MappedByteBuffer snapshot, int index, String symbol) {
+
+        int offset = HEADER_SIZE + index * RECORD_SIZE;
+        return new Quote(
+                symbol,
+                decimal(snapshot.getLong(offset + 16)),
+                decimal(snapshot.getLong(offset + 24)),
+                decimal(snapshot.getLong(offset + 32)),
+                decimal(snapshot.getLong(offset + 40)),
+                decimal(snapshot.getLong(offset + 48))
+        );
+    }
+
+    private static int recordCount(MappedByteBuffer snapshot) {
+        return Math.min(snapshot.getInt(RECORD_COUNT_OFFSET), snapshot.getInt(CAPACITY_OFFSET));
+    }
+
+    /**
+     * Converts a stored value back to the two decimal representation of the market data service,
+     * keeping further decimals if there are any.
+     *
+     * @return the value, or {@code null} if it is not available.
+     */
+    private static BigDecimal decimal(long unscaledValue) {
+        if (unscaledValue == NO_VALUE) {
+            return null;
+        }
+        BigDecimal value = BigDecimal.valueOf(unscaledValue, SCALE).stripTrailingZeros();
+        return value.scale() < 2 ? value.setScale(2) : value;
+    }
+}
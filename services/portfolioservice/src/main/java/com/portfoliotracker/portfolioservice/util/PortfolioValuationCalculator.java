@@ -0,0 +1,211 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioStockResponse;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioSummaryResponse;
+import com.portfoliotracker.portfolioservice.dto.response.StockMarketDataResponse;
+import com.portfoliotracker.portfolioservice.projection.PortfolioStock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Values open positions against market data with {@link FixedPoint} arithmetic.
+ *
+ * Many portfolios are valued at once by splitting the users into ranges of {@link #USERS_PER_TASK}
+ * and valuing the ranges in parallel on a fork-join pool. The quotes are shared and only read,
+ * and every task writes the results of its own range, so no locking is needed.
+ */
+public final class PortfolioValuationCalculator {
+
+    static final int USERS_PER_TASK = 64;
+
+    private PortfolioValuationCalculator() {
+    }
+
+    /**
+     * Market data of a stock as {@link FixedPoint} amounts.
+     */
+    public record Quote(long latestPrice, long dailyChangePct, long dailyChangeInTL) {
+    }
+
+    /**
+     * Valued positions of a user together with their totals.
+     */
+    public record Valuation(List<PortfolioStockResponse> stocks, PortfolioSummaryResponse summary) {
+    }
+
+    /**
+     * Converts the market data once per stock, so valuing positions does not touch {@link java.math.BigDecimal}.
+     *
+     * @param marketData the market data keyed by stock symbol.
+     * @return the quotes keyed by stock symbol. Stocks without a latest price are left out.
+     */
+    public static Map<String, Quote> toQuotes(Map<String, StockMarketDataResponse> marketData) {
+
+        Map<String, Quote> quotes = new HashMap<>(Math.max(16, marketData.size() * 2));
+        for (StockMarketDataResponse stockMarketData : marketData.values()) {
+            if (stockMarketData.getLatestPrice() != null) {
+                quotes.put(stockMarketData.getStockSymbol(), new Quote(
+                        FixedPoint.fromDecimal(stockMarketData.getLatestPrice()),
+                        FixedPoint.fromDecimal(stockMarketData.getDailyChangePct()),
+                        FixedPoint.fromDecimal(stockMarketData.getDailyChangeInTL())));
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * The unrealized profit or loss is the market value of the position minus its total cost, so it is exact
+     * regardless of the size of the position. The percentage is rounded half up to two decimals, as the ratio is
+     * rounded to four decimals before it is scaled to a percentage. The realized profit or loss of the sales of the
+     * stock is taken from the position as it is.
+     *
+     * The totals are summed in the same pass. The market value, the profit or loss and the daily change only cover
+     * positions with a quote, and the daily change percentage is relative to the market value before the change.
+     * Closed positions only add their realized profit or loss to the totals.
+     *
+     * @param portfolioStocks the positions of a user, open or closed.
+     * @param quotes          the quotes keyed by stock symbol.
+     * @return the valued open positions, in the order of the positions, and their totals. Positions without a quote are
+     * marked as missing a quote and only have their cost, quantity and realized profit or loss.
+     * @throws ArithmeticException if the market value of a position does not fit into a {@link FixedPoint} amount.
+     */
+    public static Valuation value(List<PortfolioStock> portfolioStocks, Map<String, Quote> quotes) {
+
+        List<PortfolioStockResponse> stocksWithMarketData = new ArrayList<>(portfolioStocks.size());
+        long totalCost = 0;
+        long quotedCost = 0;
+        long marketValue = 0;
+        long dailyChangeInTL = 0;
+        long realizedProfitLossInTL = 0;
+        boolean isQuoteMissing = false;
+
+        for (PortfolioStock portfolioStock : portfolioStocks) {
+            realizedProfitLossInTL += portfolioStock.getRealizedGain();
+            if (portfolioStock.getQuantity() == 0) {
+                continue;
+            }
+
+            Quote quote = quotes.get(portfolioStock.getStockSymbol());
+            totalCost += portfolioStock.getTotalCost();
+
+            if (quote == null) {
+                isQuoteMissing = true;
+                stocksWithMarketData.add(PortfolioStockResponse.builder()
+                        .stockSymbol(portfolioStock.getStockSymbol())
+                        .latestPrice(FixedPoint.NONE)
+                        .dailyChangePct(FixedPoint.NONE)
+                        .dailyChangeInTL(FixedPoint.NONE)
+                        .averageCost(portfolioStock.getAverageCost())
+                        .profitLossPct(FixedPoint.NONE)
+                        .profitLossInTL(FixedPoint.NONE)
+                        .realizedProfitLossInTL(portfolioStock.getRealizedGain())
+                        .quantity(portfolioStock.getQuantity())
+                        .quoteMissing(true)
+                        .build());
+                continue;
+            }
+
+            long positionMarketValue = FixedPoint.multiply(quote.latestPrice(), portfolioStock.getQuantity());
+            long profitLossInTL = positionMarketValue - portfolioStock.getTotalCost();
+            long profitLossPct = ratioPct(profitLossInTL, portfolioStock.getTotalCost());
+
+            quotedCost += portfolioStock.getTotalCost();
+            marketValue += positionMarketValue;
+            if (quote.dailyChangeInTL() != FixedPoint.NONE) {
+                dailyChangeInTL += FixedPoint.multiply(quote.dailyChangeInTL(), portfolioStock.getQuantity());
+            }
+
+            stocksWithMarketData.add(PortfolioStockResponse.builder()
+                    .stockSymbol(portfolioStock.getStockSymbol())
+                    .latestPrice(quote.latestPrice())
+                    .dailyChangePct(quote.dailyChangePct())
+                    .dailyChangeInTL(quote.dailyChangeInTL())
+                    .averageCost(portfolioStock.getAverageCost())
+                    .profitLossPct(profitLossPct)
+                    .profitLossInTL(profitLossInTL)
+                    .realizedProfitLossInTL(portfolioStock.getRealizedGain())
+                    .quantity(portfolioStock.getQuantity())
+                    .build());
+        }
+
+        long profitLossInTL = marketValue - quotedCost;
+        PortfolioSummaryResponse summary = PortfolioSummaryResponse.builder()
+                .stockCount(stocksWithMarketData.size())
+                .marketValue(marketValue)
+                .totalCost(totalCost)
+                .profitLossInTL(profitLossInTL)
+                .profitLossPct(ratioPct(profitLossInTL, quotedCost))
+                .dailyChangeInTL(dailyChangeInTL)
+                .dailyChangePct(ratioPct(dailyChangeInTL, marketValue - dailyChangeInTL))
+                .realizedProfitLossInTL(realizedProfitLossInTL)
+                .quoteMissing(isQuoteMissing)
+                .build();
+
+        return new Valuation(stocksWithMarketData, summary);
+    }
+
+    private static long ratioPct(long amount, long base) {
+        return base == 0 ? 0 : FixedPoint.ratio(amount, base) * 100;
+    }
+
+    /**
+     * @param userIds    the users to value.
+     * @param positions  the positions keyed by user ID, open or closed.
+     * @param quotes     the quotes of all symbols held by the users, keyed by stock symbol.
+     * @param pool       pool to run the ranges on.
+     * @return the valuation of each user, at the index of the user. Users without positions get an empty valuation.
+     */
+    public static List<Valuation> valueAll(List<String> userIds,
+                                           Map<String, List<PortfolioStock>> positions,
+                                           Map<String, Quote> quotes,
+                                           ForkJoinPool pool) {
+
+        Valuation[] results = new Valuation[userIds.size()];
+        pool.invoke(new ValuationTask(userIds, positions, quotes, results, 0, userIds.size()));
+        return List.of(results);
+    }
+
+    private static final class ValuationTask extends RecursiveAction {
+
+        private final List<String> userIds;
+        private final Map<String, List<PortfolioStock>> positions;
+        private final Map<String, Quote> quotes;
+        private final Valuation[] results;
+        private final int from;
+        private final int to;
+
+        private ValuationTask(List<String> userIds, Map<String, List<PortfolioStock>> positions,
+                              Map<String, Quote> quotes, Valuation[] results,
+                              int from, int to) {
+            this.userIds = userIds;
+            this.positions = positions;
+            this.quotes = quotes;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > USERS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ValuationTask(userIds, positions, quotes, results, from, middle),
+                        new ValuationTask(userIds, positions, quotes, results, middle, to)
+                );
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                Valuation valuation = value(positions.getOrDefault(userIds.get(i), List.of()), quotes);
+                results[i] = new Valuation(List.copyOf(valuation.stocks()), valuation.summary());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfoliotracker.portfolioservice.exception.InvalidCursorException;
+import com.portfoliotracker.portfolioservice.exception.UnknownSortPropertyException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encodes and decodes the opaque continuation tokens of the transaction listing.
+ *
+ * A token holds the sort it was created for and the sort key and id of the last returned transaction,
+ * so the next window is read with a keyset condition on an index instead of an offset.
+ */
+public class TransactionCursor {
+
+    private static final Map<String, Function<String, Object>> SORT_KEY_PARSERS = Map.of(
+            "id", Long::valueOf,
+            "date", LocalDate::parse,
+            "stockSymbol", value -> value,
+            "quantity", Long::valueOf,
+            "price", BigDecimal::new
+    );
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @return the sort by the given key with the id as tie-breaker, so every transaction has a distinct position.
+     * @throws UnknownSortPropertyException if the transactions cannot be scrolled by the key.
+     */
+    public static Sort getSort(String sortBy, boolean descending) {
+
+        if (!SORT_KEY_PARSERS.containsKey(sortBy)) {
+            throw new UnknownSortPropertyException(sortBy);
+        }
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    public static String encode(String sortBy, boolean descending, KeysetScrollPosition position) {
+
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((key, value) -> keys.put(key, String.valueOf(value)));
+
+        Map<String, Object> cursor = Map.of("sort", getSortSignature(sortBy, descending), "keys", keys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new RuntimeException("Cursor could not be created.", e);
+        }
+    }
+
+    /**
+     * @param cursor the token returned with the previous window, or a blank value for the first window.
+     * @return the position to continue scrolling from.
+     * @throws InvalidCursorException if the token is malformed or was created for another sort.
+     */
+    public static KeysetScrollPosition decode(String cursor, String sortBy, boolean descending) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            Map<String, Object> decoded = objectMapper.readValue(
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8),
+                    new TypeReference<Map<String, Object>>() {}
+            );
+            if (!getSortSignature(sortBy, descending).equals(decoded.get("sort"))) {
+                throw new InvalidCursorException();
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order order : getSort(sortBy, descending)) {
+                Object value = ((Map<?, ?>) decoded.get("keys")).get(order.getProperty());
+                if (value == null) {
+                    throw new InvalidCursorException();
+                }
+                keys.put(order.getProperty(), SORT_KEY_PARSERS.get(order.getProperty()).apply(value.toString()));
+            }
+            return ScrollPosition.forward(keys);
+
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static String getSortSignature(String sortBy, boolean descending) {
+        return sortBy + (descending ? ":desc" : ":asc");
+    }
+}
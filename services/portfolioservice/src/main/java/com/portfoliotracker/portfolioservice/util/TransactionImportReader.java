@@ -0,0 +1,176 @@
+package com.portfoliotracker.portfolioservice.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfoliotracker.portfolioservice.dto.request.PortfolioTransactionRequest;
+import com.portfoliotracker.portfolioservice.exception.InvalidImportFileException;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Reads transactions of an import file one row at a time, so files of any size are read in constant memory.
+ *
+ * CSV files must start with a header naming the date, stockSymbol, quantity and price columns, in any
+ * order. JSON files must contain an array of transaction objects. Rows that cannot be read are returned
+ * with an error instead of failing the whole file.
+ */
+public abstract class TransactionImportReader implements Closeable {
+
+    /**
+     * A transaction read from the file, or the reason it could not be read.
+     *
+     * @param number the line number for CSV files, the 1-based array index for JSON files.
+     */
+    public record Row(long number, PortfolioTransactionRequest request, String error) {
+    }
+
+    /**
+     * @return the next row, or {@code null} at the end of the file.
+     * @throws IOException if the file can no longer be read, for example because it is not well-formed JSON.
+     */
+    public abstract Row next() throws IOException;
+
+    /**
+     * @throws InvalidImportFileException if the header is missing or does not name the required columns.
+     */
+    public static TransactionImportReader ofCsv(InputStream inputStream) throws IOException {
+        return new CsvReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @throws InvalidImportFileException if the file does not start with a JSON array.
+     */
+    public static TransactionImportReader ofJson(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+        return new JsonReader(objectMapper, objectMapper.getFactory().createParser(inputStream));
+    }
+
+    private static final class CsvReader extends TransactionImportReader {
+
+        private static final List<String> COLUMNS = List.of("date", "stocksymbol", "quantity", "price");
+
+        private final BufferedReader reader;
+        private final int[] columnIndexes = new int[COLUMNS.size()];
+        private long lineNumber = 1;
+
+        private CsvReader(BufferedReader reader) throws IOException {
+
+            this.reader = reader;
+            String header = reader.readLine();
+            if (header == null) {
+                throw new InvalidImportFileException("the file is empty.");
+            }
+
+            List<String> headerColumns = Arrays.stream(split(header.replace("\uFEFF", "")))
+                    .map(column -> column.replace("_", "").toLowerCase(Locale.ROOT))
+                    .toList();
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                columnIndexes[i] = headerColumns.indexOf(COLUMNS.get(i));
+                if (columnIndexes[i] < 0) {
+                    throw new InvalidImportFileException(String.format(
+                            "the header must contain the columns date, stockSymbol, quantity and price, found '%s'.", header));
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+
+            if (line == null) {
+                return null;
+            }
+
+            String[] values = split(line);
+            try {
+                PortfolioTransactionRequest request = PortfolioTransactionRequest.builder()
+                        .date(value(values, 0) == null ? null : LocalDate.parse(value(values, 0)))
+                        .stockSymbol(value(values, 1))
+                        .quantity(value(values, 2) == null ? null : Long.valueOf(value(values, 2)))
+                        .price(value(values, 3) == null ? null : new BigDecimal(value(values, 3)))
+                        .build();
+                return new Row(lineNumber, request, null);
+            } catch (RuntimeException e) {
+                return new Row(lineNumber, null, String.format("Row could not be read: %s", e.getMessage()));
+            }
+        }
+
+        private String value(String[] values, int column) {
+            int index = columnIndexes[column];
+            return index < values.length && !values[index].isEmpty() ? values[index] : null;
+        }
+
+        private static String[] split(String line) {
+
+            String[] values = line.split(",", -1);
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i].trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1).trim();
+                }
+                values[i] = value;
+            }
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class JsonReader extends TransactionImportReader {
+
+        private final ObjectMapper objectMapper;
+        private final JsonParser parser;
+        private long index;
+
+        private JsonReader(ObjectMapper objectMapper, JsonParser parser) throws IOException {
+
+            this.objectMapper = objectMapper;
+            this.parser = parser;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new InvalidImportFileException("the file must contain a JSON array of transactions.");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+
+            index++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new Row(index, null, "Row is not a JSON object.");
+            }
+
+            JsonNode node = parser.readValueAsTree();
+            try {
+                return new Row(index, objectMapper.treeToValue(node, PortfolioTransactionRequest.class), null);
+            } catch (JsonProcessingException e) {
+                return new Row(index, null, String.format("Row could not be read: %s", e.getOriginalMessage()));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
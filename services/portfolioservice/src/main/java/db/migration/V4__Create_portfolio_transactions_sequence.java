@@ -0,0 +1,47 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Replaces the identity column of the transaction ids with a sequence that allocates ids in blocks of 50,
+ * so Hibernate can batch inserts, which an identity column prevents. The start of the sequence depends on
+ * the largest existing id, and the column default differs between databases, which is why this migration
+ * is not plain SQL.
+ */
+public class V4__Create_portfolio_transactions_sequence extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+
+        try (Statement statement = context.getConnection().createStatement()) {
+
+            long maxId = 0;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM portfolio_transactions")) {
+                if (resultSet.next()) {
+                    maxId = resultSet.getLong(1);
+                }
+            }
+
+            // Hibernate's pooled optimizer treats a value other than the initial one as the upper end of
+            // its block, so the first block of an existing table must end ALLOCATION_SIZE ids past the max.
+            long startWith = maxId == 0 ? 1 : maxId + ALLOCATION_SIZE;
+            statement.execute(String.format(
+                    "CREATE SEQUENCE IF NOT EXISTS portfolio_transactions_seq START WITH %d INCREMENT BY %d",
+                    startWith, ALLOCATION_SIZE));
+
+            // Rows inserted outside of Hibernate take a whole block from the same sequence instead of
+            // an identity value that could collide with the blocks allocated by Hibernate.
+            boolean isPostgres = "PostgreSQL".equals(context.getConnection().getMetaData().getDatabaseProductName());
+            statement.execute("ALTER TABLE portfolio_transactions ALTER COLUMN id DROP IDENTITY"
+                    + (isPostgres ? " IF EXISTS" : ""));
+            statement.execute("ALTER TABLE portfolio_transactions ALTER COLUMN id SET DEFAULT "
+                    + (isPostgres ? "nextval('portfolio_transactions_seq')" : "NEXT VALUE FOR portfolio_transactions_seq"));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+-- Schema previously created by hibernate.ddl-auto=update. IF NOT EXISTS keeps the script
+-- applicable to databases that were created before migrations were introduced.
+CREATE TABLE IF NOT EXISTS portfolio_transactions (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date_created TIMESTAMP(6),
+    user_id      VARCHAR(255)   NOT NULL,
+    date         DATE           NOT NULL,
+    stock_symbol VARCHAR(255)   NOT NULL,
+    quantity     BIGINT         NOT NULL,
+    price        NUMERIC(38, 2) NOT NULL
+);
@@ -0,0 +1,8 @@
+-- Positions are backfilled from the transactions on the first start, see PortfolioPositionServiceImpl.
+CREATE TABLE IF NOT EXISTS portfolio_positions (
+    user_id      VARCHAR(255)   NOT NULL,
+    stock_symbol VARCHAR(255)   NOT NULL,
+    quantity     BIGINT         NOT NULL,
+    total_cost   NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (user_id, stock_symbol)
+);
@@ -0,0 +1,11 @@
+-- Listing and paging the transactions of a user, in insertion order.
+CREATE INDEX IF NOT EXISTS idx_portfolio_transactions_user_id_id
+    ON portfolio_transactions (user_id, id);
+
+-- existsByUserIdAndStockSymbol and deleteByUserIdAndStockSymbol.
+CREATE INDEX IF NOT EXISTS idx_portfolio_transactions_user_id_stock_symbol
+    ON portfolio_transactions (user_id, stock_symbol);
+
+-- Paging the transactions of a user sorted by transaction date.
+CREATE INDEX IF NOT EXISTS idx_portfolio_transactions_user_id_date
+    ON portfolio_transactions (user_id, date);
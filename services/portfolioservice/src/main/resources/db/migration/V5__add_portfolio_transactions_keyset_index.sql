@@ -0,0 +1,6 @@
+-- Scrolling the transactions of a user by date continues after the date and id of the last row,
+-- so the id is added as the last column to serve both the condition and the order from the index.
+DROP INDEX IF EXISTS idx_portfolio_transactions_user_id_date;
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_transactions_user_id_date_id
+    ON portfolio_transactions (user_id, date, id);
@@ -0,0 +1,39 @@
+-- Sales are recorded as transactions with a negative quantity. Every purchase opens a lot, keyed by the id
+-- of its transaction, that sales consume in the order of the configured cost basis method.
+CREATE TABLE IF NOT EXISTS portfolio_lots (
+    transaction_id BIGINT         NOT NULL PRIMARY KEY,
+    user_id        VARCHAR(255)   NOT NULL,
+    stock_symbol   VARCHAR(255)   NOT NULL,
+    date           DATE           NOT NULL,
+    quantity       BIGINT         NOT NULL,
+    price          NUMERIC(38, 2) NOT NULL
+);
+
+-- Reading the open lots of a position in date order, from either end.
+CREATE INDEX IF NOT EXISTS idx_portfolio_lots_user_id_stock_symbol_date
+    ON portfolio_lots (user_id, stock_symbol, date, transaction_id);
+
+-- All existing transactions are purchases, none of them has been sold yet.
+INSERT INTO portfolio_lots (transaction_id, user_id, stock_symbol, date, quantity, price)
+SELECT id, user_id, stock_symbol, date, quantity, price
+FROM portfolio_transactions
+WHERE quantity > 0;
+
+-- Gain or loss of every sale, keyed by the id of the sale transaction.
+CREATE TABLE IF NOT EXISTS portfolio_realized_gains (
+    transaction_id BIGINT         NOT NULL PRIMARY KEY,
+    user_id        VARCHAR(255)   NOT NULL,
+    stock_symbol   VARCHAR(255)   NOT NULL,
+    date           DATE           NOT NULL,
+    quantity       BIGINT         NOT NULL,
+    proceeds       NUMERIC(38, 2) NOT NULL,
+    cost_basis     NUMERIC(38, 2) NOT NULL,
+    gain           NUMERIC(38, 2) NOT NULL
+);
+
+-- Listing the realized gains of a user by date, optionally for one stock.
+CREATE INDEX IF NOT EXISTS idx_portfolio_realized_gains_user_id_date
+    ON portfolio_realized_gains (user_id, date, transaction_id);
+
+-- Total realized gain of the sales of a position, so positions can be listed with it without aggregating.
+ALTER TABLE portfolio_positions ADD COLUMN IF NOT EXISTS realized_gain NUMERIC(38, 2) NOT NULL DEFAULT 0;
@@ -0,0 +1,30 @@
+-- Market value and invested amount of every active portfolio at the end of each day, appended by the
+-- nightly history job, see PortfolioHistoryServiceImpl. The primary key serves the range queries of a user.
+CREATE TABLE IF NOT EXISTS portfolio_value_history (
+    user_id         VARCHAR(255)   NOT NULL,
+    date            DATE           NOT NULL,
+    market_value    NUMERIC(38, 2) NOT NULL,
+    invested_amount NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (user_id, date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_value_history_date
+    ON portfolio_value_history (date);
+
+-- Closing prices used by the last run and the day each price last changed. Users holding a symbol whose
+-- price changed are revalued, the others carry their previous value forward.
+CREATE TABLE IF NOT EXISTS portfolio_history_prices (
+    stock_symbol VARCHAR(255)   NOT NULL PRIMARY KEY,
+    price        NUMERIC(38, 2) NOT NULL,
+    changed_on   DATE           NOT NULL
+);
+
+-- Users whose transactions changed since the last run.
+CREATE TABLE IF NOT EXISTS portfolio_history_pending_users (
+    user_id   VARCHAR(255) NOT NULL PRIMARY KEY,
+    marked_at TIMESTAMP    NOT NULL
+);
+
+INSERT INTO portfolio_history_pending_users (user_id, marked_at)
+SELECT DISTINCT user_id, CURRENT_TIMESTAMP
+FROM portfolio_transactions;
@@ -0,0 +1,7 @@
+-- Version of the transactions of every user, moved forward in the same database transaction as every change of
+-- the positions, so cached valuations of every instance can be checked against it, see
+-- PortfolioValuationCacheServiceImpl. Users without a row are at version 0.
+CREATE TABLE IF NOT EXISTS portfolio_versions (
+    user_id VARCHAR(255) NOT NULL PRIMARY KEY,
+    version BIGINT       NOT NULL
+);
@@ -0,0 +1,117 @@
+package com.portfoliotracker.portfolioservice.repository;
+
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.util.TransactionCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations on an embedded database, validates the entities against the migrated schema
+ * and checks that the repository query paths are served by an index rather than a table scan.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.cloud.config.enabled=false"
+})
+@Sql(scripts = "/db/seed/portfolio_transactions.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class PortfolioQueryPlanTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PortfolioTransactionRepository portfolioTransactionRepository;
+
+	@Autowired
+	private PortfolioPositionRepository portfolioPositionRepository;
+
+	@Test
+	void seededDataIsReadThroughRepositories() {
+		assertThat(portfolioTransactionRepository.findByUserId("user-1")).hasSize(100);
+		assertThat(portfolioTransactionRepository.existsByUserIdAndStockSymbol("user-1", "STK0")).isTrue();
+		assertThat(portfolioPositionRepository.findByUserIdAndQuantityGreaterThan("user-1", 0L)).isNotEmpty();
+	}
+
+	@Test
+	void findByUserIdUsesIndex() {
+		assertThat(plan("SELECT * FROM portfolio_transactions WHERE user_id = 'user-1'"))
+				.doesNotContain("tableScan")
+				.containsIgnoringCase("idx_portfolio_transactions_user_id_");
+	}
+
+	@Test
+	void findByUserIdAndIdUsesIndex() {
+		assertThat(plan("SELECT * FROM portfolio_transactions WHERE user_id = 'user-1' AND id = 42"))
+				.doesNotContain("tableScan");
+	}
+
+	@Test
+	void findByUserIdAfterIdUsesUserIdIdIndex() {
+		assertThat(plan("SELECT * FROM portfolio_transactions WHERE user_id = 'user-1' AND id > 1000 ORDER BY id LIMIT 20"))
+				.containsIgnoringCase("idx_portfolio_transactions_user_id_id");
+	}
+
+	@Test
+	void findByUserIdAndStockSymbolUsesUserIdStockSymbolIndex() {
+		assertThat(plan("SELECT id FROM portfolio_transactions WHERE user_id = 'user-1' AND stock_symbol = 'STK0'"))
+				.containsIgnoringCase("idx_portfolio_transactions_user_id_stock_symbol");
+	}
+
+	@Test
+	void findByUserIdInDateRangeUsesUserIdDateIndex() {
+		assertThat(plan("SELECT * FROM portfolio_transactions WHERE user_id = 'user-1' " +
+				"AND date BETWEEN DATE '2024-06-01' AND DATE '2024-06-30' ORDER BY date"))
+				.containsIgnoringCase("idx_portfolio_transactions_user_id_date");
+	}
+
+	@Test
+	void scrollingByDateReturnsEveryTransactionOnce() {
+
+		Set<Long> ids = new HashSet<>();
+		List<LocalDate> dates = new ArrayList<>();
+		String cursor = "";
+		do {
+			Window<PortfolioTransaction> window = portfolioTransactionRepository.findByUserId("user-1",
+					TransactionCursor.decode(cursor, "date", true), TransactionCursor.getSort("date", true), Limit.of(7));
+			window.forEach(transaction -> {
+				ids.add(transaction.getId());
+				dates.add(transaction.getDate());
+			});
+			cursor = window.hasNext()
+					? TransactionCursor.encode("date", true, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+					: null;
+		} while (cursor != null);
+
+		assertThat(ids).hasSize(100);
+		assertThat(dates).isSortedAccordingTo(Comparator.reverseOrder());
+	}
+
+	@Test
+	void scrollingByDateUsesIndex() {
+		assertThat(plan("SELECT * FROM portfolio_transactions WHERE user_id = 'user-1' " +
+				"AND (date < DATE '2024-06-01' OR (date = DATE '2024-06-01' AND id < 5000)) ORDER BY date DESC, id DESC LIMIT 8"))
+				.doesNotContain("tableScan");
+	}
+
+	@Test
+	void findPositionsByUserIdUsesPrimaryKey() {
+		assertThat(plan("SELECT * FROM portfolio_positions WHERE user_id = 'user-1' AND quantity > 0"))
+				.doesNotContain("tableScan");
+	}
+
+	private String plan(String sql) {
+		return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+	}
+
+}
@@ -0,0 +1,292 @@
+package com.portfoliotracker.portfolioservice.service;
+
+import com.portfoliotracker.portfolioservice.common.CostBasisMethod;
+import com.portfoliotracker.portfolioservice.dto.response.PortfolioSummaryResponse;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPosition;
+import com.portfoliotracker.portfolioservice.entity.PortfolioPositionId;
+import com.portfoliotracker.portfolioservice.entity.PortfolioRealizedGain;
+import com.portfoliotracker.portfolioservice.entity.PortfolioTransaction;
+import com.portfoliotracker.portfolioservice.exception.InsufficientQuantityException;
+import com.portfoliotracker.portfolioservice.repository.PortfolioLotRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioPositionRepository;
+import com.portfoliotracker.portfolioservice.repository.PortfolioRealizedGainRepository;
+import com.portfoliotracker.portfolioservice.service.impl.PortfolioLotServiceImpl;
+import com.portfoliotracker.portfolioservice.service.impl.PortfolioPositionServiceImpl;
+import com.portfoliotracker.portfolioservice.util.FixedPoint;
+import com.portfoliotracker.portfolioservice.util.PortfolioValuationCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Saves and deletes transactions through the position service on an embedded database and checks the positions,
+ * open lots and realized gains written by the lot engine for every cost basis method, and the portfolio totals
+ * valued from the positions.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.cloud.config.enabled=false"
+})
+@Import({PortfolioPositionServiceImpl.class, PortfolioLotServiceImpl.class})
+class PortfolioPositionServiceTests {
+
+	private static final String USER_ID = "user-1";
+	private static final String SYMBOL = "THYAO";
+
+	@Autowired
+	private PortfolioPositionService portfolioPositionService;
+
+	@Autowired
+	private PortfolioLotServiceImpl portfolioLotService;
+
+	@Autowired
+	private PortfolioPositionRepository portfolioPositionRepository;
+
+	@Autowired
+	private PortfolioLotRepository portfolioLotRepository;
+
+	@Autowired
+	private PortfolioRealizedGainRepository portfolioRealizedGainRepository;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
+
+	@AfterEach
+	void resetCostBasisMethod() {
+		useCostBasisMethod(CostBasisMethod.FIFO);
+	}
+
+	@Test
+	void fifoSaleAcrossLotsCostsTheOldestLots() {
+
+		buy(1, 10, "10");
+		buy(2, 10, "20");
+		sell(3, 15, "30");
+
+		assertPosition(5, "100", "250");
+		assertThat(realizedGains()).extracting(PortfolioRealizedGain::getCostBasis)
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(new BigDecimal("200"));
+		assertThat(portfolioLotRepository.findAll()).singleElement()
+				.satisfies(lot -> assertThat(lot.getQuantity()).isEqualTo(5L));
+	}
+
+	@Test
+	void lifoSaleAcrossLotsCostsTheNewestLots() {
+
+		useCostBasisMethod(CostBasisMethod.LIFO);
+		buy(1, 10, "10");
+		buy(2, 10, "20");
+		sell(3, 15, "30");
+
+		assertPosition(5, "50", "200");
+	}
+
+	@Test
+	void averageSaleCostsTheAverageOfThePosition() {
+
+		useCostBasisMethod(CostBasisMethod.AVERAGE);
+		buy(1, 10, "10");
+		buy(2, 10, "20");
+		sell(3, 15, "30");
+
+		assertPosition(5, "75", "225");
+	}
+
+	@Test
+	void salesAcrossSeveralLotsCloseTheMatchedLots() {
+
+		buy(1, 10, "10");
+		buy(2, 10, "20");
+		buy(3, 10, "30");
+		sell(4, 5, "40");
+		sell(5, 20, "40");
+
+		// 5 @ 10, then 5 @ 10, 10 @ 20 and 5 @ 30.
+		assertPosition(5, "150", "550");
+		assertThat(portfolioLotRepository.findAll()).singleElement()
+				.satisfies(lot -> assertThat(lot.getPrice()).isEqualByComparingTo("30"));
+	}
+
+	@Test
+	void saleExceedingTheQuantityHeldIsRejected() {
+
+		buy(1, 10, "10");
+
+		assertThatThrownBy(() -> sell(2, 11, "30")).isInstanceOf(InsufficientQuantityException.class);
+	}
+
+	@Test
+	void deletingAPurchaseWithoutLaterSaleRemovesItsLot() {
+
+		buy(1, 10, "10");
+		PortfolioTransaction purchase = buy(2, 10, "20");
+
+		portfolioPositionService.deleteTransaction(purchase);
+
+		assertPosition(10, "100", "0");
+		assertThat(portfolioLotRepository.findAll()).hasSize(1);
+	}
+
+	@Test
+	void deletingAPurchaseBeforeASaleReplaysThePosition() {
+
+		PortfolioTransaction purchase = buy(1, 10, "10");
+		buy(2, 10, "20");
+		sell(3, 5, "30");
+
+		portfolioPositionService.deleteTransaction(purchase);
+
+		// The sale is matched against the remaining purchase.
+		assertPosition(5, "100", "50");
+	}
+
+	@Test
+	void deletingAPurchaseReplaysThePositionWithAverageCostBasis() {
+
+		useCostBasisMethod(CostBasisMethod.AVERAGE);
+		buy(1, 10, "10");
+		PortfolioTransaction purchase = buy(2, 10, "20");
+		sell(3, 10, "30");
+
+		portfolioPositionService.deleteTransaction(purchase);
+
+		assertPosition(0, "0", "200");
+		assertThat(portfolioLotRepository.findAll()).isEmpty();
+	}
+
+	@Test
+	void deletingASaleReplaysThePosition() {
+
+		buy(1, 10, "10");
+		PortfolioTransaction sale = sell(2, 5, "30");
+
+		portfolioPositionService.deleteTransaction(sale);
+
+		assertPosition(10, "100", "0");
+		assertThat(portfolioLotRepository.findAll()).singleElement()
+				.satisfies(lot -> assertThat(lot.getQuantity()).isEqualTo(10L));
+		assertThat(realizedGains()).isEmpty();
+	}
+
+	@Test
+	void deletingAPurchaseThatASaleNeedsIsRejected() {
+
+		PortfolioTransaction purchase = buy(1, 10, "10");
+		sell(2, 5, "30");
+
+		assertThatThrownBy(() -> portfolioPositionService.deleteTransaction(purchase))
+				.isInstanceOf(InsufficientQuantityException.class);
+	}
+
+	@Test
+	void rebuildReplaysThePositionsAsTheyWereSaved() {
+
+		buy(1, 10, "10");
+		buy(2, 10, "20");
+		sell(3, 15, "30");
+
+		portfolioPositionService.rebuildPositions();
+
+		assertPosition(5, "100", "250");
+		assertThat(realizedGains()).hasSize(1);
+	}
+
+	@Test
+	void savingManyTransactionsAppliesThemInOrder() {
+
+		portfolioPositionService.saveTransactions(List.of(
+				transaction(1, 10, "10"),
+				transaction(2, 10, "20"),
+				transaction(3, -15, "30")));
+
+		assertPosition(5, "100", "250");
+	}
+
+	@Test
+	void summaryKeepsTheRealizedGainOfPositionsSoldCompletely() {
+
+		buy(1, 10, "10");
+		sell(2, 10, "30");
+		portfolioPositionService.saveTransaction(new PortfolioTransaction(0, null, USER_ID, LocalDate.of(2024, 6, 3),
+				"ASELS", 5L, new BigDecimal("40")));
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		PortfolioSummaryResponse summary = PortfolioValuationCalculator.value(
+				portfolioPositionService.getUserPositions(USER_ID),
+				Map.of("ASELS", new PortfolioValuationCalculator.Quote(FixedPoint.fromDecimal(new BigDecimal("50")), 0, 0))).summary();
+
+		assertThat(summary.getStockCount()).isEqualTo(1);
+		assertThat(summary.getTotalCost()).isEqualTo(FixedPoint.fromDecimal(new BigDecimal("200")));
+		assertThat(summary.getMarketValue()).isEqualTo(FixedPoint.fromDecimal(new BigDecimal("250")));
+		assertThat(summary.getRealizedProfitLossInTL()).isEqualTo(FixedPoint.fromDecimal(new BigDecimal("200")));
+	}
+
+	@Test
+	void summaryOfPositionsSoldCompletelyHasOnlyTheRealizedGain() {
+
+		buy(1, 10, "10");
+		sell(2, 10, "30");
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		PortfolioValuationCalculator.Valuation valuation = PortfolioValuationCalculator.value(
+				portfolioPositionService.getUserPositions(USER_ID), Map.of());
+
+		assertThat(valuation.stocks()).isEmpty();
+		assertThat(valuation.summary().getStockCount()).isZero();
+		assertThat(valuation.summary().getMarketValue()).isZero();
+		assertThat(valuation.summary().getTotalCost()).isZero();
+		assertThat(valuation.summary().isQuoteMissing()).isFalse();
+		assertThat(valuation.summary().getRealizedProfitLossInTL()).isEqualTo(FixedPoint.fromDecimal(new BigDecimal("200")));
+	}
+
+	private void useCostBasisMethod(CostBasisMethod costBasisMethod) {
+		ReflectionTestUtils.setField(portfolioLotService, "costBasisMethod", costBasisMethod);
+	}
+
+	private PortfolioTransaction buy(int day, long quantity, String price) {
+		return portfolioPositionService.saveTransaction(transaction(day, quantity, price));
+	}
+
+	private PortfolioTransaction sell(int day, long quantity, String price) {
+		return portfolioPositionService.saveTransaction(transaction(day, -quantity, price));
+	}
+
+	private static PortfolioTransaction transaction(int day, long quantity, String price) {
+		return new PortfolioTransaction(0, null, USER_ID, LocalDate.of(2024, 6, day), SYMBOL, quantity, new BigDecimal(price));
+	}
+
+	private PortfolioPosition position() {
+		testEntityManager.flush();
+		testEntityManager.clear();
+		return portfolioPositionRepository.findById(new PortfolioPositionId(USER_ID, SYMBOL)).orElse(null);
+	}
+
+	private List<PortfolioRealizedGain> realizedGains() {
+		return portfolioRealizedGainRepository.findByUserIdAndStockSymbol(USER_ID, SYMBOL, Pageable.unpaged()).getContent();
+	}
+
+	private void assertPosition(long quantity, String totalCost, String realizedGain) {
+		PortfolioPosition position = position();
+		assertThat(position).isNotNull();
+		assertThat(position.getQuantity()).isEqualTo(quantity);
+		assertThat(position.getTotalCost()).isEqualByComparingTo(totalCost);
+		assertThat(position.getRealizedGain()).isEqualByComparingTo(realizedGain);
+	}
+
+}
@@ -0,0 +1,16 @@
+-- 200 users with 100 transactions each, spread over 20 stocks and a year of trading days.
+INSERT INTO portfolio_transactions (date_created, user_id, date, stock_symbol, quantity, price)
+SELECT CURRENT_TIMESTAMP,
+       'user-' || MOD(X, 200),
+       DATEADD('DAY', -MOD(X, 365), DATE '2025-01-01'),
+       'STK' || MOD(X / 200, 20),
+       1 + MOD(X, 50),
+       10 + MOD(X, 90)
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO portfolio_positions (user_id, stock_symbol, quantity, total_cost)
+SELECT user_id, stock_symbol, SUM(quantity), SUM(price * quantity)
+FROM portfolio_transactions
+GROUP BY user_id, stock_symbol;
+
+ANALYZE;
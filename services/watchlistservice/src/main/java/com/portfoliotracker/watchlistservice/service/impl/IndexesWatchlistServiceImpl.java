@@ -10,6 +10,7 @@ import com.portfoliotracker.watchlistservice.service.MarketDataService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -144,12 +145,17 @@ public class IndexesWatchlistServiceImpl implements IndexesWatchlistService {
             error = "Already exists.";
         }
         else {
-            indexesWatchlistRepository.save(
-                    IndexesWatchlist.builder()
-                            .userId(userId)
-                            .indexSymbol(symbol)
-                            .build()
-            );
+            try {
+                indexesWatchlistRepository.save(
+                        IndexesWatchlist.builder()
+                                .userId(userId)
+                                .indexSymbol(symbol)
+                                .build()
+                );
+            } catch (DataIntegrityViolationException e) {
+                // Added by a concurrent request since the check above.
+                error = "Already exists.";
+            }
         }
 
         return IndexResultResponse.builder()
@@ -7,19 +7,19 @@ import com.portfoliotracker.watchlistservice.dto.response.MarketDataServiceStock
 import com.portfoliotracker.watchlistservice.dto.response.StockWithMarketDataResponse;
 import com.portfoliotracker.watchlistservice.exception.UnknownSortPropertyException;
 import com.portfoliotracker.watchlistservice.service.MarketDataService;
+import com.portfoliotracker.watchlistservice.util.InMemoryQuery;
+import com.portfoliotracker.watchlistservice.util.MarketDataSnapshotReader;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service implementation that communicates with the external Market Data service
@@ -30,6 +30,27 @@ public class MarketDataServiceImpl implements MarketDataService {
 
     private final WebClient webClient;
 
+    private final MarketDataSnapshotReader snapshotReader;
+
+    // Stocks and indexes without market data sort last.
+    private static final InMemoryQuery<StockWithMarketDataResponse> STOCK_QUERY = new InMemoryQuery<>(Map.of(
+            "stockSymbol", Comparator.comparing(StockWithMarketDataResponse::getStockSymbol),
+            "latestValue", Comparator.comparing(StockWithMarketDataResponse::getLatestValue),
+            "dailyChangePct", Comparator.comparing(StockWithMarketDataResponse::getDailyChangePct)
+    ), Map.of(
+            "latestValue", stock -> stock.getLatestValue() == null,
+            "dailyChangePct", stock -> stock.getDailyChangePct() == null
+    ));
+
+    private static final InMemoryQuery<IndexWithMarketDataResponse> INDEX_QUERY = new InMemoryQuery<>(Map.of(
+            "indexSymbol", Comparator.comparing(IndexWithMarketDataResponse::getIndexSymbol),
+            "latestValue", Comparator.comparing(IndexWithMarketDataResponse::getLatestValue),
+            "dailyChangePct", Comparator.comparing(IndexWithMarketDataResponse::getDailyChangePct)
+    ), Map.of(
+            "latestValue", index -> index.getLatestValue() == null,
+            "dailyChangePct", index -> index.getDailyChangePct() == null
+    ));
+
     public MarketDataServiceImpl(WebClient.Builder webClientBuilder , Environment env) {
 
         String baseUrl = env.getProperty("MARKET_DATA_SERVICE_BASE_URL");
@@ -39,6 +60,13 @@ public class MarketDataServiceImpl implements MarketDataService {
         }
 
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+
+        // Set when a marketdata instance publishes its snapshot file on the same host.
+        String snapshotFile = env.getProperty("MARKET_DATA_SNAPSHOT_FILE");
+        this.snapshotReader = new MarketDataSnapshotReader(
+                snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile),
+                env.getProperty("MARKET_DATA_SNAPSHOT_FILE_MAX_AGE_MS", Long.class, 30_000L)
+        );
     }
 
     /**
@@ -75,13 +103,19 @@ public class MarketDataServiceImpl implements MarketDataService {
 
 
     /**
-     * Fetches all stock symbols from the market data service.
+     * Fetches all stock symbols from the local snapshot file, or from the market data service
+     * if the file is not available.
      *
      * @return a list of all stock symbols
      */
     @Override
     public List<String> getAllStockSymbols() {
 
+        Optional<List<String>> localStockSymbols = snapshotReader.findSymbols();
+        if (localStockSymbols.isPresent()) {
+            return localStockSymbols.get();
+        }
+
         try {
 
             String uri = UriComponentsBuilder.fromUriString("/market-data/api/v1/stocks/symbols")
@@ -108,95 +142,86 @@ public class MarketDataServiceImpl implements MarketDataService {
 
     /**
      * Fetches stock market data for a list of symbols, applies sorting and pagination.
+     * Quotes are read from the local snapshot file when it is available. Stocks without a quote are sorted
+     * after the others by value, and only the stocks up to the end of the requested page are put in order.
      *
      * @param stockSymbols list of stock symbols to retrieve data for
      * @param page page number
      * @param size page size
      * @param sort sorting criteria
      * @return a Page object containing sorted and paginated stock data
+     * @throws UnknownSortPropertyException if the stocks cannot be sorted by a property of the sort
      */
     @Override
     public Page<StockWithMarketDataResponse> fetchStocksMarketData(List<String> stockSymbols, int page, int size, Sort sort) {
 
         List<StockWithMarketDataResponse> stockWithMarketDataResponses = new ArrayList<>();
 
-        try {
-            String uri = UriComponentsBuilder.fromUriString("/market-data/api/v1/stocks")
-                    .queryParam("symbols", String.join(",", stockSymbols))
-                    .build()
-                    .toString();
+        Optional<Map<String, MarketDataSnapshotReader.Quote>> localQuotes = snapshotReader.findQuotes(stockSymbols);
 
-            ApiCustomResponse<List<MarketDataServiceStockResponse>> serviceResponse = webClient.get()
-                    .uri(uri)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<List<MarketDataServiceStockResponse>>>() {})
-                    .block();
-
-            // Map each symbol to its response or create an empty response if not found
+        if (localQuotes.isPresent()) {
             for (String stockSymbol : stockSymbols) {
-
-                StockWithMarketDataResponse stockWithMarketDataResponse;
-
-                Optional<MarketDataServiceStockResponse> marketDataIndexResponseOptional = serviceResponse.getData().stream()
-                        .filter(s -> s.getStockSymbol().equals(stockSymbol))
-                        .findFirst();
-                if (marketDataIndexResponseOptional.isPresent()) {
-
-                    MarketDataServiceStockResponse marketDataServiceStockResponse = marketDataIndexResponseOptional.get();
-                    stockWithMarketDataResponse = StockWithMarketDataResponse.builder()
-                            .stockSymbol(stockSymbol)
-                            .latestValue(marketDataServiceStockResponse.getLatestPrice())
-                            .dailyChangePct(marketDataServiceStockResponse.getDailyChangePct())
-                            .build();
-
-                } else {
-                    stockWithMarketDataResponse = StockWithMarketDataResponse.builder()
-                            .stockSymbol(stockSymbol)
-                            .latestValue(null)
-                            .dailyChangePct(null)
-                            .build();
+                MarketDataSnapshotReader.Quote quote = localQuotes.get().get(stockSymbol);
+                stockWithMarketDataResponses.add(StockWithMarketDataResponse.builder()
+                        .stockSymbol(stockSymbol)
+                        .latestValue(quote != null ? quote.latestPrice() : null)
+                        .dailyChangePct(quote != null ? quote.dailyChangePct() : null)
+                        .build());
+            }
+        } else {
+            try {
+                String uri = UriComponentsBuilder.fromUriString("/market-data/api/v1/stocks")
+                        .queryParam("symbols", String.join(",", stockSymbols))
+                        .build()
+                        .toString();
+
+                ApiCustomResponse<List<MarketDataServiceStockResponse>> serviceResponse = webClient.get()
+                        .uri(uri)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<ApiCustomResponse<List<MarketDataServiceStockResponse>>>() {})
+                        .block();
+
+                // Map each symbol to its response or create an empty response if not found
+                for (String stockSymbol : stockSymbols) {
+
+                    StockWithMarketDataResponse stockWithMarketDataResponse;
+
+                    Optional<MarketDataServiceStockResponse> marketDataIndexResponseOptional = serviceResponse.getData().stream()
+                            .filter(s -> s.getStockSymbol().equals(stockSymbol))
+                            .findFirst();
+                    if (marketDataIndexResponseOptional.isPresent()) {
+
+                        MarketDataServiceStockResponse marketDataServiceStockResponse = marketDataIndexResponseOptional.get();
+                        stockWithMarketDataResponse = StockWithMarketDataResponse.builder()
+                                .stockSymbol(stockSymbol)
+                                .latestValue(marketDataServiceStockResponse.getLatestPrice())
+                                .dailyChangePct(marketDataServiceStockResponse.getDailyChangePct())
+                                .build();
+
+                    } else {
+                        stockWithMarketDataResponse = StockWithMarketDataResponse.builder()
+                                .stockSymbol(stockSymbol)
+                                .latestValue(null)
+                                .dailyChangePct(null)
+                                .build();
+                    }
+                    stockWithMarketDataResponses.add(stockWithMarketDataResponse);
                 }
-                stockWithMarketDataResponses.add(stockWithMarketDataResponse);
+            } catch (WebClientResponseException e) {
+                throw new RuntimeException(String.format("HTTP error while fetching stocks market data... Status Code: '%s'." +
+                        "Response Body: '%s'.",e.getStatusCode(),e.getResponseBodyAsString()));
+            } catch (Exception e) {
+                throw new RuntimeException("An error occurred while fetching market data for given stock symbols. " +
+                        "Exception message: %s" + e.getMessage());
             }
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException(String.format("HTTP error while fetching stocks market data... Status Code: '%s'." +
-                    "Response Body: '%s'.",e.getStatusCode(),e.getResponseBodyAsString()));
-        } catch (Exception e) {
-            throw new RuntimeException("An error occurred while fetching market data for given stock symbols. " +
-                    "Exception message: %s" + e.getMessage());
-        }
-
-        // Handle pagination
-        stockWithMarketDataResponses = sortStockWithMarketDataResponse(stockWithMarketDataResponses, sort);
-
-        // Handle pagination
-        if (page < 0) {
-            return new PageImpl<>(
-                    stockWithMarketDataResponses,
-                    PageRequest.of(0, Math.max(stockWithMarketDataResponses.size(), 1), sort),
-                    stockWithMarketDataResponses.size()
-            );
         }
 
-        PageRequest pageRequest = PageRequest.of(page, size, sort);
-
-        int totalElements = stockWithMarketDataResponses.size();
-
-        int start = (int) pageRequest.getOffset();
-        int end = Math.min((start + pageRequest.getPageSize()), totalElements);
-
-        if (start > totalElements) {
-            return new PageImpl<>(new ArrayList<>(), pageRequest, totalElements);
-        }
-
-        List<StockWithMarketDataResponse> pageContent = stockWithMarketDataResponses.subList(start, end);
-
-        return new PageImpl<>(pageContent, pageRequest, totalElements);
-
+        return STOCK_QUERY.getPage(stockWithMarketDataResponses, page, size, sort);
     }
 
     /**
      * Fetches index market data for a list of index symbols, applies sorting and pagination.
+     * Indexes without market data are sorted after the others by value.
      *
      * @param indexSymbols list of index symbols to retrieve data for
      * @param page page number (zero-based)
@@ -242,32 +267,7 @@ public class MarketDataServiceImpl implements MarketDataService {
                 indexWithMarketDataResponses.add(indexWithMarketDataResponse);
             }
 
-            // Handle pagination
-            indexWithMarketDataResponses = sortIndexWithMarketDataResponse(indexWithMarketDataResponses, sort);
-
-            // Handle pagination
-            if (page < 0) {
-                return new PageImpl<>(
-                        indexWithMarketDataResponses,
-                        PageRequest.of(0, Math.max(indexWithMarketDataResponses.size(), 1), sort),
-                        indexWithMarketDataResponses.size()
-                );
-            }
-
-            PageRequest pageRequest = PageRequest.of(page, size, sort);
-
-            int totalElements = indexWithMarketDataResponses.size();
-
-            int start = (int) pageRequest.getOffset();
-            int end = Math.min((start + pageRequest.getPageSize()), totalElements);
-
-            if (start > totalElements) {
-                return new PageImpl<>(new ArrayList<>(), pageRequest, totalElements);
-            }
-
-            List<IndexWithMarketDataResponse> pageContent = indexWithMarketDataResponses.subList(start, end);
-
-            return new PageImpl<>(pageContent, pageRequest, totalElements);
+            return INDEX_QUERY.getPage(indexWithMarketDataResponses, page, size, sort);
 
         } catch (WebClientResponseException e) {
             throw new RuntimeException(String.format("HTTP error while fetching indexes market data... Status Code: '%s'." +
@@ -277,61 +277,4 @@ public class MarketDataServiceImpl implements MarketDataService {
                     "Exception message: %s" + e.getMessage());
         }
     }
-
-    private List<StockWithMarketDataResponse> sortStockWithMarketDataResponse(List<StockWithMarketDataResponse> list, Sort sort) {
-
-        if (sort.isUnsorted()) {
-            return list;
-        }
-
-        return list.stream().sorted((o1, o2) -> {
-            for (Sort.Order order : sort) {
-                Comparator<StockWithMarketDataResponse> comparator = getStockComparator(order);
-                int result = comparator.compare(o1, o2);
-                if (result != 0) {
-                    return order.isAscending() ? result : -result;
-                }
-            }
-            return 0;
-        }).collect(Collectors.toList());
-    }
-
-    private Comparator<StockWithMarketDataResponse> getStockComparator(Sort.Order order) {
-        return switch (order.getProperty()) {
-            case "stockSymbol" -> Comparator.comparing(StockWithMarketDataResponse::getStockSymbol);
-            case "latestValue" -> Comparator.comparing(StockWithMarketDataResponse::getLatestValue);
-            case "dailyChangePct" -> Comparator.comparing(StockWithMarketDataResponse::getDailyChangePct);
-            default -> throw new UnknownSortPropertyException( order.getProperty());
-        };
-    }
-
-
-    private List<IndexWithMarketDataResponse> sortIndexWithMarketDataResponse(List<IndexWithMarketDataResponse> list, Sort sort) {
-
-        if (sort.isUnsorted()) {
-            return list;
-        }
-
-        return list.stream().sorted((o1, o2) -> {
-            for (Sort.Order order : sort) {
-                Comparator<IndexWithMarketDataResponse> comparator = getIndexComparator(order);
-                int result = comparator.compare(o1, o2);
-                if (result != 0) {
-                    return order.isAscending() ? result : -result;
-                }
-            }
-            return 0;
-        }).collect(Collectors.toList());
-    }
-
-    private Comparator<IndexWithMarketDataResponse> getIndexComparator(Sort.Order order) {
-        return switch (order.getProperty()) {
-            case "indexSymbol" -> Comparator.comparing(IndexWithMarketDataResponse::getIndexSymbol);
-            case "latestValue" -> Comparator.comparing(IndexWithMarketDataResponse::getLatestValue);
-            case "dailyChangePct" -> Comparator.comparing(IndexWithMarketDataResponse::getDailyChangePct);
-            default -> throw new UnknownSortPropertyException( order.getProperty());
-        };
-    }
-
-
 }
@@ -10,6 +10,7 @@ import com.portfoliotracker.watchlistservice.service.StocksWatchlistService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -132,12 +133,17 @@ public class StocksWatchlistServiceImpl implements StocksWatchlistService {
             error = "Already exists.";
         }
         else {
-            stocksWatchlistRepository.save(
-                    StocksWatchlist.builder()
-                            .userId(userId)
-                            .stockSymbol(symbol)
-                            .build()
-            );
+            try {
+                stocksWatchlistRepository.save(
+                        StocksWatchlist.builder()
+                                .userId(userId)
+                                .stockSymbol(symbol)
+                                .build()
+                );
+            } catch (DataIntegrityViolationException e) {
+                // Added by a concurrent request since the check above.
+                error = "Already exists.";
+            }
         }
 
         return StockResultResponse.builder()
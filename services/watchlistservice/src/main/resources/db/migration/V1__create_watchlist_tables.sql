@@ -0,0 +1,15 @@
+-- Schema previously created by hibernate.ddl-auto=update. IF NOT EXISTS keeps the script
+-- applicable to databases that were created before migrations were introduced.
+CREATE TABLE IF NOT EXISTS stocks_watchlist (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date_created TIMESTAMP(6),
+    user_id      VARCHAR(255) NOT NULL,
+    stock_symbol VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS indexes_watchlist (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date_created TIMESTAMP(6),
+    user_id      VARCHAR(255) NOT NULL,
+    index_symbol VARCHAR(255) NOT NULL
+);
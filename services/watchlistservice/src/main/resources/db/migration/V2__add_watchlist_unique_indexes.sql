@@ -0,0 +1,15 @@
+-- Without a constraint, concurrent requests could add the same symbol twice. Keep the oldest entry
+-- of any duplicates before the unique indexes are created.
+DELETE FROM stocks_watchlist
+WHERE id NOT IN (SELECT MIN(id) FROM stocks_watchlist GROUP BY user_id, stock_symbol);
+
+DELETE FROM indexes_watchlist
+WHERE id NOT IN (SELECT MIN(id) FROM indexes_watchlist GROUP BY user_id, index_symbol);
+
+-- findByUserId, findStockSymbolsByUserId and deleteByUserIdAndStockSymbol.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_stocks_watchlist_user_id_stock_symbol
+    ON stocks_watchlist (user_id, stock_symbol);
+
+-- findByUserId, findIndexSymbolsByUserId and deleteByUserIdAndIndexSymbol.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_indexes_watchlist_user_id_index_symbol
+    ON indexes_watchlist (user_id, index_symbol);
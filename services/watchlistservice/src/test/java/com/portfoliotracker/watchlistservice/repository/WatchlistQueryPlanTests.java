@@ -0,0 +1,75 @@
+package com.portfoliotracker.watchlistservice.repository;
+
+import com.portfoliotracker.watchlistservice.entity.StocksWatchlist;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the migrations on an embedded database, validates the entities against the migrated schema
+ * and checks that the repository query paths are served by the unique indexes.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=validate",
+		"spring.cloud.config.enabled=false"
+})
+@Sql(scripts = "/db/seed/watchlists.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class WatchlistQueryPlanTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private StocksWatchlistRepository stocksWatchlistRepository;
+
+	@Autowired
+	private IndexesWatchlistRepository indexesWatchlistRepository;
+
+	@Test
+	void seededDataIsReadThroughRepositories() {
+		assertThat(stocksWatchlistRepository.findStockSymbolsByUserId("user-1")).hasSize(20);
+		assertThat(indexesWatchlistRepository.findIndexSymbolsByUserId("user-1")).hasSize(4);
+	}
+
+	@Test
+	void duplicateStockIsRejected() {
+		StocksWatchlist duplicate = StocksWatchlist.builder().userId("user-1").stockSymbol("STK0").build();
+		assertThatThrownBy(() -> stocksWatchlistRepository.saveAndFlush(duplicate))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void findStocksByUserIdUsesUniqueIndex() {
+		assertThat(plan("SELECT stock_symbol FROM stocks_watchlist WHERE user_id = 'user-1'"))
+				.containsIgnoringCase("uk_stocks_watchlist_user_id_stock_symbol");
+	}
+
+	@Test
+	void findStockByUserIdAndStockSymbolUsesUniqueIndex() {
+		assertThat(plan("SELECT id FROM stocks_watchlist WHERE user_id = 'user-1' AND stock_symbol = 'STK0'"))
+				.containsIgnoringCase("uk_stocks_watchlist_user_id_stock_symbol");
+	}
+
+	@Test
+	void findIndexesByUserIdUsesUniqueIndex() {
+		assertThat(plan("SELECT index_symbol FROM indexes_watchlist WHERE user_id = 'user-1'"))
+				.containsIgnoringCase("uk_indexes_watchlist_user_id_index_symbol");
+	}
+
+	@Test
+	void findIndexByUserIdAndIndexSymbolUsesUniqueIndex() {
+		assertThat(plan("SELECT id FROM indexes_watchlist WHERE user_id = 'user-1' AND index_symbol = 'XU0'"))
+				.containsIgnoringCase("uk_indexes_watchlist_user_id_index_symbol");
+	}
+
+	private String plan(String sql) {
+		return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+	}
+
+}
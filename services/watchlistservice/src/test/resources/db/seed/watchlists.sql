@@ -0,0 +1,10 @@
+-- 500 users watching 20 stocks and 4 indexes each.
+INSERT INTO stocks_watchlist (date_created, user_id, stock_symbol)
+SELECT CURRENT_TIMESTAMP, 'user-' || MOD(X, 500), 'STK' || (X / 500)
+FROM SYSTEM_RANGE(0, 9999);
+
+INSERT INTO indexes_watchlist (date_created, user_id, index_symbol)
+SELECT CURRENT_TIMESTAMP, 'user-' || MOD(X, 500), 'XU' || (X / 500)
+FROM SYSTEM_RANGE(0, 1999);
+
+ANALYZE;